@@ -0,0 +1,27 @@
+-- chat_conversation 목록용 요약 컬럼 백필 스크립트
+-- PostgreSQL 기준. 컬럼/인덱스는 JPA(ddl-auto)로 생성되며, 애플리케이션 기동 시 ChatSchemaInitializer 가
+-- last_updated 가 비어 있는 대화에 대해 동일 백필을 실행한다.
+-- message_count 는 이후 턴마다 누적되며, 백필 값은 spring_ai_chat_memory 에 남아 있는(윈도우 내) 메시지 수다.
+
+ALTER TABLE chat_conversation ADD COLUMN IF NOT EXISTS last_updated timestamp(6) with time zone;
+ALTER TABLE chat_conversation ADD COLUMN IF NOT EXISTS message_count integer NOT NULL DEFAULT 0;
+ALTER TABLE chat_conversation ADD COLUMN IF NOT EXISTS first_user_message text;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_chat_conversation_login_updated
+    ON chat_conversation (login_id, last_updated DESC, id DESC);
+
+UPDATE chat_conversation c
+SET last_updated = s.last_updated,
+    message_count = s.message_count,
+    first_user_message = left(s.first_user_message, 200)
+FROM (
+    SELECT
+        m.conversation_id,
+        MAX(m."timestamp") AS last_updated,
+        COUNT(*) AS message_count,
+        (ARRAY_AGG(m.content ORDER BY m."timestamp") FILTER (WHERE m.type = 'USER'))[1] AS first_user_message
+    FROM spring_ai_chat_memory m
+    JOIN chat_conversation pending ON pending.id = m.conversation_id AND pending.last_updated IS NULL
+    GROUP BY m.conversation_id
+) s
+WHERE c.id = s.conversation_id;
@@ -0,0 +1,23 @@
+-- rag_document(문서 등록 정보) 백필 스크립트
+-- PostgreSQL 기준. 테이블은 JPA(ddl-auto)로 생성되며, RagSchemaInitializer 가 기동할 때마다
+-- 등록되지 않은 문서만 같은 방식으로 백필한다. 기존 vector_store 청크 metadata 의 summary 도 옮긴다.
+-- 시각은 ISO-8601 형태의 값만 변환하고, 그 밖의 값은 ingested_at=now(), summarized_at=NULL 로 둔다.
+-- 2026-10-18-vector-store-generated-columns.sql 적용 이후에 실행한다.
+
+INSERT INTO rag_document (doc_id, login_id, title, filename, source, ingested_at, chunk_count, summary, summarized_at)
+SELECT
+    v.doc_id,
+    v.login_id,
+    COALESCE(MAX(v.metadata->>'title'), MAX(v.metadata->>'filename'), 'untitled'),
+    MAX(v.metadata->>'filename'),
+    MAX(v.source),
+    COALESCE(CASE WHEN MAX(v.ingested_at) ~ '^\d{4}-\d{2}-\d{2}T\d{2}:\d{2}:\d{2}(\.\d+)?(Z|[+-]\d{2}:\d{2})$' THEN MAX(v.ingested_at)::timestamptz END, now()),
+    COUNT(*),
+    MAX(v.metadata->>'summary'),
+    CASE WHEN MAX(v.metadata->>'summarizedAt') ~ '^\d{4}-\d{2}-\d{2}T\d{2}:\d{2}:\d{2}(\.\d+)?(Z|[+-]\d{2}:\d{2})$' THEN MAX(v.metadata->>'summarizedAt')::timestamptz END
+FROM vector_store v
+JOIN app_user u ON u.login_id = v.login_id
+WHERE v.doc_id IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM rag_document d WHERE d.doc_id = v.doc_id)
+GROUP BY v.doc_id, v.login_id
+ON CONFLICT (doc_id) DO NOTHING;
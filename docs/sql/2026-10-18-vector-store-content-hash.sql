@@ -0,0 +1,10 @@
+-- vector_store 청크 본문 해시(metadata.contentHash) 생성 컬럼/인덱스 스크립트
+-- PostgreSQL 기준. 애플리케이션 기동 시 RagSchemaInitializer 가 동일 DDL을 실행한다.
+-- STORED 생성 컬럼 추가는 테이블 재작성(ACCESS EXCLUSIVE 잠금)을 동반하므로 대용량 테이블은 점검 시간에 먼저 실행한다.
+
+ALTER TABLE vector_store ADD COLUMN IF NOT EXISTS login_id text GENERATED ALWAYS AS (metadata->>'loginId') STORED;
+ALTER TABLE vector_store ADD COLUMN IF NOT EXISTS content_hash text GENERATED ALWAYS AS (metadata->>'contentHash') STORED;
+
+-- 인덱스는 트랜잭션 밖에서 CONCURRENTLY 로 만든다.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_vector_store_login_hash
+    ON vector_store (login_id, content_hash);
@@ -0,0 +1,19 @@
+-- vector_store metadata 핵심 키(loginId/docId/ingestedAt/source/contentHash) 생성 컬럼 승격 스크립트
+-- PostgreSQL 기준. 애플리케이션 기동 시 RagSchemaInitializer 가 동일 DDL을 실행한다.
+-- STORED 생성 컬럼 추가는 테이블 재작성(ACCESS EXCLUSIVE 잠금)을 동반하므로 대용량 테이블은 점검 시간에 먼저 실행한다.
+
+BEGIN;
+
+ALTER TABLE vector_store ADD COLUMN IF NOT EXISTS login_id text GENERATED ALWAYS AS (metadata->>'loginId') STORED;
+ALTER TABLE vector_store ADD COLUMN IF NOT EXISTS doc_id text GENERATED ALWAYS AS (metadata->>'docId') STORED;
+ALTER TABLE vector_store ADD COLUMN IF NOT EXISTS ingested_at text GENERATED ALWAYS AS (metadata->>'ingestedAt') STORED;
+ALTER TABLE vector_store ADD COLUMN IF NOT EXISTS source text GENERATED ALWAYS AS (metadata->>'source') STORED;
+ALTER TABLE vector_store ADD COLUMN IF NOT EXISTS content_hash text GENERATED ALWAYS AS (metadata->>'contentHash') STORED;
+
+COMMIT;
+
+-- 인덱스는 트랜잭션 밖에서 CONCURRENTLY 로 만든다.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_vector_store_login_doc
+    ON vector_store (login_id, doc_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_vector_store_login_hash
+    ON vector_store (login_id, content_hash);
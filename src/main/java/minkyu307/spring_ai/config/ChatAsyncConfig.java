@@ -0,0 +1,34 @@
+package minkyu307.spring_ai.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * 채팅 요청 경로 밖에서 수행할 후처리(대화 제목 생성 등) 비동기 실행기 설정.
+ */
+@Configuration
+public class ChatAsyncConfig {
+
+    private static final int TITLE_POOL_SIZE = 4;
+    private static final int TITLE_QUEUE_CAPACITY = 100;
+
+    /**
+     * 대화 제목 요약 전용 실행기. 가상 스레드를 쓰되 동시 LLM 호출 수와 대기열은 제한한다.
+     * 대기열이 가득 차면 TaskRejectedException 이 발생하며 호출 측이 폴백 제목으로 처리한다.
+     */
+    @Bean(name = "chatTitleTaskExecutor")
+    public AsyncTaskExecutor chatTitleTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(TITLE_POOL_SIZE);
+        executor.setMaxPoolSize(TITLE_POOL_SIZE);
+        executor.setQueueCapacity(TITLE_QUEUE_CAPACITY);
+        executor.setVirtualThreads(true);
+        executor.setThreadNamePrefix("chat-title-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+}
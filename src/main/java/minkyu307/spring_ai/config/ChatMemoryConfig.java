@@ -1,7 +1,5 @@
 package minkyu307.spring_ai.config;
 
-import org.springframework.ai.chat.memory.ChatMemory;
-import org.springframework.ai.chat.memory.MessageWindowChatMemory;
 import org.springframework.ai.chat.memory.repository.jdbc.JdbcChatMemoryRepository;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -9,7 +7,8 @@ import org.springframework.jdbc.core.JdbcTemplate;
 
 /**
  * Spring AI ChatMemory 설정
- * PostgreSQL 데이터베이스에 채팅 메모리를 영구 저장
+ * PostgreSQL 데이터베이스에 채팅 메모리를 영구 저장. 메시지 추가/최근 창 조회는 ChatMemoryJdbcQueryRepository 가 턴 단위로 수행
+ * // MessageWindowChatMemory 는 매 턴 대화 전체를 삭제 후 재삽입(timestamp 재작성)하므로 사용하지 않는다.
  */
 @Configuration
 public class ChatMemoryConfig {
@@ -24,16 +23,4 @@ public class ChatMemoryConfig {
 				.jdbcTemplate(jdbcTemplate)
 				.build();
 	}
-
-	/**
-	 * MessageWindowChatMemory 빈 등록
-	 * jdbcChatMemoryRepository를 사용하여 PostgreSQL에 영구 저장
-	 */
-	@Bean
-	ChatMemory chatMemory(JdbcChatMemoryRepository jdbcChatMemoryRepository) {
-		return MessageWindowChatMemory.builder()
-				.chatMemoryRepository(jdbcChatMemoryRepository)
-				.maxMessages(20)  // 최대 20개 메시지 유지
-				.build();
-	}
 }
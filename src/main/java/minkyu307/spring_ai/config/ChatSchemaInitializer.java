@@ -0,0 +1,52 @@
+package minkyu307.spring_ai.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 기동 시 chat_conversation 목록용 요약 컬럼(last_updated/message_count/first_user_message)을 백필한다.
+ * 요약 컬럼 도입 이전 대화(last_updated 가 비어 있는 행)만 대상이므로 반복 실행해도 안전하며, 동일 내용은 docs/sql 스크립트로도 제공한다.
+ */
+@Component
+@Order(2)
+@RequiredArgsConstructor
+@Slf4j
+public class ChatSchemaInitializer implements CommandLineRunner {
+
+	static final String BACKFILL_CONVERSATION_SUMMARY = """
+			UPDATE chat_conversation c
+			SET last_updated = s.last_updated,
+				message_count = s.message_count,
+				first_user_message = left(s.first_user_message, 200)
+			FROM (
+				SELECT
+					m.conversation_id,
+					MAX(m."timestamp") AS last_updated,
+					COUNT(*) AS message_count,
+					(ARRAY_AGG(m.content ORDER BY m."timestamp") FILTER (WHERE m.type = 'USER'))[1] AS first_user_message
+				FROM spring_ai_chat_memory m
+				JOIN chat_conversation pending ON pending.id = m.conversation_id AND pending.last_updated IS NULL
+				GROUP BY m.conversation_id
+			) s
+			WHERE c.id = s.conversation_id
+			""";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	@Override
+	public void run(String... args) {
+		try {
+			int updated = jdbcTemplate.update(BACKFILL_CONVERSATION_SUMMARY);
+			if (updated > 0) {
+				log.info("chat_conversation 요약 컬럼 백필 완료: {}건", updated);
+			}
+		} catch (Exception e) {
+			// 백필 실패 시 기존 대화가 목록에서 빠질 뿐 신규 대화는 정상 동작하므로 기동은 계속한다.
+			log.warn("chat_conversation 요약 컬럼 백필 실패: {}", e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,30 @@
+package minkyu307.spring_ai.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import minkyu307.spring_ai.service.CachingEmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.google.genai.text.GoogleGenAiTextEmbeddingModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * RAG 임베딩 모델 설정.
+ */
+@Configuration
+public class RagEmbeddingConfig {
+
+	/**
+	 * Gemini 임베딩 모델을 캐시 데코레이터로 감싼 기본 EmbeddingModel. // VectorStore/QuestionAnswerAdvisor/적재가 공통 사용
+	 */
+	@Bean
+	@Primary
+	public EmbeddingModel cachingEmbeddingModel(
+			GoogleGenAiTextEmbeddingModel googleGenAiTextEmbedding,
+			MeterRegistry meterRegistry,
+			@Value("${app.rag.embedding-cache.max-size:64MB}") DataSize maxSize) {
+		return new CachingEmbeddingModel(googleGenAiTextEmbedding, maxSize.toBytes(), meterRegistry);
+	}
+}
@@ -0,0 +1,132 @@
+package minkyu307.spring_ai.config;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Objects;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 기동 시 vector_store 보조 컬럼/인덱스 등 JPA/Spring AI 자동 스키마가 만들지 않는 객체를 생성하고 rag_document 를 백필한다.
+ * 모든 DDL은 IF NOT EXISTS 로 중복 실행에 안전하며, 동일 내용은 docs/sql 스크립트로도 제공한다.
+ */
+@Component
+@Order(2)
+@RequiredArgsConstructor
+@Slf4j
+public class RagSchemaInitializer implements CommandLineRunner {
+
+	// metadata(json) 의 자주 조회하는 키를 STORED 생성 컬럼으로 승격한다. // RagVectorStoreJdbcRepository 쿼리가 의존
+	static final List<String> COLUMN_STATEMENTS = List.of(
+			"ALTER TABLE vector_store ADD COLUMN IF NOT EXISTS login_id text GENERATED ALWAYS AS (metadata->>'loginId') STORED",
+			"ALTER TABLE vector_store ADD COLUMN IF NOT EXISTS doc_id text GENERATED ALWAYS AS (metadata->>'docId') STORED",
+			"ALTER TABLE vector_store ADD COLUMN IF NOT EXISTS ingested_at text GENERATED ALWAYS AS (metadata->>'ingestedAt') STORED",
+			"ALTER TABLE vector_store ADD COLUMN IF NOT EXISTS source text GENERATED ALWAYS AS (metadata->>'source') STORED",
+			"ALTER TABLE vector_store ADD COLUMN IF NOT EXISTS content_hash text GENERATED ALWAYS AS (metadata->>'contentHash') STORED"
+	);
+
+	static final List<String> INDEX_STATEMENTS = List.of(
+			// 문서 단위 조회/요약/삭제용
+			"CREATE INDEX IF NOT EXISTS idx_vector_store_login_doc ON vector_store (login_id, doc_id)",
+			// 청크 본문 해시 기반 임베딩 재사용 조회용
+			"CREATE INDEX IF NOT EXISTS idx_vector_store_login_hash ON vector_store (login_id, content_hash)"
+	);
+
+	// rag_document 에 등록되지 않은 문서(도입 이전 적재, 롤링 배포 중 이전 버전 인스턴스 적재)를 청크 집계로 찾는다.
+	// 시각 문자열은 형식이 잘못된 값 하나가 전체를 실패시키지 않도록 SQL 캐스팅 대신 애플리케이션에서 파싱한다.
+	static final String FIND_UNREGISTERED_DOCUMENTS = """
+			SELECT
+				v.doc_id,
+				v.login_id,
+				COALESCE(MAX(v.metadata->>'title'), MAX(v.metadata->>'filename'), 'untitled') AS title,
+				MAX(v.metadata->>'filename') AS filename,
+				MAX(v.source) AS source,
+				MAX(v.ingested_at) AS ingested_at,
+				COUNT(*) AS chunk_count,
+				MAX(v.metadata->>'summary') AS summary,
+				MAX(v.metadata->>'summarizedAt') AS summarized_at
+			FROM vector_store v
+			JOIN app_user u ON u.login_id = v.login_id
+			WHERE v.doc_id IS NOT NULL
+			  AND NOT EXISTS (SELECT 1 FROM rag_document d WHERE d.doc_id = v.doc_id)
+			GROUP BY v.doc_id, v.login_id
+			""";
+
+	static final String INSERT_RAG_DOCUMENT = """
+			INSERT INTO rag_document (doc_id, login_id, title, filename, source, ingested_at, chunk_count, summary, summarized_at)
+			VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+			ON CONFLICT (doc_id) DO NOTHING
+			""";
+
+	private static final int BACKFILL_BATCH_SIZE = 500;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	@Override
+	public void run(String... args) {
+		// 생성 컬럼이 없으면 문서 조회 쿼리가 모두 실패하므로 기동을 중단한다.
+		COLUMN_STATEMENTS.forEach(jdbcTemplate::execute);
+		for (String statement : INDEX_STATEMENTS) {
+			try {
+				jdbcTemplate.execute(statement);
+			} catch (Exception e) {
+				// 인덱스 보강 실패는 기능 저하(느린 조회)일 뿐이므로 기동은 계속한다.
+				log.warn("RAG 스키마 보강 실패: {}", e.getMessage());
+			}
+		}
+		try {
+			backfillRagDocuments();
+		} catch (Exception e) {
+			log.warn("rag_document 백필 실패: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * 등록되지 않은 문서를 rag_document 에 등록한다. 기동마다 실행되며 이미 등록된 문서는 건너뛴다.
+	 * ingestedAt 을 읽을 수 없으면 백필 시각으로, summarizedAt 을 읽을 수 없으면 비워 둔다.
+	 */
+	private void backfillRagDocuments() {
+		Instant now = Instant.now();
+		List<Object[]> rows = jdbcTemplate.query(FIND_UNREGISTERED_DOCUMENTS, (rs, rowNum) -> new Object[] {
+				rs.getString("doc_id"),
+				rs.getString("login_id"),
+				rs.getString("title"),
+				rs.getString("filename"),
+				rs.getString("source"),
+				Timestamp.from(Objects.requireNonNullElse(parseInstant(rs.getString("ingested_at")), now)),
+				rs.getLong("chunk_count"),
+				rs.getString("summary"),
+				toTimestamp(parseInstant(rs.getString("summarized_at")))
+		});
+		if (rows.isEmpty()) {
+			return;
+		}
+		for (int from = 0; from < rows.size(); from += BACKFILL_BATCH_SIZE) {
+			jdbcTemplate.batchUpdate(INSERT_RAG_DOCUMENT, rows.subList(from, Math.min(rows.size(), from + BACKFILL_BATCH_SIZE)));
+		}
+		log.info("rag_document 백필 완료: {}건", rows.size());
+	}
+
+	private static Instant parseInstant(String value) {
+		if (value == null || value.isBlank()) {
+			return null;
+		}
+		try {
+			return OffsetDateTime.parse(value).toInstant();
+		} catch (DateTimeParseException e) {
+			log.debug("rag_document 백필 시각 형식 오류: {}", value);
+			return null;
+		}
+	}
+
+	private static Timestamp toTimestamp(Instant instant) {
+		return instant == null ? null : Timestamp.from(instant);
+	}
+}
@@ -1,17 +1,46 @@
 package minkyu307.spring_ai.config;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+import minkyu307.spring_ai.service.OutboundHostLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 /**
- * 외부 HTTP 호출용 RestTemplate 빈 등록.
+ * 외부 HTTP 호출용 공용 클라이언트 빈 등록. // Dooray API 와 URL 적재가 같은 연결 풀을 공유
+ * JDK HttpClient 는 호스트별 keep-alive 연결을 재사용하고 ALPN 으로 HTTP/2 를 협상하므로(미지원 서버는 HTTP/1.1)
+ * 호출마다 TLS 핸드셰이크를 다시 하지 않는다. 호스트별 동시 연결 수는 OutboundHostLimiter 가 제한한다.
  */
 @Configuration
 public class RestTemplateConfig {
 
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public HttpClient outboundHttpClient(@Value("${app.http.client.connect-timeout:5s}") Duration connectTimeout) {
+        return HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(connectTimeout)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+    }
+
+    /**
+     * RestTemplateBuilder 로 만들어 http.client.requests 관측(지표/트레이스)이 적용되도록 한다.
+     */
+    @Bean
+    public RestTemplate restTemplate(
+        RestTemplateBuilder builder,
+        HttpClient outboundHttpClient,
+        OutboundHostLimiter outboundHostLimiter,
+        @Value("${app.http.client.read-timeout:30s}") Duration readTimeout) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(outboundHttpClient);
+        requestFactory.setReadTimeout(readTimeout);
+        return builder
+            .requestFactory(() -> requestFactory)
+            .additionalInterceptors(outboundHostLimiter)
+            .build();
     }
 }
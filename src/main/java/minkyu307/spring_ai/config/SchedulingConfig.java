@@ -0,0 +1,12 @@
+package minkyu307.spring_ai.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * @Scheduled 작업 활성화 설정. // Wiki 주기 동기화(RagWikiSyncService)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
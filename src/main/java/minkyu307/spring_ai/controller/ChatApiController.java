@@ -3,21 +3,35 @@ package minkyu307.spring_ai.controller;
 import minkyu307.spring_ai.dto.ChatHistoryDetailDto;
 import minkyu307.spring_ai.dto.ChatHistoryDto;
 import minkyu307.spring_ai.dto.ChatMessageResponseDto;
+import minkyu307.spring_ai.dto.ChatTitleDto;
+import minkyu307.spring_ai.error.ApiErrorCode;
+import minkyu307.spring_ai.error.ApiException;
 import minkyu307.spring_ai.service.ChatService;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 채팅 API를 처리하는 REST 컨트롤러
  */
+@Slf4j
 @RestController
 @RequestMapping("/api/chat")
 public class ChatApiController {
 
+	private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
 	private final ChatService chatService;
 
 	public ChatApiController(ChatService chatService) {
@@ -45,27 +59,92 @@ public class ChatApiController {
 		return ResponseEntity.ok(new ChatMessageResponseDto(
 			result.conversationId(),
 			result.response(),
-			result.sources()));
+			result.sources(),
+			result.titlePending()));
+	}
+
+	/**
+	 * AI 응답을 SSE(Server-Sent Events)로 토큰 단위 스트리밍하는 API 엔드포인트.
+	 * 이벤트 순서: conversation → token* → sources → done (실패 시 error 이벤트로 종료)
+	 */
+	@PostMapping(value = "/message/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public Flux<ServerSentEvent<Object>> streamMessage(@RequestBody Map<String, String> request) {
+		String conversationId = request.get("conversationId");
+		String userMessage = request.get("message");
+
+		if (userMessage == null || userMessage.isBlank()) {
+			throw new IllegalArgumentException("message는 필수입니다.");
+		}
+
+		return chatService.chatStream(conversationId, userMessage)
+			.map(event -> ServerSentEvent.builder(event.data())
+				.event(event.event())
+				.build())
+			.onErrorResume(e -> Flux.just(toErrorEvent(e)));
+	}
+
+	/**
+	 * 스트림 도중 발생한 예외를 GlobalApiExceptionHandler 와 같은 에러 코드 체계의 error 이벤트로 변환한다.
+	 * 응답 헤더가 이미 전송된 뒤라 HTTP 상태 코드로는 실패를 알릴 수 없다.
+	 */
+	private static ServerSentEvent<Object> toErrorEvent(Throwable e) {
+		ApiErrorCode code;
+		String message = null;
+		if (e instanceof ApiException apiException) {
+			code = apiException.getErrorCode();
+			message = apiException.getMessage();
+		} else if (e instanceof TransientAiException) {
+			code = ApiErrorCode.AI_TRANSIENT_ERROR;
+		} else if (e instanceof NonTransientAiException) {
+			code = ApiErrorCode.AI_NON_TRANSIENT_ERROR;
+			message = e.getMessage();
+		} else {
+			code = ApiErrorCode.INTERNAL_SERVER_ERROR;
+		}
+		log.error("Chat stream error", e);
+		String resolvedMessage = (message != null && !message.isBlank()) ? message : code.defaultMessage();
+		return ServerSentEvent.<Object>builder(Map.of("code", code.name(), "message", resolvedMessage))
+			.event("error")
+			.build();
 	}
 
 	/**
-	 * 모든 채팅 히스토리 목록 조회
+	 * 채팅 히스토리 목록 조회. limit 을 주면 keyset 페이지로 반환하고 다음 페이지 cursor 는 X-Next-Cursor 헤더로 전달한다.
+	 * 파라미터가 없으면 기존처럼 전체 목록을 반환한다.
 	 */
 	@GetMapping("/histories")
-	public ResponseEntity<List<ChatHistoryDto>> getAllHistories() {
-		List<ChatHistoryDto> histories = chatService.findAllHistories();
-		return ResponseEntity.ok(histories);
+	public ResponseEntity<List<ChatHistoryDto>> getHistories(
+		@RequestParam(required = false) String cursor,
+		@RequestParam(required = false) Integer limit) {
+		ChatService.ChatHistoryPage page = chatService.findHistories(cursor, limit);
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+		if (page.nextCursor() != null) {
+			response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+		}
+		return response.body(page.items());
 	}
 
 	/**
-	 * 특정 대화의 메시지 목록 조회
+	 * 특정 대화의 메시지 목록 조회. limit 을 주면 before 이전의 최근 limit 개만 반환한다(이전 구간은 hasMore 로 확인).
 	 */
 	@GetMapping("/histories/{conversationId}")
-	public ResponseEntity<ChatHistoryDetailDto> getHistoryMessages(@PathVariable String conversationId) {
-		ChatHistoryDetailDto history = chatService.findHistoryMessages(conversationId);
+	public ResponseEntity<ChatHistoryDetailDto> getHistoryMessages(
+		@PathVariable String conversationId,
+		@RequestParam(required = false) String before,
+		@RequestParam(required = false) Integer limit) {
+		ChatHistoryDetailDto history = chatService.findHistoryMessages(conversationId, before, limit);
 		return ResponseEntity.ok(history);
 	}
 
+	/**
+	 * 대화 제목 조회. 제목 요약이 진행 중이면 완료될 때까지(최대 10초) 응답을 보류하는 롱 폴링 엔드포인트.
+	 */
+	@GetMapping("/histories/{conversationId}/title")
+	public CompletableFuture<ChatTitleDto> getConversationTitle(@PathVariable String conversationId) {
+		return chatService.awaitConversationTitle(conversationId)
+			.orElseThrow(() -> new ApiException(HttpStatus.NOT_FOUND, ApiErrorCode.RESOURCE_NOT_FOUND, "대화를 찾을 수 없습니다."));
+	}
+
 	/**
 	 * 특정 대화 삭제 (chat_conversation + spring_ai_chat_memory 메시지 함께 제거)
 	 */
@@ -6,20 +6,31 @@ import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import minkyu307.spring_ai.error.ApiErrorCode;
+import minkyu307.spring_ai.error.ApiException;
 import minkyu307.spring_ai.service.DoorayWikiApiClient;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * 두레이 Wiki API 프록시. 사용자 API 키로 두레이 서버에 요청 후 결과를 반환.
  */
+@Slf4j
 @RestController
 @RequestMapping("/api/dooray/wiki")
 @RequiredArgsConstructor
@@ -27,6 +38,10 @@ public class DoorayWikiApiController {
 
     private static final String DOORAY_BASE = "https://api.dooray.com";
 
+    /** 하위 트리 스트리밍의 블로킹 Dooray 호출용 가상 스레드 스케줄러 — 토큰 버킷 대기 중에도 플랫폼 스레드를 점유하지 않는다 */
+    private static final Scheduler SUBTREE_SCHEDULER =
+        Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "dooray-subtree");
+
     private final DoorayWikiApiClient doorayWikiApiClient;
 
     /**
@@ -52,12 +67,9 @@ public class DoorayWikiApiController {
         return doorayWikiApiClient.getWithRetry(url);
     }
 
-    /** 동시 병렬 요청 수 상한 — Dooray Rate Limit 대응 */
-    private static final int PARALLEL_BATCH = 5;
-
     /**
      * 특정 페이지부터 모든 하위 페이지를 BFS 레벨 단위 병렬 조회하여 평탄화된 목록으로 반환.
-     * 같은 레벨을 PARALLEL_BATCH 단위로 묶어 병렬 호출하고, 429 응답 시 재시도.
+     * 같은 레벨을 한꺼번에 병렬 호출하고, 호출 속도는 DoorayWikiApiClient 의 API 키별 토큰 버킷이 맞춘다.
      */
     @GetMapping("/wikis/{wikiId}/pages/{pageId}/subtree")
     public ResponseEntity<Map<String, Object>> getSubtree(
@@ -74,20 +86,15 @@ public class DoorayWikiApiController {
             while (!currentLevel.isEmpty()) {
                 List<Map<String, Object>> levelPages = new ArrayList<>();
 
-                // 같은 레벨을 PARALLEL_BATCH 단위로 나눠 병렬 처리 — Rate Limit 방지
-                for (int i = 0; i < currentLevel.size(); i += PARALLEL_BATCH) {
-                    List<String> batch = currentLevel.subList(i,
-                        Math.min(i + PARALLEL_BATCH, currentLevel.size()));
-
-                    List<CompletableFuture<List<Map<String, Object>>>> futures = batch.stream()
-                        .map(parentId -> CompletableFuture.<List<Map<String, Object>>>supplyAsync(
-                            () -> fetchPagesWithRetry(wikiId, parentId, authEntity), executor))
-                        .collect(Collectors.toList());
+                // 배치 경계에서 기다리지 않도록 레벨 전체를 한 번에 제출한다. — Rate Limit 은 토큰 버킷이 담당
+                List<CompletableFuture<List<Map<String, Object>>>> futures = currentLevel.stream()
+                    .map(parentId -> CompletableFuture.<List<Map<String, Object>>>supplyAsync(
+                        () -> doorayWikiApiClient.getChildPages(wikiId, parentId, authEntity), executor))
+                    .collect(Collectors.toList());
 
-                    futures.stream()
-                        .map(CompletableFuture::join)
-                        .forEach(levelPages::addAll);
-                }
+                futures.stream()
+                    .map(CompletableFuture::join)
+                    .forEach(levelPages::addAll);
 
                 allPages.addAll(levelPages);
                 currentLevel = levelPages.stream()
@@ -104,6 +111,57 @@ public class DoorayWikiApiController {
         ));
     }
 
+    /**
+     * 특정 페이지의 모든 하위 페이지를 SSE 로 스트리밍한다. 이벤트 순서: page* → done(totalCount) (실패 시 error 이벤트로 종료)
+     * 부모별 목록 응답이 도착하는 즉시 페이지를 내보내고 그 자식 목록 요청을 시작하므로(레벨 단위 대기 없음)
+     * page 이벤트는 BFS 순서가 아니다. 트리 구성은 각 페이지의 parentPageId 로 한다. 클라이언트가 연결을 끊으면 남은 조회도 취소된다.
+     */
+    @GetMapping(value = "/wikis/{wikiId}/pages/{pageId}/subtree/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamSubtree(
+        @PathVariable String wikiId,
+        @PathVariable String pageId) {
+
+        // 요청 스레드에서 인증 헤더를 미리 캡처해 비동기 스레드에서 SecurityContext 재조회가 발생하지 않도록 한다.
+        HttpEntity<Void> authEntity = doorayWikiApiClient.createAuthenticatedEntity();
+        AtomicInteger totalCount = new AtomicInteger();
+        return descendants(wikiId, pageId, authEntity)
+            .map(page -> {
+                totalCount.incrementAndGet();
+                return ServerSentEvent.<Object>builder(page).event("page").build();
+            })
+            .concatWith(Mono.fromSupplier(() -> ServerSentEvent.<Object>builder(Map.of("totalCount", totalCount.get()))
+                .event("done")
+                .build()))
+            .onErrorResume(e -> Flux.just(toErrorEvent(e)));
+    }
+
+    /**
+     * parentId 아래 페이지를 도착 즉시 내보내고, 각 페이지의 자식 목록 조회를 곧바로 이어서 시작한다.
+     */
+    private Flux<Map<String, Object>> descendants(String wikiId, String parentId, HttpEntity<?> authEntity) {
+        return Mono.fromCallable(() -> doorayWikiApiClient.getChildPages(wikiId, parentId, authEntity))
+            .subscribeOn(SUBTREE_SCHEDULER)
+            .flatMapMany(Flux::fromIterable)
+            .flatMap(page -> Flux.just(page)
+                .concatWith(descendants(wikiId, String.valueOf(page.get("id")), authEntity)));
+    }
+
+    /**
+     * 스트림 도중 발생한 예외를 GlobalApiExceptionHandler 와 같은 에러 코드 체계의 error 이벤트로 변환한다.
+     */
+    private static ServerSentEvent<Object> toErrorEvent(Throwable e) {
+        ApiErrorCode code = e instanceof ApiException apiException
+            ? apiException.getErrorCode()
+            : ApiErrorCode.INTERNAL_SERVER_ERROR;
+        String message = e instanceof ApiException && e.getMessage() != null && !e.getMessage().isBlank()
+            ? e.getMessage()
+            : code.defaultMessage();
+        log.warn("Dooray wiki subtree stream error: {}", e.toString());
+        return ServerSentEvent.<Object>builder(Map.of("code", code.name(), "message", message))
+            .event("error")
+            .build();
+    }
+
     /**
      * 특정 위키 페이지 단건 상세 조회 (본문 포함).
      */
@@ -114,21 +172,4 @@ public class DoorayWikiApiController {
         String url = DOORAY_BASE + "/wiki/v1/wikis/" + wikiId + "/pages/" + pageId;
         return doorayWikiApiClient.getWithRetry(url);
     }
-
-    /**
-     * 단일 parentPageId에 대한 페이지 목록 조회. 429 응답 시 RETRY_DELAY_MS 대기 후 재시도.
-     */
-    private List<Map<String, Object>> fetchPagesWithRetry(
-        String wikiId,
-        String parentId,
-        HttpEntity<Void> authEntity) {
-
-        String url = DOORAY_BASE + "/wiki/v1/wikis/" + wikiId
-            + "/pages?parentPageId=" + parentId;
-        Map<String, Object> resp = doorayWikiApiClient.getWithRetry(url, authEntity).getBody();
-        if (resp == null) return List.of();
-        @SuppressWarnings("unchecked")
-        List<Map<String, Object>> pages = (List<Map<String, Object>>) resp.get("result");
-        return pages != null ? pages : List.of();
-    }
 }
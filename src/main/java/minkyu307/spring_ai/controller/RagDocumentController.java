@@ -2,20 +2,25 @@ package minkyu307.spring_ai.controller;
 
 import minkyu307.spring_ai.dto.RagDocumentListItemDto;
 import minkyu307.spring_ai.dto.RagDocumentSummaryResponse;
-import minkyu307.spring_ai.dto.RagMultiFileIngestResponse;
+import minkyu307.spring_ai.dto.RagIngestionJobDto;
 import minkyu307.spring_ai.dto.RagUrlIngestRequest;
 import minkyu307.spring_ai.dto.RagWikiIngestRequest;
+import minkyu307.spring_ai.dto.RagWikiSyncRequest;
+import minkyu307.spring_ai.dto.RagWikiSyncResponse;
 import minkyu307.spring_ai.exception.ResourceNotFoundException;
 import minkyu307.spring_ai.service.RagDocumentManagementService;
 import minkyu307.spring_ai.service.RagDocumentSummaryService;
 import minkyu307.spring_ai.service.RagFileUploadService;
+import minkyu307.spring_ai.service.RagIngestionJobService;
 import minkyu307.spring_ai.service.RagUrlIngestionService;
 import minkyu307.spring_ai.service.RagWikiIngestionService;
+import minkyu307.spring_ai.service.RagWikiSyncService;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.net.URI;
 import java.util.List;
 
 /**
@@ -30,19 +35,25 @@ public class RagDocumentController {
 	private final RagFileUploadService fileUploadService;
 	private final RagUrlIngestionService urlIngestionService;
 	private final RagWikiIngestionService wikiIngestionService;
+	private final RagIngestionJobService jobService;
+	private final RagWikiSyncService wikiSyncService;
 
 	public RagDocumentController(
 			RagDocumentManagementService managementService,
 			RagDocumentSummaryService summaryService,
 			RagFileUploadService fileUploadService,
 			RagUrlIngestionService urlIngestionService,
-			RagWikiIngestionService wikiIngestionService
+			RagWikiIngestionService wikiIngestionService,
+			RagIngestionJobService jobService,
+			RagWikiSyncService wikiSyncService
 	) {
 		this.managementService = managementService;
 		this.summaryService = summaryService;
 		this.fileUploadService = fileUploadService;
 		this.urlIngestionService = urlIngestionService;
 		this.wikiIngestionService = wikiIngestionService;
+		this.jobService = jobService;
+		this.wikiSyncService = wikiSyncService;
 	}
 
 	/**
@@ -55,28 +66,67 @@ public class RagDocumentController {
 
 	/**
 	 * 파일(txt/md 등)을 업로드 받아 VectorStore(PGvector)에 적재한다.
+	 * async=true 면 적재 작업만 등록하고 202 + 작업 상태(/api/rag/jobs/{jobId})를 바로 반환한다.
 	 */
 	@PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-	public ResponseEntity<RagMultiFileIngestResponse> upload(@RequestPart(value = "file", required = false) List<MultipartFile> files) {
+	public ResponseEntity<?> upload(
+			@RequestPart(value = "file", required = false) List<MultipartFile> files,
+			@RequestParam(defaultValue = "false") boolean async) {
+		if (async) {
+			return accepted(jobService.submitUpload(files));
+		}
 		return ResponseEntity.ok(fileUploadService.upload(files));
 	}
 
 	/**
-	 * 단일 URL 문서를 읽어 VectorStore(PGvector)에 적재한다. // 크롤링/인증 제외
+	 * 단일 URL 문서를 읽어 VectorStore(PGvector)에 적재한다. // 크롤링/인증 제외, async=true 면 작업 등록 후 202
 	 */
 	@PostMapping("/url")
-	public ResponseEntity<?> ingestUrl(@RequestBody RagUrlIngestRequest request) {
+	public ResponseEntity<?> ingestUrl(
+			@RequestBody RagUrlIngestRequest request,
+			@RequestParam(defaultValue = "false") boolean async) {
+		if (async) {
+			return accepted(jobService.submitUrl(request));
+		}
 		return ResponseEntity.ok(urlIngestionService.ingest(request));
 	}
 
 	/**
-	 * Dooray Wiki 페이지 목록을 VectorStore(PGvector)에 적재한다.
+	 * Dooray Wiki 페이지 목록을 VectorStore(PGvector)에 적재한다. // async=true 면 작업 등록 후 202
 	 */
 	@PostMapping("/wiki")
-	public ResponseEntity<?> ingestWiki(@RequestBody RagWikiIngestRequest request) {
+	public ResponseEntity<?> ingestWiki(
+			@RequestBody RagWikiIngestRequest request,
+			@RequestParam(defaultValue = "false") boolean async) {
+		if (async) {
+			return accepted(jobService.submitWiki(request));
+		}
 		return ResponseEntity.ok(wikiIngestionService.ingest(request));
 	}
 
+	/**
+	 * Dooray Wiki 하위 트리를 증분 동기화한다. // 바뀐 페이지만 재적재, schedule=true 면 주기 동기화 등록
+	 */
+	@PostMapping("/wiki/sync")
+	public ResponseEntity<RagWikiSyncResponse> syncWiki(@RequestBody RagWikiSyncRequest request) {
+		return ResponseEntity.ok(wikiSyncService.sync(request));
+	}
+
+	/**
+	 * Wiki 하위 트리 주기 동기화를 해제한다. 적재된 문서는 그대로 둔다. 미등록 시 404.
+	 */
+	@DeleteMapping("/wiki/sync")
+	public ResponseEntity<Void> unscheduleWikiSync(@RequestParam String wikiId, @RequestParam String rootPageId) {
+		wikiSyncService.unschedule(wikiId, rootPageId);
+		return ResponseEntity.noContent().build();
+	}
+
+	private static ResponseEntity<RagIngestionJobDto> accepted(RagIngestionJobDto job) {
+		return ResponseEntity.accepted()
+				.location(URI.create("/api/rag/jobs/" + job.jobId()))
+				.body(job);
+	}
+
 	/**
 	 * 문서를 요약한다. // 저장된 요약이 있으면 재사용하고, 없으면 생성 후 저장한다.
 	 */
@@ -0,0 +1,45 @@
+package minkyu307.spring_ai.controller;
+
+import minkyu307.spring_ai.dto.RagIngestionJobDto;
+import minkyu307.spring_ai.service.RagIngestionJobService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+/**
+ * 비동기 RAG 적재 작업 진행 상태 조회 API 컨트롤러.
+ */
+@RestController
+@RequestMapping("/api/rag/jobs")
+public class RagIngestionJobController {
+
+	private final RagIngestionJobService jobService;
+
+	public RagIngestionJobController(RagIngestionJobService jobService) {
+		this.jobService = jobService;
+	}
+
+	/**
+	 * 작업의 현재 상태와 항목별 결과를 조회한다.
+	 */
+	@GetMapping("/{jobId}")
+	public ResponseEntity<RagIngestionJobDto> get(@PathVariable String jobId) {
+		return ResponseEntity.ok(jobService.getJob(jobId));
+	}
+
+	/**
+	 * 작업 진행 상태를 SSE 로 스트리밍한다. 상태가 바뀔 때마다 job 이벤트를 보내고 COMPLETED 이후 종료한다.
+	 */
+	@GetMapping(value = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public Flux<ServerSentEvent<RagIngestionJobDto>> events(@PathVariable String jobId) {
+		return jobService.streamJob(jobId)
+				.map(job -> ServerSentEvent.builder(job)
+						.event("job")
+						.build());
+	}
+}
@@ -9,6 +9,7 @@ import minkyu307.spring_ai.exception.ResourceNotFoundException;
 import minkyu307.spring_ai.repository.UserDoorayApiKeyRepository;
 import minkyu307.spring_ai.repository.UserRepository;
 import minkyu307.spring_ai.security.SecurityUtils;
+import minkyu307.spring_ai.service.DoorayApiKeyCache;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -26,6 +27,7 @@ public class UserSettingsApiController {
 
     private final UserDoorayApiKeyRepository doorayApiKeyRepository;
     private final UserRepository userRepository;
+    private final DoorayApiKeyCache doorayApiKeyCache;
 
     /**
      * 현재 사용자의 두레이 API 키 조회. 미설정 시 빈 문자열 반환.
@@ -40,7 +42,7 @@ public class UserSettingsApiController {
     }
 
     /**
-     * 현재 사용자의 두레이 API 키 저장/갱신.
+     * 현재 사용자의 두레이 API 키 저장/갱신. 저장 후 캐시된 키를 버려 다음 Dooray 호출부터 새 키를 쓴다.
      */
     @PutMapping("/dooray-apikey")
     public ResponseEntity<Map<String, String>> saveDoorayApiKey(
@@ -60,6 +62,7 @@ public class UserSettingsApiController {
         entity.setApiKey(apiKey);
         entity.setUpdatedAt(Instant.now());
         doorayApiKeyRepository.save(entity);
+        doorayApiKeyCache.evict(loginId);
 
         return ResponseEntity.ok(Map.of("apiKey", apiKey));
     }
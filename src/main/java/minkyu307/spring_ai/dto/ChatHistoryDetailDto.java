@@ -7,6 +7,7 @@ import java.util.List;
  */
 public record ChatHistoryDetailDto(
 	String conversationId,  // 대화 ID
-	List<ChatMessageDto> messages  // 메시지 목록
+	List<ChatMessageDto> messages,  // 메시지 목록 (시간순)
+	boolean hasMore  // 조회 범위 이전 메시지가 더 있는지 여부
 ) {
 }
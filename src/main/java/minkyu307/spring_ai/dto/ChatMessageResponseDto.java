@@ -3,11 +3,12 @@ package minkyu307.spring_ai.dto;
 import java.util.List;
 
 /**
- * 채팅 메시지 전송 성공 응답 DTO.
+ * 채팅 메시지 전송 성공 응답 DTO. titlePending 이 true 면 대화 제목을 별도 조회로 받아야 한다.
  */
 public record ChatMessageResponseDto(
 	String conversationId,
 	String response,
-	List<ChatSourceDto> sources
+	List<ChatSourceDto> sources,
+	boolean titlePending
 ) {
 }
@@ -0,0 +1,11 @@
+package minkyu307.spring_ai.dto;
+
+/**
+ * 대화 제목 조회 응답 DTO. pending 이 true 면 제목 요약이 아직 진행 중이다.
+ */
+public record ChatTitleDto(
+	String conversationId,
+	String title,
+	boolean pending
+) {
+}
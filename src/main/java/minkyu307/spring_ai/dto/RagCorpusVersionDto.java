@@ -0,0 +1,14 @@
+package minkyu307.spring_ai.dto;
+
+import java.time.Instant;
+
+/**
+ * 사용자 RAG 코퍼스 버전. // 답변 캐시 세대 키
+ * 적재는 항상 더 늦은 ingestedAt 으로 등록되고 삭제된 문서는 되살아나지 않으므로,
+ * (문서 수, 마지막 적재 시각)이 같으면 같은 문서 집합이다.
+ */
+public record RagCorpusVersionDto(
+		long documentCount,
+		Instant lastIngestedAt
+) {
+}
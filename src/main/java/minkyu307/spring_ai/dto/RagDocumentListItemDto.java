@@ -1,14 +1,16 @@
 package minkyu307.spring_ai.dto;
 
+import java.time.Instant;
+
 /**
- * RAG 문서 관리 화면에서 사용하는 문서 요약 DTO. // vector_store(청크) → docId 단위로 그룹핑
+ * RAG 문서 관리 화면에서 사용하는 문서 요약 DTO. // rag_document 등록 정보 기준
  */
 public record RagDocumentListItemDto(
 		String docId,
 		String title,
 		String filename,
 		String source,
-		String ingestedAt,
+		Instant ingestedAt,
 		long chunkCount
 ) {
 }
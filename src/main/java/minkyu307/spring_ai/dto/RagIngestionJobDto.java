@@ -0,0 +1,36 @@
+package minkyu307.spring_ai.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 비동기 RAG 적재 작업 진행 상태 DTO.
+ */
+public record RagIngestionJobDto(
+		String jobId,
+		String type,      // "UPLOAD" | "URL" | "WIKI"
+		String status,    // "QUEUED" | "RUNNING" | "COMPLETED"
+		int totalItems,
+		int succeededItems,
+		int failedItems,
+		int skippedItems,
+		int totalChunksIngested,
+		Instant createdAt,
+		Instant startedAt,
+		Instant finishedAt,
+		Instant updatedAt,
+		List<Item> items
+) {
+	/** 항목(파일/URL/Wiki 페이지) 단위 진행 상태. */
+	public record Item(
+			int index,
+			String kind,      // "FILE" | "URL" | "WIKI_PAGE"
+			String name,
+			String status,    // "PENDING" | "RUNNING" | "SUCCEEDED" | "FAILED" | "SKIPPED"
+			int attempts,
+			String docId,
+			String title,
+			int chunksIngested,
+			String error
+	) {}
+}
@@ -0,0 +1,11 @@
+package minkyu307.spring_ai.dto;
+
+/**
+ * Dooray Wiki 하위 트리 증분 동기화 요청 DTO. schedule=true 면 이후 주기 동기화 대상으로 등록한다.
+ */
+public record RagWikiSyncRequest(
+		String wikiId,
+		String rootPageId,
+		boolean schedule
+) {
+}
@@ -0,0 +1,25 @@
+package minkyu307.spring_ai.dto;
+
+import java.util.List;
+
+/**
+ * Dooray Wiki 하위 트리 증분 동기화 결과 DTO.
+ */
+public record RagWikiSyncResponse(
+		int createdPages,
+		int updatedPages,
+		int unchangedPages,
+		int failedPages,
+		int totalChunksIngested,
+		List<PageResult> results
+) {
+	/** 페이지 단위 동기화 결과. */
+	public record PageResult(
+			String pageId,
+			String title,
+			String status,   // "CREATED" | "UPDATED" | "UNCHANGED" | "FAILED"
+			String docId,
+			int chunksIngested,
+			String error
+	) {}
+}
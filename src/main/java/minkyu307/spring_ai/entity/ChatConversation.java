@@ -5,6 +5,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.ForeignKey;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -18,9 +19,14 @@ import lombok.Setter;
 /**
  * 채팅 대화 메타 정보. spring_ai_chat_memory.conversation_id 와 1:1 대응하며,
  * 사용자(login_id)별 접근 제어 및 히스토리 목록 조회에 사용.
+ * last_updated/message_count/first_user_message 는 턴 저장 시 함께 갱신하는 목록용 요약 컬럼.
  */
 @Entity
-@Table(name = "chat_conversation")
+@Table(
+		name = "chat_conversation",
+		indexes = {
+				@Index(name = "idx_chat_conversation_login_updated", columnList = "login_id, last_updated DESC, id DESC")
+		})
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -52,6 +58,15 @@ public class ChatConversation {
 	@Column(name = "created_at", nullable = false)
 	private Instant createdAt = Instant.now();
 
+	@Column(name = "last_updated")
+	private Instant lastUpdated;
+
+	@Column(name = "message_count", nullable = false, columnDefinition = "integer not null default 0")
+	private int messageCount;
+
+	@Column(name = "first_user_message", columnDefinition = "text")
+	private String firstUserMessage;
+
 	public ChatConversation(String id, String loginId, String title) {
 		this.id = id;
 		this.loginId = loginId;
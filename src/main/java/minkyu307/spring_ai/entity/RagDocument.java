@@ -0,0 +1,92 @@
+package minkyu307.spring_ai.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * RAG 문서(docId) 등록 정보. vector_store 청크를 문서 단위로 대표하며,
+ * 문서 목록 조회와 요약 저장을 청크 집계 없이 처리하기 위해 적재/삭제 시 함께 유지한다.
+ */
+@Entity
+@Table(
+	name = "rag_document",
+	indexes = {
+		@Index(name = "idx_rag_document_login_ingested", columnList = "login_id, ingested_at DESC")
+	})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class RagDocument {
+
+	@Id
+	@Column(name = "doc_id", nullable = false, columnDefinition = "text")
+	@EqualsAndHashCode.Include
+	private String docId;
+
+	@Column(name = "login_id", nullable = false, columnDefinition = "text")
+	private String loginId;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(
+		name = "login_id",
+		referencedColumnName = "login_id",
+		insertable = false,
+		updatable = false,
+		foreignKey = @ForeignKey(
+			name = "fk_rag_document_user",
+			foreignKeyDefinition = "FOREIGN KEY (login_id) REFERENCES app_user(login_id) ON UPDATE CASCADE ON DELETE CASCADE"))
+	private User user;
+
+	@Column(name = "title", nullable = false, columnDefinition = "text")
+	private String title;
+
+	@Column(name = "filename", columnDefinition = "text")
+	private String filename;
+
+	@Column(name = "source", length = 64)
+	private String source;
+
+	@Column(name = "ingested_at", nullable = false)
+	private Instant ingestedAt;
+
+	@Column(name = "chunk_count", nullable = false)
+	private long chunkCount;
+
+	@Column(name = "summary", columnDefinition = "text")
+	private String summary;
+
+	@Column(name = "summarized_at")
+	private Instant summarizedAt;
+
+	/**
+	 * 적재가 끝난 문서의 등록 레코드를 생성한다.
+	 */
+	public RagDocument(
+		String docId,
+		String loginId,
+		String title,
+		String filename,
+		String source,
+		Instant ingestedAt,
+		long chunkCount) {
+		this.docId = docId;
+		this.loginId = loginId;
+		this.title = title;
+		this.filename = filename;
+		this.source = source;
+		this.ingestedAt = ingestedAt;
+		this.chunkCount = chunkCount;
+	}
+}
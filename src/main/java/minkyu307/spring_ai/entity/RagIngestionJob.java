@@ -0,0 +1,86 @@
+package minkyu307.spring_ai.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 비동기 RAG 적재 작업(업로드/URL/Wiki 요청 1건). 항목별 진행 상태는 rag_ingestion_job_item 에 두고,
+ * 집계 컬럼은 항목 처리 후 RagIngestionJobJdbcRepository 가 갱신한다. // 테이블 DDL 은 JPA(ddl-auto)로 관리
+ */
+@Entity
+@Table(
+	name = "rag_ingestion_job",
+	indexes = {
+		@Index(name = "idx_rag_ingestion_job_login_created", columnList = "login_id, created_at DESC")
+	})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class RagIngestionJob {
+
+	@Id
+	@Column(name = "id", nullable = false, length = 36)
+	@EqualsAndHashCode.Include
+	private String id;
+
+	@Column(name = "login_id", nullable = false, columnDefinition = "text")
+	private String loginId;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(
+		name = "login_id",
+		referencedColumnName = "login_id",
+		insertable = false,
+		updatable = false,
+		foreignKey = @ForeignKey(
+			name = "fk_rag_ingestion_job_user",
+			foreignKeyDefinition = "FOREIGN KEY (login_id) REFERENCES app_user(login_id) ON UPDATE CASCADE ON DELETE CASCADE"))
+	private User user;
+
+	// UPLOAD | URL | WIKI
+	@Column(name = "type", nullable = false, length = 16)
+	private String type;
+
+	// QUEUED | RUNNING | COMPLETED
+	@Column(name = "status", nullable = false, length = 16)
+	private String status;
+
+	@Column(name = "total_items", nullable = false)
+	private int totalItems;
+
+	@Column(name = "succeeded_items", nullable = false)
+	private int succeededItems;
+
+	@Column(name = "failed_items", nullable = false)
+	private int failedItems;
+
+	@Column(name = "skipped_items", nullable = false)
+	private int skippedItems;
+
+	@Column(name = "total_chunks", nullable = false)
+	private int totalChunks;
+
+	@Column(name = "created_at", nullable = false)
+	private Instant createdAt;
+
+	@Column(name = "started_at")
+	private Instant startedAt;
+
+	@Column(name = "finished_at")
+	private Instant finishedAt;
+
+	@Column(name = "updated_at", nullable = false)
+	private Instant updatedAt;
+}
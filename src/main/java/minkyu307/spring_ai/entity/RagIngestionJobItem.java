@@ -0,0 +1,104 @@
+package minkyu307.spring_ai.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.Instant;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 비동기 RAG 적재 작업의 처리 단위(파일 1개, URL 1개, Wiki 페이지 1개).
+ * 워커는 PENDING 이거나 임대(locked_until)가 만료된 RUNNING 항목을 FOR UPDATE SKIP LOCKED 로 가져가므로
+ * 재기동 시 처리 중이던 항목도 임대 만료 후 다시 처리된다.
+ */
+@Entity
+@Table(
+	name = "rag_ingestion_job_item",
+	uniqueConstraints = {
+		@UniqueConstraint(name = "uk_rag_ingestion_job_item_job_index", columnNames = {"job_id", "item_index"})
+	},
+	indexes = {
+		@Index(name = "idx_rag_ingestion_job_item_status_queued", columnList = "status, queued_at")
+	})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class RagIngestionJobItem {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@EqualsAndHashCode.Include
+	private Long id;
+
+	@Column(name = "job_id", nullable = false, length = 36)
+	private String jobId;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(
+		name = "job_id",
+		referencedColumnName = "id",
+		insertable = false,
+		updatable = false,
+		foreignKey = @ForeignKey(
+			name = "fk_rag_ingestion_job_item_job",
+			foreignKeyDefinition = "FOREIGN KEY (job_id) REFERENCES rag_ingestion_job(id) ON DELETE CASCADE"))
+	private RagIngestionJob job;
+
+	@Column(name = "item_index", nullable = false)
+	private int itemIndex;
+
+	// FILE | URL | WIKI_PAGE
+	@Column(name = "kind", nullable = false, length = 16)
+	private String kind;
+
+	// 파일명 / URL / Wiki pageId
+	@Column(name = "name", nullable = false, columnDefinition = "text")
+	private String name;
+
+	// FILE: 임시 저장 경로, URL: URL, WIKI_PAGE: wikiId
+	@Column(name = "payload", columnDefinition = "text")
+	private String payload;
+
+	@Column(name = "content_type", columnDefinition = "text")
+	private String contentType;
+
+	// PENDING | RUNNING | SUCCEEDED | FAILED | SKIPPED
+	@Column(name = "status", nullable = false, length = 16)
+	private String status;
+
+	@Column(name = "attempts", nullable = false)
+	private int attempts;
+
+	@Column(name = "locked_until")
+	private Instant lockedUntil;
+
+	@Column(name = "doc_id", columnDefinition = "text")
+	private String docId;
+
+	@Column(name = "title", columnDefinition = "text")
+	private String title;
+
+	@Column(name = "chunks_ingested", nullable = false)
+	private int chunksIngested;
+
+	@Column(name = "error", columnDefinition = "text")
+	private String error;
+
+	@Column(name = "queued_at", nullable = false)
+	private Instant queuedAt;
+
+	@Column(name = "updated_at", nullable = false)
+	private Instant updatedAt;
+}
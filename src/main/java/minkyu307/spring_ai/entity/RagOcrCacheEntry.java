@@ -0,0 +1,42 @@
+package minkyu307.spring_ai.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * PDF 페이지 OCR 결과 캐시. 키는 렌더링된 페이지 이미지 + DPI + OCR 프롬프트 버전의 SHA-256 이며,
+ * 읽기/쓰기는 RagOcrCacheJdbcRepository 가 담당한다. // 테이블 DDL 은 JPA(ddl-auto)로 관리
+ */
+@Entity
+@Table(
+	name = "rag_ocr_cache",
+	indexes = {
+		@Index(name = "idx_rag_ocr_cache_last_used", columnList = "last_used_at")
+	})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class RagOcrCacheEntry {
+
+	@Id
+	@Column(name = "cache_key", nullable = false, length = 64)
+	@EqualsAndHashCode.Include
+	private String cacheKey;
+
+	@Column(name = "text", nullable = false, columnDefinition = "text")
+	private String text;
+
+	@Column(name = "created_at", nullable = false)
+	private Instant createdAt;
+
+	@Column(name = "last_used_at", nullable = false)
+	private Instant lastUsedAt;
+}
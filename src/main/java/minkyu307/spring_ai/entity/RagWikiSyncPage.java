@@ -0,0 +1,70 @@
+package minkyu307.spring_ai.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.Instant;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 사용자별 Wiki 페이지 동기화 상태. 마지막으로 적재한 페이지의 Dooray updatedAt 과 그때의 docId 를 기록해
+ * 다음 동기화에서 바뀌지 않은 페이지는 건너뛰고, 바뀐 페이지는 새 docId 로 적재한 뒤 이전 문서를 교체한다.
+ * 읽기/쓰기는 RagWikiSyncJdbcRepository 가 담당한다. // 테이블 DDL 은 JPA(ddl-auto)로 관리
+ */
+@Entity
+@Table(
+	name = "rag_wiki_sync_page",
+	uniqueConstraints = {
+		@UniqueConstraint(name = "uk_rag_wiki_sync_page_login_page", columnNames = {"login_id", "wiki_id", "page_id"})
+	})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class RagWikiSyncPage {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@EqualsAndHashCode.Include
+	private Long id;
+
+	@Column(name = "login_id", nullable = false, columnDefinition = "text")
+	private String loginId;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(
+		name = "login_id",
+		referencedColumnName = "login_id",
+		insertable = false,
+		updatable = false,
+		foreignKey = @ForeignKey(
+			name = "fk_rag_wiki_sync_page_user",
+			foreignKeyDefinition = "FOREIGN KEY (login_id) REFERENCES app_user(login_id) ON UPDATE CASCADE ON DELETE CASCADE"))
+	private User user;
+
+	@Column(name = "wiki_id", nullable = false, length = 64)
+	private String wikiId;
+
+	@Column(name = "page_id", nullable = false, length = 64)
+	private String pageId;
+
+	// Dooray 응답의 updatedAt 원문. 비교만 하므로 파싱하지 않는다.
+	@Column(name = "page_updated_at", nullable = false, length = 64)
+	private String pageUpdatedAt;
+
+	@Column(name = "doc_id", nullable = false, columnDefinition = "text")
+	private String docId;
+
+	@Column(name = "synced_at", nullable = false)
+	private Instant syncedAt;
+}
@@ -0,0 +1,72 @@
+package minkyu307.spring_ai.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.Instant;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 주기 동기화 대상 Wiki 하위 트리(루트 페이지 기준). 스케줄러는 next_sync_at 이 지난 대상을
+ * FOR UPDATE SKIP LOCKED 로 가져가 다음 시각을 먼저 미루고 동기화하므로 여러 인스턴스에서도 한 번만 처리된다.
+ */
+@Entity
+@Table(
+	name = "rag_wiki_sync_target",
+	uniqueConstraints = {
+		@UniqueConstraint(name = "uk_rag_wiki_sync_target_login_root", columnNames = {"login_id", "wiki_id", "root_page_id"})
+	},
+	indexes = {
+		@Index(name = "idx_rag_wiki_sync_target_next_sync", columnList = "next_sync_at")
+	})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class RagWikiSyncTarget {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@EqualsAndHashCode.Include
+	private Long id;
+
+	@Column(name = "login_id", nullable = false, columnDefinition = "text")
+	private String loginId;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(
+		name = "login_id",
+		referencedColumnName = "login_id",
+		insertable = false,
+		updatable = false,
+		foreignKey = @ForeignKey(
+			name = "fk_rag_wiki_sync_target_user",
+			foreignKeyDefinition = "FOREIGN KEY (login_id) REFERENCES app_user(login_id) ON UPDATE CASCADE ON DELETE CASCADE"))
+	private User user;
+
+	@Column(name = "wiki_id", nullable = false, length = 64)
+	private String wikiId;
+
+	@Column(name = "root_page_id", nullable = false, length = 64)
+	private String rootPageId;
+
+	@Column(name = "created_at", nullable = false)
+	private Instant createdAt;
+
+	@Column(name = "last_synced_at")
+	private Instant lastSyncedAt;
+
+	@Column(name = "next_sync_at", nullable = false)
+	private Instant nextSyncAt;
+}
@@ -0,0 +1,51 @@
+package minkyu307.spring_ai.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * chat_answer_source 쓰기 경로 전용 JDBC Repository. // 출처 N건을 엔티티 생성 없이 단일 배치로 저장
+ */
+@Repository
+public class ChatAnswerSourceJdbcRepository {
+
+	private final JdbcTemplate jdbcTemplate;
+
+	public ChatAnswerSourceJdbcRepository(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	/**
+	 * assistant 메시지(conversation_id + timestamp)에 연결된 출처를 한 번의 배치 INSERT 로 저장한다.
+	 * 같은 메시지에 같은 출처 키가 이미 있으면 건너뛴다.
+	 */
+	public void insertAll(String conversationId, Instant messageTimestamp, List<AnswerSourceRow> sources) {
+		if (sources == null || sources.isEmpty()) {
+			return;
+		}
+		String sql = """
+				INSERT INTO chat_answer_source
+					(conversation_id, message_timestamp, source_type, label, href, source_key, created_at)
+				VALUES (?, ?, ?, ?, ?, ?, now())
+				ON CONFLICT (conversation_id, message_timestamp, source_key) DO NOTHING
+				""";
+		Timestamp timestamp = Timestamp.from(messageTimestamp);
+		jdbcTemplate.batchUpdate(sql, sources, sources.size(), (ps, source) -> {
+			ps.setString(1, conversationId);
+			ps.setTimestamp(2, timestamp);
+			ps.setString(3, source.sourceType());
+			ps.setString(4, source.label());
+			ps.setString(5, source.href());
+			ps.setString(6, source.sourceKey());
+		});
+	}
+
+	/**
+	 * 저장할 출처 한 건.
+	 */
+	public record AnswerSourceRow(String sourceType, String label, String href, String sourceKey) {}
+}
@@ -0,0 +1,143 @@
+package minkyu307.spring_ai.repository;
+
+import minkyu307.spring_ai.repository.ChatMemoryJdbcQueryRepository.ChatHistorySummary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * chat_conversation 쓰기 경로 및 히스토리 목록 조회용 JDBC Repository. // 조회+저장 왕복을 단일 SQL로 합치기 위해 JPA 대신 사용
+ */
+@Repository
+public class ChatConversationJdbcRepository {
+
+	// 목록 제목 폴백(50자)에 쓰이므로 넉넉히 잘라 저장한다.
+	private static final int FIRST_USER_MESSAGE_MAX_CHARS = 200;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	public ChatConversationJdbcRepository(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	/**
+	 * 대화 행이 없으면 생성하고, 있으면 기존 소유자를 반환한다. // Postgres 전용(INSERT ... ON CONFLICT ... RETURNING)
+	 * 동시 생성 경합으로 CTE 스냅샷에서 기존 행이 보이지 않으면 단건 조회로 한 번 더 확인한다.
+	 */
+	public ConversationClaim claimConversation(String conversationId, String loginId, String title) {
+		String sql = """
+				WITH ins AS (
+					INSERT INTO chat_conversation (id, login_id, title, created_at, last_updated, message_count)
+					VALUES (?, ?, ?, now(), now(), 0)
+					ON CONFLICT (id) DO NOTHING
+					RETURNING login_id
+				)
+				SELECT login_id, TRUE AS created FROM ins
+				UNION ALL
+				SELECT login_id, FALSE AS created
+				FROM chat_conversation
+				WHERE id = ?
+				  AND NOT EXISTS (SELECT 1 FROM ins)
+				""";
+
+		List<ConversationClaim> claims = jdbcTemplate.query(sql, ps -> {
+			ps.setString(1, conversationId);
+			ps.setString(2, loginId);
+			ps.setString(3, title);
+			ps.setString(4, conversationId);
+		}, (rs, rowNum) -> new ConversationClaim(rs.getString("login_id"), rs.getBoolean("created")));
+		if (!claims.isEmpty()) {
+			return claims.get(0);
+		}
+
+		String ownerLoginId = findOwnerLoginId(conversationId);
+		return ownerLoginId == null ? null : new ConversationClaim(ownerLoginId, false);
+	}
+
+	/**
+	 * 대화 소유자 login_id 를 조회한다. 대화가 없으면 null.
+	 */
+	public String findOwnerLoginId(String conversationId) {
+		List<String> owners = jdbcTemplate.queryForList(
+				"SELECT login_id FROM chat_conversation WHERE id = ?",
+				String.class,
+				conversationId);
+		return owners.isEmpty() ? null : owners.get(0);
+	}
+
+	/**
+	 * 소유자 조건을 포함한 단일 UPDATE 로 대화 제목을 갱신한다. 갱신된 행 수를 반환한다.
+	 */
+	public int updateTitle(String conversationId, String loginId, String title) {
+		return jdbcTemplate.update(
+				"UPDATE chat_conversation SET title = ? WHERE id = ? AND login_id = ?",
+				title,
+				conversationId,
+				loginId);
+	}
+
+	/**
+	 * 턴 저장 후 목록용 요약 컬럼(last_updated/message_count/first_user_message)을 갱신한다.
+	 * first_user_message 는 비어 있을 때만 채운다.
+	 */
+	public int recordTurn(String conversationId, String userMessage, int messageCount, Instant updatedAt) {
+		return jdbcTemplate.update("""
+				UPDATE chat_conversation
+				SET last_updated = ?,
+					message_count = message_count + ?,
+					first_user_message = COALESCE(first_user_message, left(?, %d))
+				WHERE id = ?
+				""".formatted(FIRST_USER_MESSAGE_MAX_CHARS),
+				Timestamp.from(updatedAt),
+				messageCount,
+				userMessage,
+				conversationId);
+	}
+
+	/**
+	 * 사용자 대화 요약 목록을 최근 갱신순으로 조회한다. // (login_id, last_updated DESC, id DESC) 인덱스 기반 keyset 페이지
+	 * after 가 있으면 해당 위치 다음부터, limit 이 null 이면 끝까지 반환한다. 메시지가 없는 대화는 제외한다.
+	 */
+	public List<ChatHistorySummary> findHistoryPage(String loginId, HistoryCursor after, Integer limit) {
+		StringBuilder sql = new StringBuilder("""
+				SELECT id, title, first_user_message, last_updated, message_count
+				FROM chat_conversation
+				WHERE login_id = ?
+				  AND message_count > 0
+				""");
+		List<Object> args = new ArrayList<>();
+		args.add(loginId);
+		if (after != null) {
+			sql.append("  AND (last_updated, id) < (?, ?)\n");
+			args.add(Timestamp.from(after.lastUpdated()));
+			args.add(after.conversationId());
+		}
+		sql.append("ORDER BY last_updated DESC, id DESC\n");
+		if (limit != null) {
+			sql.append("LIMIT ?\n");
+			args.add(limit);
+		}
+
+		return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new ChatHistorySummary(
+				rs.getString("id"),
+				rs.getString("title"),
+				rs.getString("first_user_message"),
+				rs.getTimestamp("last_updated").toInstant(),
+				rs.getLong("message_count")
+		), args.toArray());
+	}
+
+	/**
+	 * 히스토리 목록 keyset 위치. 마지막으로 받은 항목의 (last_updated, id).
+	 */
+	public record HistoryCursor(Instant lastUpdated, String conversationId) {}
+
+	/**
+	 * 대화 생성/소유권 확인 결과. created 가 true 면 이번 호출에서 새로 생성된 대화다.
+	 */
+	public record ConversationClaim(String ownerLoginId, boolean created) {}
+}
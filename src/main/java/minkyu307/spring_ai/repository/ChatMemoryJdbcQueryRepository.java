@@ -1,18 +1,25 @@
 package minkyu307.spring_ai.repository;
 
+import minkyu307.spring_ai.dto.ChatMessageDto;
+import minkyu307.spring_ai.dto.ChatSourceDto;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
- * Spring AI의 JDBC ChatMemory 테이블(spring_ai_chat_memory) 조회 전용 Repository. // JPA DDL 영향 배제 목적
+ * Spring AI의 JDBC ChatMemory 테이블(spring_ai_chat_memory) 조회/추가 Repository. // JPA DDL 영향 배제 목적
+ * 메시지는 턴 단위로 추가만 하며(기존 행 재작성 없음), 저장 시점의 timestamp 가 메시지 식별자 역할을 한다.
  */
 @Repository
 public class ChatMemoryJdbcQueryRepository {
@@ -64,62 +71,95 @@ public class ChatMemoryJdbcQueryRepository {
 	}
 
 	/**
-	 * 특정 login_id 소유 대화만 필터링하여 히스토리 요약 목록을 조회한다. chat_conversation 과 JOIN.
+	 * 소유자 조건을 포함해 대화 메시지와 assistant 출처를 한 번의 쿼리로 조회해 시간순 ChatMessageDto 로 반환한다.
+	 * before 가 있으면 그 이전 메시지만, limit 이 있으면 가장 최근 limit 개만 조회한다. 소유하지 않은 대화면 빈 목록.
 	 */
-	public List<ChatHistorySummary> findHistorySummariesByLoginId(String loginId) {
-		String sql = """
-				SELECT
-					s.conversation_id AS conversation_id,
-					s.conversation_title AS conversation_title,
-					u.first_user_message AS first_user_message,
-					s.last_updated AS last_updated,
-					s.message_count AS message_count
-				FROM (
+	public List<ChatMessageDto> findConversationMessages(String conversationId, String loginId, Instant before, Integer limit) {
+		StringBuilder sql = new StringBuilder("""
+				WITH msgs AS (
 					SELECT
-						m.conversation_id,
-						MAX(c.title) AS conversation_title,
-						MAX(m."timestamp") AS last_updated,
-						COUNT(*) AS message_count
+						m.type,
+						m.content,
+						m."timestamp" AS ts,
+						row_number() OVER (ORDER BY m."timestamp" DESC) AS rn
 					FROM spring_ai_chat_memory m
-					INNER JOIN chat_conversation c ON c.id = m.conversation_id
-					WHERE c.login_id = ?
-					GROUP BY m.conversation_id
-				) s
-				LEFT JOIN LATERAL (
-					SELECT content AS first_user_message
-					FROM spring_ai_chat_memory
-					WHERE conversation_id = s.conversation_id
-					  AND type = 'USER'
-					ORDER BY "timestamp" ASC
-					LIMIT 1
-				) u ON TRUE
-				ORDER BY s.last_updated DESC
-				""";
+					INNER JOIN chat_conversation c ON c.id = m.conversation_id AND c.login_id = ?
+					WHERE m.conversation_id = ?
+				""");
+		List<Object> args = new ArrayList<>(List.of(loginId, conversationId));
+		if (before != null) {
+			sql.append("		  AND m.\"timestamp\" < ?\n");
+			args.add(Timestamp.from(before));
+		}
+		sql.append("	ORDER BY m.\"timestamp\" DESC\n");
+		if (limit != null) {
+			sql.append("	LIMIT ?\n");
+			args.add(limit);
+		}
+		sql.append("""
+				)
+				SELECT msgs.rn, msgs.type, msgs.content, msgs.ts, s.source_type, s.label, s.href
+				FROM msgs
+				LEFT JOIN chat_answer_source s
+					ON msgs.type = 'ASSISTANT'
+					AND s.conversation_id = ?
+					AND s.message_timestamp = msgs.ts
+				ORDER BY msgs.rn DESC, s.id ASC
+				""");
+		args.add(conversationId);
 
-		return jdbcTemplate.query(sql, ps -> ps.setString(1, loginId), (rs, rowNum) -> new ChatHistorySummary(
-				rs.getString("conversation_id"),
-				rs.getString("conversation_title"),
-				rs.getString("first_user_message"),
-				readInstant(rs, "last_updated"),
-				rs.getLong("message_count")
-		));
+		List<ChatMessageDto> messages = new ArrayList<>();
+		long[] currentRn = {-1};
+		// 출처가 여러 건이면 같은 메시지 행이 연속으로 반복되므로 rn 이 바뀔 때만 메시지를 추가한다.
+		jdbcTemplate.query(sql.toString(), rs -> {
+			long rn = rs.getLong("rn");
+			if (rn != currentRn[0]) {
+				currentRn[0] = rn;
+				Instant timestamp = readInstant(rs, "ts");
+				messages.add(new ChatMessageDto(
+						toRole(rs.getString("type")),
+						rs.getString("content"),
+						timestamp != null ? timestamp : Instant.now(),
+						new ArrayList<>()));
+			}
+			String sourceType = rs.getString("source_type");
+			if (sourceType != null) {
+				messages.get(messages.size() - 1).sources()
+						.add(new ChatSourceDto(sourceType, rs.getString("label"), rs.getString("href")));
+			}
+		}, args.toArray());
+		return messages;
+	}
+
+	/**
+	 * Spring AI message type(USER/ASSISTANT/SYSTEM 등)을 UI role 로 변환한다.
+	 */
+	private static String toRole(String type) {
+		return "USER".equals(type) ? "user"
+				: "ASSISTANT".equals(type) ? "assistant"
+						: "system";
 	}
 
 	/**
-	 * 특정 conversation_id의 모든 메시지를 시간순으로 조회한다. // Spring AI 테이블을 직접 읽어 히스토리 UI/API에 사용
+	 * 프롬프트 맥락용으로 대화의 최근 메시지 limit 개를 시간순으로 조회한다. // (conversation_id, timestamp) 인덱스 역순 스캔
 	 */
-	public List<ChatMemoryMessage> findMessagesByConversationIdOrderByTimestampAsc(String conversationId) {
+	public List<ChatMemoryMessage> findRecentMessages(String conversationId, int limit) {
 		String sql = """
-				SELECT
-					type AS type,
-					content AS content,
-					"timestamp" AS ts
-				FROM spring_ai_chat_memory
-				WHERE conversation_id = ?
-				ORDER BY "timestamp" ASC
+				SELECT type, content, ts
+				FROM (
+					SELECT type, content, "timestamp" AS ts
+					FROM spring_ai_chat_memory
+					WHERE conversation_id = ?
+					ORDER BY "timestamp" DESC
+					LIMIT ?
+				) recent
+				ORDER BY ts ASC
 				""";
 
-		return jdbcTemplate.query(sql, ps -> ps.setString(1, conversationId), (rs, rowNum) -> new ChatMemoryMessage(
+		return jdbcTemplate.query(sql, ps -> {
+			ps.setString(1, conversationId);
+			ps.setInt(2, limit);
+		}, (rs, rowNum) -> new ChatMemoryMessage(
 				rs.getString("type"),
 				rs.getString("content"),
 				readInstant(rs, "ts")
@@ -127,51 +167,36 @@ public class ChatMemoryJdbcQueryRepository {
 	}
 
 	/**
-	 * 특정 대화의 assistant 메시지 중 content가 일치하는 최신 timestamp를 조회한다.
+	 * 한 턴(user + assistant)을 한 번의 INSERT 로 추가하고 저장된 assistant 메시지 timestamp 를 반환한다.
+	 * timestamp 는 대화의 기존 마지막 메시지보다 항상 뒤가 되도록 잡아 시간순 정렬과 출처 연결 키를 보장한다.
 	 */
-	public Instant findLatestAssistantMessageTimestampByConversationIdAndContent(String conversationId, String content) {
-		if (conversationId == null || conversationId.isBlank() || content == null) {
-			return null;
-		}
+	public Instant appendTurn(String conversationId, String userContent, String assistantContent) {
 		String sql = """
-				SELECT "timestamp" AS ts
-				FROM spring_ai_chat_memory
-				WHERE conversation_id = ?
-				  AND type = 'ASSISTANT'
-				  AND content = ?
-				ORDER BY "timestamp" DESC
-				LIMIT 1
+				INSERT INTO spring_ai_chat_memory (conversation_id, content, type, "timestamp")
+				SELECT ?, turn.content, turn.type, base.ts + turn.seq * INTERVAL '1 millisecond'
+				FROM (
+					SELECT GREATEST(?::timestamp, COALESCE(MAX("timestamp") + INTERVAL '1 millisecond', ?::timestamp)) AS ts
+					FROM spring_ai_chat_memory
+					WHERE conversation_id = ?
+				) base
+				CROSS JOIN (VALUES (?::text, 'USER', 0), (?::text, 'ASSISTANT', 1)) AS turn(content, type, seq)
+				RETURNING type, "timestamp" AS ts
 				""";
-		List<Instant> timestamps = jdbcTemplate.query(
-			sql,
-			ps -> {
-				ps.setString(1, conversationId);
-				ps.setString(2, content);
-			},
-			(rs, rowNum) -> readInstant(rs, "ts"));
-		return timestamps.isEmpty() ? null : timestamps.get(0);
-	}
+		// Spring AI JdbcChatMemoryRepository 와 같은 방식(JVM 시간대 Timestamp)으로 기록해 기존 행과 정렬을 맞춘다.
+		Timestamp now = Timestamp.from(Instant.now().truncatedTo(ChronoUnit.MILLIS));
 
-	/**
-	 * 특정 대화의 최신 assistant 메시지 timestamp를 조회한다.
-	 */
-	public Instant findLatestAssistantMessageTimestampByConversationId(String conversationId) {
-		if (conversationId == null || conversationId.isBlank()) {
-			return null;
-		}
-		String sql = """
-				SELECT "timestamp" AS ts
-				FROM spring_ai_chat_memory
-				WHERE conversation_id = ?
-				  AND type = 'ASSISTANT'
-				ORDER BY "timestamp" DESC
-				LIMIT 1
-				""";
-		List<Instant> timestamps = jdbcTemplate.query(
-			sql,
-			ps -> ps.setString(1, conversationId),
-			(rs, rowNum) -> readInstant(rs, "ts"));
-		return timestamps.isEmpty() ? null : timestamps.get(0);
+		List<Instant> assistantTimestamps = jdbcTemplate.query(sql, ps -> {
+			ps.setString(1, conversationId);
+			ps.setTimestamp(2, now);
+			ps.setTimestamp(3, now);
+			ps.setString(4, conversationId);
+			ps.setString(5, userContent == null ? "" : userContent);
+			ps.setString(6, assistantContent == null ? "" : assistantContent);
+		}, (rs, rowNum) -> "ASSISTANT".equals(rs.getString("type")) ? readInstant(rs, "ts") : null);
+		return assistantTimestamps.stream()
+				.filter(Objects::nonNull)
+				.findFirst()
+				.orElseThrow(() -> new IllegalStateException("assistant 메시지 저장 결과가 없습니다."));
 	}
 
 	/**
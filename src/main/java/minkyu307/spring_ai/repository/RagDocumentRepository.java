@@ -0,0 +1,62 @@
+package minkyu307.spring_ai.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import minkyu307.spring_ai.dto.RagCorpusVersionDto;
+import minkyu307.spring_ai.dto.RagDocumentListItemDto;
+import minkyu307.spring_ai.entity.RagDocument;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * RAG 문서 등록 정보 저장/조회 리포지토리. // (login_id, ingested_at) 인덱스 기반 단일 테이블 조회
+ */
+public interface RagDocumentRepository extends JpaRepository<RagDocument, String> {
+
+	/**
+	 * 사용자 문서 목록을 최근 적재순으로 조회한다. // 요약 본문은 읽지 않는다.
+	 */
+	@Query("""
+			select new minkyu307.spring_ai.dto.RagDocumentListItemDto(
+				d.docId, d.title, d.filename, d.source, d.ingestedAt, d.chunkCount)
+			from RagDocument d
+			where d.loginId = :loginId
+			order by d.ingestedAt desc
+			""")
+	List<RagDocumentListItemDto> findListItemsByLoginId(@Param("loginId") String loginId);
+
+	/**
+	 * 사용자 코퍼스 버전(문서 수, 마지막 적재 시각)을 조회한다. // (login_id, ingested_at) 인덱스만 읽는다.
+	 */
+	@Query("""
+			select new minkyu307.spring_ai.dto.RagCorpusVersionDto(count(d), max(d.ingestedAt))
+			from RagDocument d
+			where d.loginId = :loginId
+			""")
+	RagCorpusVersionDto findCorpusVersion(@Param("loginId") String loginId);
+
+	Optional<RagDocument> findByDocIdAndLoginId(String docId, String loginId);
+
+	/**
+	 * 문서 요약을 저장한다. // 문서당 1행 갱신
+	 */
+	@Transactional
+	@Modifying
+	@Query("""
+			update RagDocument d
+			set d.summary = :summary, d.summarizedAt = :summarizedAt
+			where d.docId = :docId and d.loginId = :loginId
+			""")
+	int updateSummary(
+			@Param("docId") String docId,
+			@Param("loginId") String loginId,
+			@Param("summary") String summary,
+			@Param("summarizedAt") Instant summarizedAt);
+
+	@Transactional
+	long deleteByDocIdAndLoginId(String docId, String loginId);
+}
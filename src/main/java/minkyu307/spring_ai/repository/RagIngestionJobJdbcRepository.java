@@ -0,0 +1,274 @@
+package minkyu307.spring_ai.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * rag_ingestion_job / rag_ingestion_job_item 큐 조작용 JDBC Repository. // Postgres 전용(FOR UPDATE SKIP LOCKED)
+ */
+@Repository
+public class RagIngestionJobJdbcRepository {
+
+	private static final RowMapper<JobRow> JOB_ROW_MAPPER = (rs, rowNum) -> new JobRow(
+			rs.getString("id"),
+			rs.getString("login_id"),
+			rs.getString("type"),
+			rs.getString("status"),
+			rs.getInt("total_items"),
+			rs.getInt("succeeded_items"),
+			rs.getInt("failed_items"),
+			rs.getInt("skipped_items"),
+			rs.getInt("total_chunks"),
+			toInstant(rs.getTimestamp("created_at")),
+			toInstant(rs.getTimestamp("started_at")),
+			toInstant(rs.getTimestamp("finished_at")),
+			toInstant(rs.getTimestamp("updated_at"))
+	);
+
+	private final JdbcTemplate jdbcTemplate;
+
+	public RagIngestionJobJdbcRepository(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	/**
+	 * 작업과 항목을 저장한다. 적재 시점에 이미 결과가 정해진 항목(SKIPPED/FAILED)도 함께 넣는다.
+	 */
+	@Transactional
+	public void insertJob(String jobId, String loginId, String type, List<NewItem> items) {
+		jdbcTemplate.update("""
+				INSERT INTO rag_ingestion_job
+					(id, login_id, type, status, total_items, succeeded_items, failed_items, skipped_items, total_chunks,
+					 created_at, updated_at)
+				VALUES (?, ?, ?, 'QUEUED', ?, 0, 0, 0, 0, now(), now())
+				""", jobId, loginId, type, items.size());
+		jdbcTemplate.batchUpdate("""
+				INSERT INTO rag_ingestion_job_item
+					(job_id, item_index, kind, name, payload, content_type, status, attempts, chunks_ingested, error,
+					 queued_at, updated_at)
+				VALUES (?, ?, ?, ?, ?, ?, ?, 0, 0, ?, now(), now())
+				""", items, items.size(), (ps, item) -> {
+			ps.setString(1, jobId);
+			ps.setInt(2, item.itemIndex());
+			ps.setString(3, item.kind());
+			ps.setString(4, item.name());
+			ps.setString(5, item.payload());
+			ps.setString(6, item.contentType());
+			ps.setString(7, item.status());
+			ps.setString(8, item.error());
+		});
+		refreshJob(jobId);
+	}
+
+	/**
+	 * 처리할 항목 1건을 임대(lease)하며 가져온다. PENDING 또는 임대가 만료된 RUNNING(워커 중단/재기동) 항목이 대상이다.
+	 */
+	public ClaimedItem claimNextItem(Duration lease) {
+		String sql = """
+				UPDATE rag_ingestion_job_item i
+				SET status = 'RUNNING',
+					attempts = i.attempts + 1,
+					locked_until = now() + make_interval(secs => ?),
+					updated_at = now()
+				WHERE i.id = (
+					SELECT c.id
+					FROM rag_ingestion_job_item c
+					WHERE c.status = 'PENDING'
+					   OR (c.status = 'RUNNING' AND c.locked_until < now())
+					ORDER BY c.queued_at, c.item_index
+					LIMIT 1
+					FOR UPDATE SKIP LOCKED
+				)
+				RETURNING i.id, i.job_id, i.item_index, i.kind, i.name, i.payload, i.content_type, i.attempts,
+					(SELECT j.login_id FROM rag_ingestion_job j WHERE j.id = i.job_id) AS login_id
+				""";
+		List<ClaimedItem> claimed = jdbcTemplate.query(sql, (rs, rowNum) -> new ClaimedItem(
+				rs.getLong("id"),
+				rs.getString("job_id"),
+				rs.getInt("item_index"),
+				rs.getString("kind"),
+				rs.getString("name"),
+				rs.getString("payload"),
+				rs.getString("content_type"),
+				rs.getInt("attempts"),
+				rs.getString("login_id")
+		), lease.toSeconds());
+		return claimed.isEmpty() ? null : claimed.get(0);
+	}
+
+	/**
+	 * 처리 중인 항목의 임대를 연장한다. // 긴 OCR/임베딩 중 다른 워커가 가져가지 않도록
+	 * attempts 는 임대를 얻을 때 받은 값으로, 그 사이 임대가 만료되어 다른 워커가 다시 가져갔으면 false.
+	 */
+	public boolean extendLease(long itemId, int attempts, Duration lease) {
+		return jdbcTemplate.update("""
+				UPDATE rag_ingestion_job_item
+				SET locked_until = now() + make_interval(secs => ?)
+				WHERE id = ? AND attempts = ? AND status = 'RUNNING'
+				""", lease.toSeconds(), itemId, attempts) > 0;
+	}
+
+	/**
+	 * 항목 처리 결과를 기록하고 작업 집계를 갱신한다.
+	 * 임대를 얻은 시도(attempts)가 아직 항목을 가지고 있을 때만 기록하며, 다른 워커가 다시 가져갔으면 아무것도 하지 않고 false.
+	 */
+	public boolean completeItem(long itemId, int attempts, String jobId, ItemResult result) {
+		int updated = jdbcTemplate.update("""
+				UPDATE rag_ingestion_job_item
+				SET status = ?, doc_id = ?, title = ?, chunks_ingested = ?, error = ?, locked_until = NULL, updated_at = now()
+				WHERE id = ? AND attempts = ? AND status = 'RUNNING'
+				""", result.status(), result.docId(), result.title(), result.chunksIngested(), result.error(), itemId, attempts);
+		if (updated == 0) {
+			return false;
+		}
+		refreshJob(jobId);
+		return true;
+	}
+
+	/**
+	 * 항목 상태로 작업 집계/상태를 다시 계산한다. 미완료 항목이 없으면 COMPLETED 로 닫는다.
+	 */
+	public void refreshJob(String jobId) {
+		jdbcTemplate.update("""
+				UPDATE rag_ingestion_job j
+				SET succeeded_items = s.succeeded,
+					failed_items = s.failed,
+					skipped_items = s.skipped,
+					total_chunks = s.chunks,
+					status = CASE
+						WHEN s.open = 0 THEN 'COMPLETED'
+						WHEN s.started > 0 THEN 'RUNNING'
+						ELSE 'QUEUED'
+					END,
+					started_at = CASE WHEN s.started > 0 THEN COALESCE(j.started_at, now()) ELSE j.started_at END,
+					finished_at = CASE WHEN s.open = 0 THEN COALESCE(j.finished_at, now()) END,
+					updated_at = now()
+				FROM (
+					SELECT
+						COUNT(*) FILTER (WHERE status = 'SUCCEEDED') AS succeeded,
+						COUNT(*) FILTER (WHERE status = 'FAILED') AS failed,
+						COUNT(*) FILTER (WHERE status = 'SKIPPED') AS skipped,
+						COUNT(*) FILTER (WHERE status IN ('PENDING', 'RUNNING')) AS open,
+						COUNT(*) FILTER (WHERE attempts > 0) AS started,
+						COALESCE(SUM(chunks_ingested), 0) AS chunks
+					FROM rag_ingestion_job_item
+					WHERE job_id = ?
+				) s
+				WHERE j.id = ?
+				""", jobId, jobId);
+	}
+
+	/**
+	 * 사용자 소유 작업을 조회한다.
+	 */
+	public JobRow findJob(String jobId, String loginId) {
+		List<JobRow> rows = jdbcTemplate.query(
+				"SELECT * FROM rag_ingestion_job WHERE id = ? AND login_id = ?",
+				JOB_ROW_MAPPER,
+				jobId,
+				loginId
+		);
+		return rows.isEmpty() ? null : rows.get(0);
+	}
+
+	/**
+	 * 작업 항목을 순서대로 조회한다.
+	 */
+	public List<ItemRow> findItems(String jobId) {
+		return jdbcTemplate.query("""
+				SELECT item_index, kind, name, status, attempts, doc_id, title, chunks_ingested, error, updated_at
+				FROM rag_ingestion_job_item
+				WHERE job_id = ?
+				ORDER BY item_index
+				""", (rs, rowNum) -> new ItemRow(
+				rs.getInt("item_index"),
+				rs.getString("kind"),
+				rs.getString("name"),
+				rs.getString("status"),
+				rs.getInt("attempts"),
+				rs.getString("doc_id"),
+				rs.getString("title"),
+				rs.getInt("chunks_ingested"),
+				rs.getString("error"),
+				toInstant(rs.getTimestamp("updated_at"))
+		), jobId);
+	}
+
+	private static Instant toInstant(Timestamp timestamp) {
+		return timestamp == null ? null : timestamp.toInstant();
+	}
+
+	/**
+	 * 작업 생성 시 저장할 항목. status 는 PENDING 또는 적재 전에 결과가 정해진 SKIPPED/FAILED.
+	 */
+	public record NewItem(
+			int itemIndex,
+			String kind,
+			String name,
+			String payload,
+			String contentType,
+			String status,
+			String error
+	) {
+	}
+
+	/**
+	 * 워커가 임대한 항목.
+	 */
+	public record ClaimedItem(
+			long id,
+			String jobId,
+			int itemIndex,
+			String kind,
+			String name,
+			String payload,
+			String contentType,
+			int attempts,
+			String loginId
+	) {
+	}
+
+	/**
+	 * 항목 처리 결과.
+	 */
+	public record ItemResult(String status, String docId, String title, int chunksIngested, String error) {
+	}
+
+	public record JobRow(
+			String id,
+			String loginId,
+			String type,
+			String status,
+			int totalItems,
+			int succeededItems,
+			int failedItems,
+			int skippedItems,
+			int totalChunks,
+			Instant createdAt,
+			Instant startedAt,
+			Instant finishedAt,
+			Instant updatedAt
+	) {
+	}
+
+	public record ItemRow(
+			int itemIndex,
+			String kind,
+			String name,
+			String status,
+			int attempts,
+			String docId,
+			String title,
+			int chunksIngested,
+			String error,
+			Instant updatedAt
+	) {
+	}
+}
@@ -0,0 +1,63 @@
+package minkyu307.spring_ai.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * rag_ocr_cache 조회/저장/정리용 JDBC Repository. // 조회와 사용 시각 갱신을 단일 UPDATE ... RETURNING 으로 처리
+ */
+@Repository
+public class RagOcrCacheJdbcRepository {
+
+	private final JdbcTemplate jdbcTemplate;
+
+	public RagOcrCacheJdbcRepository(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	/**
+	 * 캐시 키의 OCR 텍스트를 조회하고 마지막 사용 시각을 갱신한다.
+	 */
+	public Optional<String> findTextAndTouch(String cacheKey) {
+		String sql = """
+				UPDATE rag_ocr_cache
+				SET last_used_at = now()
+				WHERE cache_key = ?
+				RETURNING text
+				""";
+		List<String> texts = jdbcTemplate.query(sql, (rs, rowNum) -> rs.getString("text"), cacheKey);
+		return texts.stream().findFirst();
+	}
+
+	/**
+	 * OCR 텍스트를 저장한다. 동시 적재로 같은 키가 이미 있으면 사용 시각만 갱신한다.
+	 */
+	public void upsert(String cacheKey, String text) {
+		String sql = """
+				INSERT INTO rag_ocr_cache (cache_key, text, created_at, last_used_at)
+				VALUES (?, ?, now(), now())
+				ON CONFLICT (cache_key) DO UPDATE SET last_used_at = now()
+				""";
+		jdbcTemplate.update(sql, cacheKey, text);
+	}
+
+	/**
+	 * 최근 사용 순으로 maxEntries 건만 남기고 나머지를 삭제한 뒤 삭제 건수를 반환한다. // last_used_at 인덱스 사용
+	 */
+	public int deleteLeastRecentlyUsedBeyond(long maxEntries) {
+		String sql = """
+				DELETE FROM rag_ocr_cache
+				WHERE last_used_at < (
+					SELECT last_used_at
+					FROM rag_ocr_cache
+					ORDER BY last_used_at DESC
+					OFFSET ?
+					LIMIT 1
+				)
+				""";
+		return jdbcTemplate.update(sql, maxEntries - 1);
+	}
+}
@@ -1,11 +1,13 @@
 package minkyu307.spring_ai.repository;
 
-import minkyu307.spring_ai.dto.RagDocumentListItemDto;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 
 /**
  * PGvector vector_store 테이블 조회/관리용 JDBC Repository. // VectorStore에 "목록" API가 없어 직접 조회
@@ -13,6 +15,42 @@ import java.util.Optional;
 @Repository
 public class RagVectorStoreJdbcRepository {
 
+	// login_id/doc_id/ingested_at/source/content_hash 는 metadata 에서 파생된 STORED 생성 컬럼이다. (RagSchemaInitializer)
+	static final String FIND_CHUNK_CONTENTS_SQL = """
+			SELECT content
+			FROM vector_store
+			WHERE login_id = ?
+			  AND doc_id = ?
+			ORDER BY id
+			""";
+
+	static final String DELETE_BY_DOC_ID_SQL = "DELETE FROM vector_store WHERE login_id = ? AND doc_id = ?";
+
+	static final String FIND_WIKI_PAGE_DOC_IDS_SQL = """
+			SELECT DISTINCT doc_id
+			FROM vector_store
+			WHERE login_id = ?
+			  AND source = 'dooray-wiki'
+			  AND metadata->>'wikiId' = ?
+			  AND metadata->>'pageId' = ?
+			""";
+
+	static final String FIND_CHUNK_IDS_BY_CONTENT_HASHES_SQL = """
+			SELECT DISTINCT ON (content_hash)
+				content_hash,
+				id::text AS id
+			FROM vector_store
+			WHERE login_id = ?
+			  AND content_hash = ANY (?)
+			""";
+
+	static final String INSERT_WITH_COPIED_EMBEDDING_SQL = """
+			INSERT INTO vector_store (id, content, metadata, embedding)
+			SELECT ?::uuid, ?, ?::json, embedding
+			FROM vector_store
+			WHERE id = ?::uuid
+			""";
+
 	private final JdbcTemplate jdbcTemplate;
 
 	public RagVectorStoreJdbcRepository(JdbcTemplate jdbcTemplate) {
@@ -20,109 +58,77 @@ public class RagVectorStoreJdbcRepository {
 	}
 
 	/**
-	 * vector_store(청크) 데이터를 docId 단위로 그룹핑하여 목록을 반환한다. // UI 목록용
-	 * 현재 로그인 사용자(loginId) 기준으로만 조회.
+	 * 문서 청크 본문 목록을 조회한다. // 요약 입력 생성용
 	 */
-	public List<RagDocumentListItemDto> findAllGroupedDocumentsByLoginId(String loginId) {
-		String sql = """
-				SELECT
-					metadata->>'docId' AS doc_id,
-					COALESCE(metadata->>'title', metadata->>'filename', 'untitled') AS title,
-					MAX(metadata->>'filename') AS filename,
-					MAX(metadata->>'source') AS source,
-					MAX(metadata->>'ingestedAt') AS ingested_at,
-					COUNT(*) AS chunk_count
-				FROM vector_store
-				WHERE metadata->>'docId' IS NOT NULL
-				  AND metadata->>'loginId' = ?
-				GROUP BY metadata->>'docId',
-						 COALESCE(metadata->>'title', metadata->>'filename', 'untitled')
-				ORDER BY MAX(metadata->>'ingestedAt') DESC NULLS LAST
-				""";
-
-		return jdbcTemplate.query(sql, (rs, rowNum) -> new RagDocumentListItemDto(
-				rs.getString("doc_id"),
-				rs.getString("title"),
-				rs.getString("filename"),
-				rs.getString("source"),
-				rs.getString("ingested_at"),
-				rs.getLong("chunk_count")
-		), loginId);
+	public List<String> findChunkContentsByDocIdAndLoginId(String docId, String loginId) {
+		return jdbcTemplate.query(
+				FIND_CHUNK_CONTENTS_SQL,
+				(rs, rowNum) -> rs.getString("content"),
+				loginId,
+				docId
+		);
 	}
 
 	/**
-	 * docId + loginId 메타데이터로 저장된 청크가 존재하는지 확인한다. // 삭제 전략 분기용
+	 * 사용자가 적재한 Dooray Wiki 페이지의 docId 목록을 조회한다. // 동기화 기록 없이 /wiki 로 적재된 문서 탐색
 	 */
-	public boolean existsByDocIdAndLoginId(String docId, String loginId) {
-		String sql = "SELECT COUNT(*) FROM vector_store WHERE metadata->>'docId' = ? AND metadata->>'loginId' = ?";
-		Long count = jdbcTemplate.queryForObject(sql, Long.class, docId, loginId);
-		return count != null && count > 0;
+	public List<String> findWikiPageDocIds(String loginId, String wikiId, String pageId) {
+		return jdbcTemplate.queryForList(FIND_WIKI_PAGE_DOC_IDS_SQL, String.class, loginId, wikiId, pageId);
 	}
 
 	/**
-	 * 문서 요약을 조회한다. // docId + loginId 기준으로 저장된 summary metadata 반환
+	 * 사용자 청크 중 본문 해시가 일치하는 청크 id 를 해시별 1건씩 조회한다. // 임베딩 재사용 원본 탐색
 	 */
-	public Optional<StoredSummary> findStoredSummaryByDocIdAndLoginId(String docId, String loginId) {
-		String sql = """
-				SELECT
-					metadata->>'summary' AS summary,
-					metadata->>'summarizedAt' AS summarized_at
-				FROM vector_store
-				WHERE metadata->>'docId' = ?
-				  AND metadata->>'loginId' = ?
-				  AND COALESCE(metadata->>'summary', '') <> ''
-				ORDER BY metadata->>'summarizedAt' DESC NULLS LAST
-				LIMIT 1
-				""";
-		List<StoredSummary> rows = jdbcTemplate.query(
-				sql,
-				(rs, rowNum) -> new StoredSummary(
-						rs.getString("summary"),
-						rs.getString("summarized_at")
-				),
-				docId,
-				loginId
-		);
-		return rows.stream().findFirst();
+	public Map<String, String> findChunkIdsByContentHashes(String loginId, Collection<String> contentHashes) {
+		if (contentHashes == null || contentHashes.isEmpty()) {
+			return Map.of();
+		}
+		Map<String, String> idsByHash = new HashMap<>();
+		jdbcTemplate.query(FIND_CHUNK_IDS_BY_CONTENT_HASHES_SQL, ps -> {
+			ps.setString(1, loginId);
+			ps.setArray(2, ps.getConnection().createArrayOf("text", contentHashes.toArray()));
+		}, rs -> {
+			idsByHash.put(rs.getString("content_hash"), rs.getString("id"));
+		});
+		return idsByHash;
 	}
 
 	/**
-	 * 문서 청크 본문 목록을 조회한다. // 요약 입력 생성용
+	 * 기존 청크의 embedding 을 복사해 새 청크를 저장한다. // 임베딩 모델 호출 없이 INSERT ... SELECT
+	 * 그 사이 원본 청크가 삭제되어 저장하지 못한 청크 목록을 반환한다.
 	 */
-	public List<String> findChunkContentsByDocIdAndLoginId(String docId, String loginId) {
-		String sql = """
-				SELECT content
-				FROM vector_store
-				WHERE metadata->>'docId' = ?
-				  AND metadata->>'loginId' = ?
-				ORDER BY id
-				""";
-		return jdbcTemplate.query(
-				sql,
-				(rs, rowNum) -> rs.getString("content"),
-				docId,
-				loginId
-		);
+	public List<CopiedChunk> insertWithCopiedEmbeddings(List<CopiedChunk> chunks) {
+		if (chunks == null || chunks.isEmpty()) {
+			return List.of();
+		}
+		int[][] counts = jdbcTemplate.batchUpdate(INSERT_WITH_COPIED_EMBEDDING_SQL, chunks, chunks.size(), (ps, chunk) -> {
+			ps.setString(1, chunk.id());
+			ps.setString(2, chunk.content());
+			ps.setString(3, chunk.metadataJson());
+			ps.setString(4, chunk.sourceChunkId());
+		});
+		List<CopiedChunk> notInserted = new ArrayList<>();
+		int index = 0;
+		for (int[] batch : counts) {
+			for (int count : batch) {
+				if (count == 0) {
+					notInserted.add(chunks.get(index));
+				}
+				index++;
+			}
+		}
+		return notInserted;
 	}
 
 	/**
-	 * 문서 요약을 저장한다. // docId 그룹 전체 청크 metadata에 summary/summarizedAt 반영
+	 * 문서(docId) 청크 전체를 삭제하고 삭제된 청크 수를 반환한다. // (login_id, doc_id) 인덱스 사용
 	 */
-	public int updateSummaryByDocIdAndLoginId(String docId, String loginId, String summary, String summarizedAt) {
-		String sql = """
-				UPDATE vector_store
-				SET metadata = (
-					COALESCE(metadata::jsonb, '{}'::jsonb)
-					|| jsonb_build_object('summary', ?, 'summarizedAt', ?)
-				)::json
-				WHERE metadata->>'docId' = ?
-				  AND metadata->>'loginId' = ?
-				""";
-		return jdbcTemplate.update(sql, summary, summarizedAt, docId, loginId);
+	public int deleteByDocIdAndLoginId(String docId, String loginId) {
+		return jdbcTemplate.update(DELETE_BY_DOC_ID_SQL, loginId, docId);
 	}
 
 	/**
-	 * 지정한 사용자들의 vector_store 청크를 metadata.loginId 기준으로 삭제한다.
+	 * 지정한 사용자들의 vector_store 청크를 login_id 기준으로 삭제한다.
 	 */
 	public int deleteByLoginIds(List<String> loginIds) {
 		if (loginIds == null || loginIds.isEmpty()) {
@@ -132,17 +138,19 @@ public class RagVectorStoreJdbcRepository {
 		String placeholders = String.join(", ", java.util.Collections.nCopies(loginIds.size(), "?"));
 		String sql = """
 				DELETE FROM vector_store
-				WHERE metadata->>'loginId' IN (%s)
+				WHERE login_id IN (%s)
 				""".formatted(placeholders);
 		return jdbcTemplate.update(sql, loginIds.toArray());
 	}
 
 	/**
-	 * 저장된 문서 요약 표현.
+	 * embedding 복사 저장 대상 청크. sourceChunkId 는 embedding 을 가져올 기존 청크 id.
 	 */
-	public record StoredSummary(
-			String summary,
-			String summarizedAt
+	public record CopiedChunk(
+			String id,
+			String content,
+			String metadataJson,
+			String sourceChunkId
 	) {
 	}
 }
@@ -0,0 +1,125 @@
+package minkyu307.spring_ai.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * rag_wiki_sync_page / rag_wiki_sync_target 조회/갱신용 JDBC Repository. // Postgres 전용(ON CONFLICT, SKIP LOCKED)
+ */
+@Repository
+public class RagWikiSyncJdbcRepository {
+
+	private final JdbcTemplate jdbcTemplate;
+
+	public RagWikiSyncJdbcRepository(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	/**
+	 * 페이지의 마지막 동기화 상태를 조회한다. 기록된 문서가 삭제되었으면(사용자 삭제 등) 미동기화로 보고 null 을 반환한다.
+	 */
+	public SyncedPage findSyncedPage(String loginId, String wikiId, String pageId) {
+		List<SyncedPage> rows = jdbcTemplate.query("""
+				SELECT s.page_updated_at, s.doc_id
+				FROM rag_wiki_sync_page s
+				WHERE s.login_id = ? AND s.wiki_id = ? AND s.page_id = ?
+				  AND EXISTS (SELECT 1 FROM rag_document d WHERE d.doc_id = s.doc_id)
+				""", (rs, rowNum) -> new SyncedPage(rs.getString("page_updated_at"), rs.getString("doc_id")),
+				loginId, wikiId, pageId);
+		return rows.isEmpty() ? null : rows.get(0);
+	}
+
+	/**
+	 * 페이지 동기화 행을 잠그고 현재 docId 를 반환한다. 행이 없으면 null. // 호출자 트랜잭션 안에서 사용
+	 */
+	public String lockSyncedDocId(String loginId, String wikiId, String pageId) {
+		List<String> docIds = jdbcTemplate.query("""
+				SELECT doc_id
+				FROM rag_wiki_sync_page
+				WHERE login_id = ? AND wiki_id = ? AND page_id = ?
+				FOR UPDATE
+				""", (rs, rowNum) -> rs.getString("doc_id"), loginId, wikiId, pageId);
+		return docIds.isEmpty() ? null : docIds.get(0);
+	}
+
+	/**
+	 * 페이지 동기화 상태를 기록한다.
+	 */
+	public void upsertSyncedPage(String loginId, String wikiId, String pageId, String pageUpdatedAt, String docId) {
+		jdbcTemplate.update("""
+				INSERT INTO rag_wiki_sync_page (login_id, wiki_id, page_id, page_updated_at, doc_id, synced_at)
+				VALUES (?, ?, ?, ?, ?, now())
+				ON CONFLICT (login_id, wiki_id, page_id) DO UPDATE
+				SET page_updated_at = EXCLUDED.page_updated_at, doc_id = EXCLUDED.doc_id, synced_at = now()
+				""", loginId, wikiId, pageId, pageUpdatedAt, docId);
+	}
+
+	/**
+	 * 주기 동기화 대상을 등록한다. 이미 있으면 다음 동기화 시각만 다시 잡는다.
+	 */
+	public void upsertTarget(String loginId, String wikiId, String rootPageId, Duration interval) {
+		jdbcTemplate.update("""
+				INSERT INTO rag_wiki_sync_target (login_id, wiki_id, root_page_id, created_at, last_synced_at, next_sync_at)
+				VALUES (?, ?, ?, now(), now(), now() + make_interval(secs => ?))
+				ON CONFLICT (login_id, wiki_id, root_page_id) DO UPDATE
+				SET last_synced_at = now(), next_sync_at = EXCLUDED.next_sync_at
+				""", loginId, wikiId, rootPageId, interval.toSeconds());
+	}
+
+	/**
+	 * 주기 동기화 대상을 해제한다. 없으면 false.
+	 */
+	public boolean deleteTarget(String loginId, String wikiId, String rootPageId) {
+		return jdbcTemplate.update(
+				"DELETE FROM rag_wiki_sync_target WHERE login_id = ? AND wiki_id = ? AND root_page_id = ?",
+				loginId, wikiId, rootPageId) > 0;
+	}
+
+	/**
+	 * 동기화 시각이 지난 대상 1건을 가져오며 다음 동기화 시각을 interval 뒤로 미룬다. 없으면 null.
+	 * 동기화 도중 인스턴스가 중단되어도 대상은 다음 주기에 다시 처리된다.
+	 */
+	public DueTarget claimDueTarget(Duration interval) {
+		List<DueTarget> claimed = jdbcTemplate.query("""
+				UPDATE rag_wiki_sync_target t
+				SET next_sync_at = now() + make_interval(secs => ?)
+				WHERE t.id = (
+					SELECT c.id
+					FROM rag_wiki_sync_target c
+					WHERE c.next_sync_at <= now()
+					ORDER BY c.next_sync_at
+					LIMIT 1
+					FOR UPDATE SKIP LOCKED
+				)
+				RETURNING t.id, t.login_id, t.wiki_id, t.root_page_id
+				""", (rs, rowNum) -> new DueTarget(
+				rs.getLong("id"),
+				rs.getString("login_id"),
+				rs.getString("wiki_id"),
+				rs.getString("root_page_id")
+		), interval.toSeconds());
+		return claimed.isEmpty() ? null : claimed.get(0);
+	}
+
+	/**
+	 * 대상의 마지막 동기화 시각을 기록한다.
+	 */
+	public void markTargetSynced(long targetId) {
+		jdbcTemplate.update("UPDATE rag_wiki_sync_target SET last_synced_at = now() WHERE id = ?", targetId);
+	}
+
+	/**
+	 * 마지막으로 적재한 페이지의 updatedAt 과 docId.
+	 */
+	public record SyncedPage(String pageUpdatedAt, String docId) {
+	}
+
+	/**
+	 * 스케줄러가 가져간 동기화 대상.
+	 */
+	public record DueTarget(long id, String loginId, String wikiId, String rootPageId) {
+	}
+}
@@ -0,0 +1,151 @@
+package minkyu307.spring_ai.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.embedding.EmbeddingResponseMetadata;
+import org.springframework.ai.google.genai.text.GoogleGenAiTextEmbeddingOptions;
+
+/**
+ * 임베딩 결과를 메모리에 캐시하는 EmbeddingModel 데코레이터. // 채팅 검색과 문서 적재가 같은 인스턴스를 공유
+ * 키는 (임베딩 옵션 + 텍스트)의 SHA-256, 값은 float[] 원본 배열로 저장하고 바이트 가중치 기준 W-TinyLFU 로 제거한다.
+ * 요청 중 캐시에 없는 텍스트만 원본 모델에 한 번에 전달한다.
+ */
+public class CachingEmbeddingModel implements EmbeddingModel {
+
+	// 키 문자열(SHA-256 hex)과 엔트리/배열 헤더 오버헤드 근사치
+	private static final int ENTRY_OVERHEAD_BYTES = 64 + 2 * 64;
+
+	private final EmbeddingModel delegate;
+	private final Cache<String, float[]> cache;
+
+	public CachingEmbeddingModel(EmbeddingModel delegate, long maxBytes, MeterRegistry meterRegistry) {
+		this.delegate = delegate;
+		// 유지보수(가중치 반영/제거)를 호출 스레드에서 바로 수행해 bytes 지표가 쓰기 직후 값을 보이도록 한다.
+		this.cache = Caffeine.newBuilder()
+				.executor(Runnable::run)
+				.maximumWeight(maxBytes)
+				.<String, float[]>weigher((key, vector) -> ENTRY_OVERHEAD_BYTES + Float.BYTES * vector.length)
+				.recordStats()
+				.build();
+
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, "rag-embedding");
+		Gauge.builder("rag.embedding.cache.hit.ratio", cache, c -> c.stats().hitRate())
+				.description("임베딩 캐시 적중률(텍스트 단위)")
+				.register(meterRegistry);
+		Gauge.builder("rag.embedding.cache.bytes", cache, CachingEmbeddingModel::weightedSize)
+				.description("임베딩 캐시가 점유한 추정 바이트")
+				.baseUnit("bytes")
+				.register(meterRegistry);
+	}
+
+	@Override
+	public EmbeddingResponse call(EmbeddingRequest request) {
+		List<String> texts = request.getInstructions();
+		String profile = optionsProfile(request.getOptions());
+
+		float[][] vectors = new float[texts.size()][];
+		// 캐시 미스 텍스트(요청 내 중복 제거) → 해당 텍스트가 나온 요청 인덱스 목록
+		Map<String, List<Integer>> missIndexesByKey = new LinkedHashMap<>();
+		Map<String, String> missTextByKey = new LinkedHashMap<>();
+		for (int i = 0; i < texts.size(); i++) {
+			String key = cacheKey(profile, texts.get(i));
+			float[] cached = cache.getIfPresent(key);
+			if (cached != null) {
+				vectors[i] = cached.clone();
+				continue;
+			}
+			missIndexesByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+			missTextByKey.putIfAbsent(key, texts.get(i));
+		}
+
+		EmbeddingResponseMetadata metadata = new EmbeddingResponseMetadata();
+		if (!missTextByKey.isEmpty()) {
+			List<String> missKeys = List.copyOf(missTextByKey.keySet());
+			EmbeddingResponse response = delegate.call(
+					new EmbeddingRequest(List.copyOf(missTextByKey.values()), request.getOptions()));
+			List<Embedding> results = response.getResults();
+			if (results.size() != missKeys.size()) {
+				throw new IllegalStateException(
+						"임베딩 응답 개수가 요청과 다릅니다. expected=" + missKeys.size() + ", actual=" + results.size());
+			}
+			for (int j = 0; j < missKeys.size(); j++) {
+				float[] vector = results.get(j).getOutput();
+				cache.put(missKeys.get(j), vector.clone());
+				for (int index : missIndexesByKey.get(missKeys.get(j))) {
+					vectors[index] = vector.clone();
+				}
+			}
+			if (response.getMetadata() != null) {
+				metadata = response.getMetadata();
+			}
+		}
+
+		List<Embedding> embeddings = new ArrayList<>(vectors.length);
+		for (int i = 0; i < vectors.length; i++) {
+			embeddings.add(new Embedding(vectors[i], i));
+		}
+		return new EmbeddingResponse(embeddings, metadata);
+	}
+
+	@Override
+	public float[] embed(Document document) {
+		return embed(document.getFormattedContent());
+	}
+
+	@Override
+	public int dimensions() {
+		return delegate.dimensions();
+	}
+
+	private static long weightedSize(Cache<String, float[]> cache) {
+		return cache.policy().eviction()
+				.map(eviction -> eviction.weightedSize().orElse(0L))
+				.orElse(0L);
+	}
+
+	/**
+	 * 벡터 결과에 영향을 주는 옵션(모델/차원/작업 유형)을 키 접두어로 만든다. 요청 옵션이 비어 있으면 기본 옵션으로 본다.
+	 */
+	private static String optionsProfile(EmbeddingOptions options) {
+		if (options == null) {
+			return "default";
+		}
+		String taskType = options instanceof GoogleGenAiTextEmbeddingOptions googleOptions
+				&& googleOptions.getTaskType() != null
+				? googleOptions.getTaskType().name()
+				: null;
+		if (options.getModel() == null && options.getDimensions() == null && taskType == null) {
+			return "default";
+		}
+		return options.getModel() + "|" + options.getDimensions() + "|" + taskType;
+	}
+
+	private static String cacheKey(String profile, String text) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(profile.getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+			digest.update((text == null ? "" : text).getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(digest.digest());
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 을 사용할 수 없습니다.", e);
+		}
+	}
+}
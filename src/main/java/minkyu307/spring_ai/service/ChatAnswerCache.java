@@ -0,0 +1,305 @@
+package minkyu307.spring_ai.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import lombok.extern.slf4j.Slf4j;
+import minkyu307.spring_ai.dto.ChatSourceDto;
+import minkyu307.spring_ai.dto.RagCorpusVersionDto;
+import minkyu307.spring_ai.repository.RagDocumentRepository;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * RAG 답변 캐시. (loginId, 정규화 질문, 코퍼스 세대) 정확 일치 계층과 질문 임베딩 코사인 거리 기반 의미 계층으로 구성한다.
+ * 세대는 rag_document 의 (문서 수, 마지막 적재 시각)으로 DB 에서 읽으므로, 다른 인스턴스에서 적재/삭제해도
+ * 이전 코퍼스로 만든 항목은 바로 조회되지 않고 TTL/크기 제한으로 밀려난다.
+ */
+@Slf4j
+@Service
+public class ChatAnswerCache {
+
+    private static final int MAX_CACHED_USERS = 1_000;
+    private static final int SEMANTIC_ENTRIES_PER_USER = 100;
+    private static final String METRIC_PREFIX = "chat.answer.cache";
+
+    private final EmbeddingModel embeddingModel;
+    private final RagDocumentRepository documentRepository;
+    private final Clock clock;
+    private final boolean enabled;
+    private final boolean firstTurnOnly;
+    private final Duration ttl;
+    private final double semanticMaxDistance;
+
+    private final Cache<ExactKey, CachedAnswer> exactEntries;
+    private final Cache<String, SemanticBucket> semanticBuckets;
+
+    private final Counter exactHits;
+    private final Counter semanticHits;
+    private final Counter misses;
+    private final Timer latencySaved;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public ChatAnswerCache(
+        EmbeddingModel embeddingModel,
+        RagDocumentRepository documentRepository,
+        MeterRegistry meterRegistry,
+        @Value("${app.chat.answer-cache.enabled:false}") boolean enabled,
+        @Value("${app.chat.answer-cache.max-entries:2000}") long maxEntries,
+        @Value("${app.chat.answer-cache.ttl:6h}") Duration ttl,
+        @Value("${app.chat.answer-cache.semantic-max-distance:0.05}") double semanticMaxDistance,
+        @Value("${app.chat.answer-cache.first-turn-only:true}") boolean firstTurnOnly) {
+        this(embeddingModel, documentRepository, meterRegistry, enabled, maxEntries, ttl, semanticMaxDistance, firstTurnOnly,
+            Clock.systemUTC());
+    }
+
+    ChatAnswerCache(
+        EmbeddingModel embeddingModel,
+        RagDocumentRepository documentRepository,
+        MeterRegistry meterRegistry,
+        boolean enabled,
+        long maxEntries,
+        Duration ttl,
+        double semanticMaxDistance,
+        boolean firstTurnOnly,
+        Clock clock) {
+        this.embeddingModel = embeddingModel;
+        this.documentRepository = documentRepository;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.semanticMaxDistance = semanticMaxDistance;
+        this.firstTurnOnly = firstTurnOnly;
+        this.clock = clock;
+
+        // 제거 리스너(evictions 지표)를 호출 스레드에서 바로 실행한다.
+        this.exactEntries = Caffeine.newBuilder()
+            .executor(Runnable::run)
+            .maximumSize(maxEntries)
+            .expireAfterWrite(ttl)
+            .<ExactKey, CachedAnswer>removalListener((key, value, cause) -> recordEviction(cause, 1))
+            .build();
+        this.semanticBuckets = Caffeine.newBuilder()
+            .executor(Runnable::run)
+            .maximumSize(MAX_CACHED_USERS)
+            .expireAfterAccess(ttl)
+            .<String, SemanticBucket>removalListener((key, bucket, cause) -> {
+                if (bucket != null) {
+                    recordEviction(cause, bucket.size());
+                }
+            })
+            .build();
+
+        this.exactHits = Counter.builder(METRIC_PREFIX + ".lookups").tag("result", "exact_hit").register(meterRegistry);
+        this.semanticHits = Counter.builder(METRIC_PREFIX + ".lookups").tag("result", "semantic_hit").register(meterRegistry);
+        this.misses = Counter.builder(METRIC_PREFIX + ".lookups").tag("result", "miss").register(meterRegistry);
+        this.latencySaved = Timer.builder(METRIC_PREFIX + ".latency.saved")
+            .description("캐시 적중으로 생략된 원본 답변 생성 시간")
+            .register(meterRegistry);
+        meterRegistry.gauge(METRIC_PREFIX + ".size", exactEntries, cache -> cache.estimatedSize());
+    }
+
+    /**
+     * 이번 턴이 캐시 대상인지 판별한다. first-turn-only 설정이면 이전 맥락이 없는 새 대화만 대상이다.
+     */
+    public boolean appliesTo(boolean newConversation) {
+        return enabled && (newConversation || !firstTurnOnly);
+    }
+
+    /**
+     * 정확 일치 → 의미 유사 순으로 캐시를 조회한다. 적중하지 않아도 이후 store 에 넘길 조회 컨텍스트를 반환한다.
+     */
+    public Lookup lookup(String loginId, String question) {
+        RagCorpusVersionDto generation = currentGeneration(loginId);
+        String normalizedQuestion = normalizeQuestion(question);
+
+        CachedAnswer exact = exactEntries.getIfPresent(new ExactKey(loginId, normalizedQuestion, generation));
+        if (exact != null) {
+            exactHits.increment();
+            latencySaved.record(exact.generationTime());
+            return new Lookup(loginId, normalizedQuestion, generation, null, exact);
+        }
+
+        // 원문 질문을 임베딩해 QuestionAnswerAdvisor 검색과 같은 임베딩 캐시 항목을 공유한다.
+        float[] embedding = semanticEnabled() ? embedQuestion(question) : null;
+        if (embedding != null) {
+            SemanticBucket bucket = semanticBuckets.getIfPresent(loginId);
+            CachedAnswer similar = bucket == null
+                ? null
+                : bucket.findNearest(embedding, generation, semanticMaxDistance, clock.instant().minus(ttl));
+            if (similar != null) {
+                semanticHits.increment();
+                latencySaved.record(similar.generationTime());
+                return new Lookup(loginId, normalizedQuestion, generation, embedding, similar);
+            }
+        }
+
+        misses.increment();
+        return new Lookup(loginId, normalizedQuestion, generation, embedding, null);
+    }
+
+    /**
+     * 새로 생성된 답변을 저장한다. 답변 생성 중 코퍼스가 바뀌었으면(세대 불일치) 저장하지 않는다.
+     */
+    public void store(Lookup lookup, String answer, List<ChatSourceDto> sources, Duration generationTime) {
+        if (lookup == null || lookup.hit() != null || answer == null || answer.isBlank()) {
+            return;
+        }
+        if (!lookup.generation().equals(currentGeneration(lookup.loginId()))) {
+            return;
+        }
+
+        CachedAnswer cached = new CachedAnswer(answer, List.copyOf(sources), generationTime);
+        exactEntries.put(new ExactKey(lookup.loginId(), lookup.normalizedQuestion(), lookup.generation()), cached);
+        if (lookup.embedding() != null) {
+            SemanticBucket bucket = semanticBuckets.get(lookup.loginId(), key -> new SemanticBucket());
+            int dropped = bucket.add(new SemanticEntry(lookup.generation(), lookup.embedding(), cached, clock.instant()));
+            recordEviction(RemovalCause.SIZE, dropped);
+        }
+    }
+
+    /**
+     * 사용자 코퍼스(vector_store)가 바뀌었을 때 호출한다. 세대가 바뀌어 이전 항목은 이미 조회되지 않으므로
+     * 이 인스턴스의 의미 계층 버킷만 비워 메모리를 돌려준다. // 정확 일치 항목은 TTL/크기 제한으로 밀려난다
+     */
+    public void invalidateUser(String loginId) {
+        if (!enabled || loginId == null || loginId.isBlank()) {
+            return;
+        }
+        semanticBuckets.invalidate(loginId);
+    }
+
+    private RagCorpusVersionDto currentGeneration(String loginId) {
+        return documentRepository.findCorpusVersion(loginId);
+    }
+
+    private boolean semanticEnabled() {
+        return semanticMaxDistance > 0;
+    }
+
+    private float[] embedQuestion(String question) {
+        try {
+            return embeddingModel.embed(question);
+        } catch (Exception e) {
+            // 임베딩 실패는 캐시 미스로 취급하고 본 요청 흐름은 그대로 진행한다.
+            log.debug("답변 캐시 질문 임베딩 실패", e);
+            return null;
+        }
+    }
+
+    private void recordEviction(RemovalCause cause, int count) {
+        if (cause == RemovalCause.REPLACED || count <= 0) {
+            return;
+        }
+        meterRegistry.counter(METRIC_PREFIX + ".evictions", "cause", cause.name().toLowerCase(Locale.ROOT))
+            .increment(count);
+    }
+
+    /**
+     * 공백/대소문자/끝 문장부호 차이를 없앤 캐시 키용 질문 문자열.
+     */
+    static String normalizeQuestion(String question) {
+        if (question == null) {
+            return "";
+        }
+        return question.replaceAll("\\s+", " ")
+            .strip()
+            .toLowerCase(Locale.ROOT)
+            .replaceAll("[\\s?？!！.。]+$", "");
+    }
+
+    /**
+     * 두 벡터의 코사인 거리(1 - 코사인 유사도). 길이가 다르거나 영벡터면 최대 거리로 본다.
+     */
+    static double cosineDistance(float[] a, float[] b) {
+        if (a.length != b.length) {
+            return 2.0;
+        }
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += (double) a[i] * b[i];
+            normA += (double) a[i] * a[i];
+            normB += (double) b[i] * b[i];
+        }
+        if (normA == 0 || normB == 0) {
+            return 2.0;
+        }
+        return 1.0 - dot / (Math.sqrt(normA) * Math.sqrt(normB));
+    }
+
+    /**
+     * 캐시 조회 결과. hit 이 null 이면 미스이며, 같은 객체를 store 에 넘겨 임베딩 재계산 없이 저장한다.
+     */
+    public record Lookup(
+        String loginId,
+        String normalizedQuestion,
+        RagCorpusVersionDto generation,
+        float[] embedding,
+        CachedAnswer hit) {}
+
+    /**
+     * 캐시된 답변. generationTime 은 원본 답변 생성에 걸린 시간(적중 시 절약된 지연 시간 지표로 사용).
+     */
+    public record CachedAnswer(String answer, List<ChatSourceDto> sources, Duration generationTime) {}
+
+    private record ExactKey(String loginId, String normalizedQuestion, RagCorpusVersionDto generation) {}
+
+    private record SemanticEntry(RagCorpusVersionDto generation, float[] embedding, CachedAnswer answer, Instant createdAt) {}
+
+    /**
+     * 사용자별 의미 계층 항목. 항목 수가 작아(최대 100) 선형 탐색으로 최근접 질문을 찾는다.
+     */
+    private static final class SemanticBucket {
+
+        private final Deque<SemanticEntry> entries = new ArrayDeque<>();
+
+        synchronized int add(SemanticEntry entry) {
+            entries.addFirst(entry);
+            int dropped = 0;
+            while (entries.size() > SEMANTIC_ENTRIES_PER_USER) {
+                entries.removeLast();
+                dropped++;
+            }
+            return dropped;
+        }
+
+        synchronized CachedAnswer findNearest(
+            float[] embedding,
+            RagCorpusVersionDto generation,
+            double maxDistance,
+            Instant notBefore) {
+            CachedAnswer best = null;
+            double bestDistance = maxDistance;
+            for (SemanticEntry entry : entries) {
+                if (!entry.generation().equals(generation) || entry.createdAt().isBefore(notBefore)) {
+                    continue;
+                }
+                double distance = cosineDistance(embedding, entry.embedding());
+                if (distance <= bestDistance) {
+                    bestDistance = distance;
+                    best = entry.answer();
+                }
+            }
+            return best;
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
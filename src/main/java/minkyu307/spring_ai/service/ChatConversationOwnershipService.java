@@ -0,0 +1,72 @@
+package minkyu307.spring_ai.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.UUID;
+import minkyu307.spring_ai.repository.ChatConversationJdbcRepository;
+import minkyu307.spring_ai.repository.ChatConversationJdbcRepository.ConversationClaim;
+import org.springframework.stereotype.Service;
+
+/**
+ * 채팅 요청의 대화 소유권 확인/생성 서비스.
+ * conversationId → 소유자 login_id 를 메모리에 캐시해 "기존 대화, 같은 소유자" 요청은 DB 왕복 없이 통과시키고,
+ * 캐시 미스는 INSERT ... ON CONFLICT 단일 쿼리로 생성과 소유자 확인을 함께 처리한다.
+ */
+@Service
+public class ChatConversationOwnershipService {
+
+    private static final int MAX_CACHED_CONVERSATIONS = 10_000;
+    // 관리자 사용자 삭제(FK CASCADE)처럼 이 서비스를 거치지 않는 삭제가 캐시에 남는 시간을 제한한다.
+    private static final Duration OWNER_CACHE_TTL = Duration.ofMinutes(10);
+
+    private final ChatConversationJdbcRepository chatConversationJdbcRepository;
+    private final Cache<String, String> ownerByConversationId = Caffeine.newBuilder()
+        .maximumSize(MAX_CACHED_CONVERSATIONS)
+        .expireAfterWrite(OWNER_CACHE_TTL)
+        .build();
+
+    public ChatConversationOwnershipService(ChatConversationJdbcRepository chatConversationJdbcRepository) {
+        this.chatConversationJdbcRepository = chatConversationJdbcRepository;
+    }
+
+    /**
+     * 요청한 대화를 현재 사용자 기준으로 확정한다. 없으면 placeholderTitle 로 생성하고,
+     * 다른 사용자 소유이면 새 UUID 대화로 대체한다.
+     */
+    public ResolvedConversation resolve(String conversationId, String loginId, String placeholderTitle) {
+        String cachedOwner = ownerByConversationId.getIfPresent(conversationId);
+        if (loginId.equals(cachedOwner)) {
+            return new ResolvedConversation(conversationId, false);
+        }
+
+        if (cachedOwner == null) {
+            ConversationClaim claim = chatConversationJdbcRepository.claimConversation(
+                conversationId, loginId, placeholderTitle);
+            if (claim != null) {
+                ownerByConversationId.put(conversationId, claim.ownerLoginId());
+                if (loginId.equals(claim.ownerLoginId())) {
+                    return new ResolvedConversation(conversationId, claim.created());
+                }
+            }
+        }
+
+        // 이미 존재하는 대화가 다른 사용자 소유이면 새 대화로 대체한다.
+        String replacementId = UUID.randomUUID().toString();
+        chatConversationJdbcRepository.claimConversation(replacementId, loginId, placeholderTitle);
+        ownerByConversationId.put(replacementId, loginId);
+        return new ResolvedConversation(replacementId, true);
+    }
+
+    /**
+     * 삭제된 대화의 소유권 캐시를 제거한다.
+     */
+    public void evict(String conversationId) {
+        ownerByConversationId.invalidate(conversationId);
+    }
+
+    /**
+     * 소유권 확인이 끝난 대화 ID와 이번 요청에서 새로 생성되었는지 여부.
+     */
+    public record ResolvedConversation(String conversationId, boolean isNew) {}
+}
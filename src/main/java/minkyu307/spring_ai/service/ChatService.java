@@ -1,57 +1,93 @@
 package minkyu307.spring_ai.service;
 
+import lombok.extern.slf4j.Slf4j;
 import minkyu307.spring_ai.dto.ChatHistoryDetailDto;
 import minkyu307.spring_ai.dto.ChatHistoryDto;
 import minkyu307.spring_ai.dto.ChatMessageDto;
 import minkyu307.spring_ai.dto.ChatSourceDto;
-import minkyu307.spring_ai.entity.ChatAnswerSource;
+import minkyu307.spring_ai.dto.ChatTitleDto;
 import minkyu307.spring_ai.entity.ChatConversation;
+import minkyu307.spring_ai.repository.ChatAnswerSourceJdbcRepository;
 import minkyu307.spring_ai.repository.ChatAnswerSourceRepository;
+import minkyu307.spring_ai.repository.ChatConversationJdbcRepository;
+import minkyu307.spring_ai.repository.ChatConversationJdbcRepository.HistoryCursor;
 import minkyu307.spring_ai.repository.ChatConversationRepository;
 import minkyu307.spring_ai.repository.ChatMemoryJdbcQueryRepository;
 import minkyu307.spring_ai.security.SecurityUtils;
+import minkyu307.spring_ai.service.ChatConversationOwnershipService.ResolvedConversation;
 import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
 import org.springframework.ai.chat.client.advisor.vectorstore.QuestionAnswerAdvisor;
-import org.springframework.ai.chat.memory.ChatMemory;
-import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 /**
- * Google Gemini AI와 상호작용하는 채팅 서비스 Spring AI 공식 ChatMemory API 사용
- * chat_conversation 으로 사용자별 대화 스코프 및 접근 제어.
+ * Google Gemini AI와 상호작용하는 채팅 서비스. 대화 메시지는 spring_ai_chat_memory 에 턴 단위로 추가만 하고,
+ * 최근 메시지 창을 프롬프트 맥락으로 넘긴다. chat_conversation 으로 사용자별 대화 스코프 및 접근 제어.
  */
+@Slf4j
 @Service
 public class ChatService {
 
-    private static final String DEFAULT_CONVERSATION_TITLE = "새 대화";
-    private static final int TITLE_SUMMARY_MAX_CHARS = 30;
-    private static final int TITLE_SUMMARY_INPUT_MAX_CHARS = 1200;
+    private static final String DEFAULT_CONVERSATION_TITLE = ChatTitleService.DEFAULT_CONVERSATION_TITLE;
+    // 클라이언트가 보내는 기본 대화 id // Spring AI ChatMemory.DEFAULT_CONVERSATION_ID 와 같은 값
+    private static final String DEFAULT_CONVERSATION_ID = "default";
+    private static final long TITLE_AWAIT_TIMEOUT_SECONDS = 10;
+    private static final int HISTORY_PAGE_MAX_LIMIT = 100;
+    private static final int HISTORY_MESSAGES_MAX_LIMIT = 500;
+    // 프롬프트에 넣는 최근 메시지 수 // 기존 MessageWindowChatMemory(maxMessages=20)와 동일
+    private static final int PROMPT_HISTORY_MESSAGES = 20;
 
     private final ChatClient chatClient;
-    private final ChatClient titleChatClient;
+    private final ChatTitleService chatTitleService;
+    private final ChatConversationOwnershipService chatConversationOwnershipService;
     private final ChatMemoryJdbcQueryRepository chatMemoryJdbcQueryRepository;
     private final ChatConversationRepository chatConversationRepository;
+    private final ChatConversationJdbcRepository chatConversationJdbcRepository;
     private final ChatAnswerSourceRepository chatAnswerSourceRepository;
+    private final ChatAnswerSourceJdbcRepository chatAnswerSourceJdbcRepository;
+    private final ChatAnswerCache chatAnswerCache;
+    private final Map<String, CompletableFuture<String>> pendingTitles = new ConcurrentHashMap<>();
 
     public ChatService(
-        ChatClient.Builder chatClientBuilder, ChatModel chatModel, ChatMemory chatMemory,
+        ChatClient.Builder chatClientBuilder,
         VectorStore vectorStore,
+        ChatTitleService chatTitleService,
+        ChatConversationOwnershipService chatConversationOwnershipService,
         ChatMemoryJdbcQueryRepository chatMemoryJdbcQueryRepository,
         ChatConversationRepository chatConversationRepository,
-        ChatAnswerSourceRepository chatAnswerSourceRepository) {
+        ChatConversationJdbcRepository chatConversationJdbcRepository,
+        ChatAnswerSourceRepository chatAnswerSourceRepository,
+        ChatAnswerSourceJdbcRepository chatAnswerSourceJdbcRepository,
+        ChatAnswerCache chatAnswerCache) {
         QuestionAnswerAdvisor qaAdvisor = QuestionAnswerAdvisor.builder(vectorStore)
             .searchRequest(SearchRequest.builder()
                 .topK(5)
@@ -59,58 +95,254 @@ public class ChatService {
                 .build())
             .build();
 
-        // 제목 생성은 대화 메모리와 완전히 분리해 conversation_id=default 저장을 방지한다.
-        this.titleChatClient = ChatClient.builder(chatModel).build();
         this.chatClient = chatClientBuilder
-            .defaultAdvisors(
-                MessageChatMemoryAdvisor.builder(chatMemory).build(),
-                qaAdvisor)
+            .defaultAdvisors(qaAdvisor)
             .build();
 
+        this.chatTitleService = chatTitleService;
+        this.chatConversationOwnershipService = chatConversationOwnershipService;
         this.chatMemoryJdbcQueryRepository = chatMemoryJdbcQueryRepository;
         this.chatConversationRepository = chatConversationRepository;
+        this.chatConversationJdbcRepository = chatConversationJdbcRepository;
         this.chatAnswerSourceRepository = chatAnswerSourceRepository;
+        this.chatAnswerSourceJdbcRepository = chatAnswerSourceJdbcRepository;
+        this.chatAnswerCache = chatAnswerCache;
     }
 
     /**
      * 대화 ID를 포함한 메시지를 AI에게 전달하고 응답을 받음. 현재 로그인 사용자(loginId) 기준으로 chat_conversation
-     * 검증/생성 후 MessageChatMemoryAdvisor 가 기록 관리.
+     * 검증/생성 후 최근 메시지를 맥락으로 넘기고, 응답 후 턴을 기록한다. 답변 캐시 적중 시 모델 호출 없이 캐시된 답변을 기록한다.
      */
     public ChatResult chat(String conversationId, String userMessage) {
         String loginId = SecurityUtils.getCurrentLoginId();
-        String normalizedConversationId = normalizeConversationId(conversationId);
+        ResolvedConversation target = resolveConversation(conversationId, loginId, userMessage);
 
-        // 이미 존재하는 대화가 다른 사용자 소유이면 새 대화로 대체한다.
-        boolean isOtherOwner = chatConversationRepository.findById(normalizedConversationId)
-            .map(conv -> !conv.getLoginId().equals(loginId))
-            .orElse(false);
-
-        final String resolvedId = isOtherOwner ? java.util.UUID.randomUUID().toString() : normalizedConversationId;
-
-        boolean isNewConversation = chatConversationRepository.findById(resolvedId).isEmpty();
-        if (isNewConversation) {
-            chatConversationRepository.save(new ChatConversation(resolvedId, loginId, DEFAULT_CONVERSATION_TITLE));
+        ChatAnswerCache.Lookup cacheLookup = lookupAnswerCache(target, loginId, userMessage);
+        if (cacheLookup != null && cacheLookup.hit() != null) {
+            ChatAnswerCache.CachedAnswer cached = cacheLookup.hit();
+            boolean titlePending = replayCachedAnswer(target, loginId, userMessage, cached);
+            return new ChatResult(target.conversationId(), cached.answer(), cached.sources(), titlePending);
         }
 
+        long startedAt = System.nanoTime();
         ChatResponse chatResponse = chatClient.prompt()
+            .messages(loadPromptHistory(target))
             .user(userMessage)
             .advisors(a -> a
-                .param(ChatMemory.CONVERSATION_ID, resolvedId)
                 .param(QuestionAnswerAdvisor.FILTER_EXPRESSION, "loginId == '" + loginId + "'"))
             .call()
             .chatResponse();
         String response = extractResponseText(chatResponse);
         List<ChatSourceDto> sources = extractSourcesFromResponse(chatResponse);
-        persistAssistantSources(resolvedId, response, sources);
+        chatAnswerCache.store(cacheLookup, response, sources, Duration.ofNanos(System.nanoTime() - startedAt));
+        boolean titlePending = completeTurn(target, loginId, userMessage, response, sources);
+
+        return new ChatResult(target.conversationId(), response, List.copyOf(sources), titlePending);
+    }
+
+    /**
+     * chat 과 동일한 흐름을 ChatClient.stream() 으로 수행해 토큰이 도착하는 즉시 이벤트로 내보낸다.
+     * 대화 소유권 검증은 호출 스레드(요청 스레드)에서 끝내고, 스트림 완료 시 출처 저장/제목 갱신 후 출처 이벤트를 마지막에 보낸다.
+     */
+    public Flux<ChatStreamEvent> chatStream(String conversationId, String userMessage) {
+        String loginId = SecurityUtils.getCurrentLoginId();
+        ResolvedConversation target = resolveConversation(conversationId, loginId, userMessage);
+        AtomicBoolean titlePending = new AtomicBoolean(false);
+
+        ChatAnswerCache.Lookup cacheLookup = lookupAnswerCache(target, loginId, userMessage);
+        if (cacheLookup != null && cacheLookup.hit() != null) {
+            ChatAnswerCache.CachedAnswer cached = cacheLookup.hit();
+            Mono<ChatStreamEvent> replay = Mono.fromCallable(() -> {
+                    titlePending.set(replayCachedAnswer(target, loginId, userMessage, cached));
+                    return ChatStreamEvent.sources(cached.sources());
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+            return Flux.concat(
+                Mono.just(ChatStreamEvent.conversation(target.conversationId())),
+                Mono.just(ChatStreamEvent.token(cached.answer())),
+                replay,
+                Mono.fromSupplier(() -> ChatStreamEvent.done(titlePending.get())));
+        }
+
+        long startedAt = System.nanoTime();
+        StringBuilder answer = new StringBuilder();
+        AtomicReference<List<ChatSourceDto>> retrievedSources = new AtomicReference<>(List.of());
+
+        List<Message> history = loadPromptHistory(target);
+        Flux<ChatStreamEvent> tokens = chatClient.prompt()
+            .messages(history)
+            .user(userMessage)
+            .advisors(a -> a
+                .param(QuestionAnswerAdvisor.FILTER_EXPRESSION, "loginId == '" + loginId + "'"))
+            .stream()
+            .chatResponse()
+            .doOnNext(chunk -> {
+                // QuestionAnswerAdvisor 는 finishReason 이 있는 마지막 청크에만 검색 문서를 싣는다.
+                List<ChatSourceDto> sources = extractSourcesFromResponse(chunk);
+                if (!sources.isEmpty()) {
+                    retrievedSources.set(sources);
+                }
+            })
+            .map(ChatService::extractResponseText)
+            .filter(text -> !text.isEmpty())
+            .doOnNext(answer::append)
+            .map(ChatStreamEvent::token);
+
+        // 스트림이 끝난 뒤 턴(user + assistant)을 기록하고 저장된 assistant timestamp 로 출처를 연결한다.
+        Mono<ChatStreamEvent> completion = Mono.fromCallable(() -> {
+                List<ChatSourceDto> sources = List.copyOf(retrievedSources.get());
+                chatAnswerCache.store(cacheLookup, answer.toString(), sources,
+                    Duration.ofNanos(System.nanoTime() - startedAt));
+                titlePending.set(completeTurn(target, loginId, userMessage, answer.toString(), sources));
+                return ChatStreamEvent.sources(sources);
+            })
+            .subscribeOn(Schedulers.boundedElastic());
 
-        if (isNewConversation) {
-            updateConversationTitle(resolvedId, loginId, response);
+        return Flux.concat(
+            Mono.just(ChatStreamEvent.conversation(target.conversationId())),
+            tokens,
+            completion,
+            Mono.fromSupplier(() -> ChatStreamEvent.done(titlePending.get())));
+    }
+
+    /**
+     * 이미 존재하는 대화가 다른 사용자 소유이면 새 대화로 대체하고, 없으면 chat_conversation 을 생성한다.
+     * 새 대화의 제목은 요약이 끝날 때까지 사용자 첫 질문으로 채워 둔다.
+     */
+    private ResolvedConversation resolveConversation(String conversationId, String loginId, String userMessage) {
+        return chatConversationOwnershipService.resolve(
+            normalizeConversationId(conversationId),
+            loginId,
+            chatTitleService.buildPlaceholderTitle(userMessage));
+    }
+
+    /**
+     * 답변 캐시 대상 턴이면 캐시를 조회한다. 대상이 아니면 null.
+     */
+    private ChatAnswerCache.Lookup lookupAnswerCache(ResolvedConversation target, String loginId, String userMessage) {
+        if (!chatAnswerCache.appliesTo(target.isNew())) {
+            return null;
+        }
+        return chatAnswerCache.lookup(loginId, userMessage);
+    }
+
+    /**
+     * 프롬프트 맥락용 최근 메시지를 불러온다. 새 대화는 기록이 없으므로 조회하지 않는다.
+     */
+    private List<Message> loadPromptHistory(ResolvedConversation target) {
+        if (target.isNew()) {
+            return List.of();
         }
+        return chatMemoryJdbcQueryRepository.findRecentMessages(target.conversationId(), PROMPT_HISTORY_MESSAGES).stream()
+            .<Message>map(row -> switch (row.type()) {
+                case "USER" -> new UserMessage(row.content());
+                case "ASSISTANT" -> new AssistantMessage(row.content());
+                default -> new SystemMessage(row.content());
+            })
+            .toList();
+    }
 
-        return new ChatResult(resolvedId, response, List.copyOf(sources));
+    /**
+     * 캐시 적중 답변을 모델 호출 없이 대화 메모리에 기록하고 일반 턴과 같은 후처리(출처/제목)를 수행한다.
+     */
+    private boolean replayCachedAnswer(
+        ResolvedConversation target, String loginId, String userMessage, ChatAnswerCache.CachedAnswer cached) {
+        return completeTurn(target, loginId, userMessage, cached.answer(), cached.sources());
     }
 
-    public record ChatResult(String conversationId, String response, List<ChatSourceDto> sources) {}
+    /**
+     * 응답 생성이 끝난 턴의 후처리. 턴 메시지와 assistant 출처, 목록 요약 컬럼을 저장하고 새 대화면 제목 생성을 백그라운드로 넘긴다.
+     * 제목 생성이 아직 진행 중이면 true 를 반환한다.
+     */
+    private boolean completeTurn(
+        ResolvedConversation target, String loginId, String userMessage, String response, List<ChatSourceDto> sources) {
+        Instant assistantTimestamp = chatMemoryJdbcQueryRepository.appendTurn(target.conversationId(), userMessage, response);
+        persistAssistantSources(target.conversationId(), assistantTimestamp, sources);
+        // 한 턴은 user + assistant 메시지 2건이다.
+        chatConversationJdbcRepository.recordTurn(target.conversationId(), userMessage, 2, Instant.now());
+
+        if (!target.isNew()) {
+            return false;
+        }
+        return scheduleTitleGeneration(target.conversationId(), loginId, response);
+    }
+
+    /**
+     * 제목 요약을 chatTitleTaskExecutor 에 제출하고 완료 전까지 pendingTitles 에 보관한다.
+     * 실행기가 포화되어 거절되면 요약 없이 폴백 제목을 즉시 저장한다.
+     */
+    private boolean scheduleTitleGeneration(String conversationId, String loginId, String response) {
+        CompletableFuture<String> future;
+        try {
+            future = chatTitleService.generateTitleAsync(conversationId, loginId, response);
+        } catch (TaskRejectedException e) {
+            log.warn("제목 생성 실행기 포화 - 폴백 제목 사용: conversationId={}", conversationId);
+            chatTitleService.applyFallbackTitle(conversationId, loginId, response);
+            return false;
+        }
+        if (future.isDone()) {
+            return false;
+        }
+        pendingTitles.put(conversationId, future);
+        future.whenComplete((title, error) -> {
+            pendingTitles.remove(conversationId, future);
+            if (error != null) {
+                log.warn("대화 제목 생성 실패: conversationId={}", conversationId, error);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * 현재 사용자 소유 대화의 제목을 조회한다. 제목 생성이 진행 중이면 완료(또는 대기 시간 초과)까지 기다린 뒤 응답한다.
+     * 소유하지 않은 대화는 빈 Optional 을 반환한다.
+     */
+    public Optional<CompletableFuture<ChatTitleDto>> awaitConversationTitle(String conversationId) {
+        String loginId = SecurityUtils.getCurrentLoginId();
+        if (chatConversationRepository.findByIdAndLoginId(conversationId, loginId).isEmpty()) {
+            return Optional.empty();
+        }
+
+        CompletableFuture<String> pending = pendingTitles.get(conversationId);
+        if (pending == null) {
+            return Optional.of(CompletableFuture.completedFuture(loadTitle(conversationId, loginId, false)));
+        }
+        return Optional.of(pending
+            .handle((title, error) -> false)
+            .completeOnTimeout(true, TITLE_AWAIT_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+            .thenApply(stillPending -> loadTitle(conversationId, loginId, stillPending)));
+    }
+
+    private ChatTitleDto loadTitle(String conversationId, String loginId, boolean pending) {
+        String title = chatConversationRepository.findByIdAndLoginId(conversationId, loginId)
+            .map(ChatConversation::getTitle)
+            .orElse(DEFAULT_CONVERSATION_TITLE);
+        return new ChatTitleDto(conversationId, title, pending);
+    }
+
+    public record ChatResult(String conversationId, String response, List<ChatSourceDto> sources, boolean titlePending) {}
+
+    /**
+     * 스트리밍 응답 이벤트. event 는 SSE event 이름, data 는 JSON 직렬화 대상.
+     */
+    public record ChatStreamEvent(String event, Object data) {
+
+        public static ChatStreamEvent conversation(String conversationId) {
+            return new ChatStreamEvent("conversation", Map.of("conversationId", conversationId));
+        }
+
+        public static ChatStreamEvent token(String text) {
+            return new ChatStreamEvent("token", Map.of("text", text));
+        }
+
+        public static ChatStreamEvent sources(List<ChatSourceDto> sources) {
+            return new ChatStreamEvent("sources", Map.of("sources", sources));
+        }
+
+        public static ChatStreamEvent done(boolean titlePending) {
+            return new ChatStreamEvent("done", Map.of("titlePending", titlePending));
+        }
+    }
 
     /**
      * 현재 로그인 사용자 소유의 대화를 삭제한다. chat_conversation 및 spring_ai_chat_memory 메시지를 함께 제거.
@@ -123,16 +355,29 @@ public class ChatService {
                 chatMemoryJdbcQueryRepository.deleteByConversationId(conversationId);
                 chatAnswerSourceRepository.deleteByConversationId(conversationId);
                 chatConversationRepository.delete(conv);
+                chatConversationOwnershipService.evict(conversationId);
             });
     }
 
     /**
-     * 현재 로그인 사용자의 채팅 히스토리 목록만 조회 (chat_conversation + spring_ai_chat_memory).
+     * 현재 로그인 사용자의 채팅 히스토리 목록을 최근 갱신순으로 조회한다. chat_conversation 요약 컬럼만 읽는다.
+     * limit 이 없으면 전체를, 있으면 cursor 다음부터 limit 개를 반환하고 남은 항목이 있으면 nextCursor 를 채운다.
      */
-    public List<ChatHistoryDto> findAllHistories() {
+    public ChatHistoryPage findHistories(String cursor, Integer limit) {
+        if (limit != null && (limit < 1 || limit > HISTORY_PAGE_MAX_LIMIT)) {
+            throw new IllegalArgumentException("limit은 1 이상 " + HISTORY_PAGE_MAX_LIMIT + " 이하여야 합니다.");
+        }
         String loginId = SecurityUtils.getCurrentLoginId();
 
-        return chatMemoryJdbcQueryRepository.findHistorySummariesByLoginId(loginId).stream()
+        // 다음 페이지 존재 여부를 알기 위해 1건 더 읽는다.
+        List<ChatMemoryJdbcQueryRepository.ChatHistorySummary> rows = chatConversationJdbcRepository.findHistoryPage(
+            loginId, decodeHistoryCursor(cursor), limit == null ? null : limit + 1);
+        boolean hasMore = limit != null && rows.size() > limit;
+        if (hasMore) {
+            rows = rows.subList(0, limit);
+        }
+
+        List<ChatHistoryDto> items = rows.stream()
             .map(summary -> {
                 String conversationId = summary.conversationId();
                 String conversationTitle = summary.conversationTitle();
@@ -145,61 +390,47 @@ public class ChatService {
                         ? firstMessage.substring(0, 50) + "..."
                         : (firstMessage != null ? firstMessage : DEFAULT_CONVERSATION_TITLE);
                 }
-                Instant lastUpdated = summary.lastUpdated() != null
-                    ? summary.lastUpdated()
-                    : Instant.now();
                 int messageCount = Math.toIntExact(summary.messageCount());
 
-                return new ChatHistoryDto(conversationId, title, lastUpdated, messageCount);
+                return new ChatHistoryDto(conversationId, title, summary.lastUpdated(), messageCount);
             })
             .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (hasMore) {
+            ChatHistoryDto last = items.get(items.size() - 1);
+            nextCursor = encodeHistoryCursor(new HistoryCursor(last.lastUpdated(), last.conversationId()));
+        }
+        return new ChatHistoryPage(items, nextCursor);
     }
 
     /**
-     * 첫 AI 답변을 기반으로 30자 이내 제목을 생성해 대화 메타 정보에 저장한다.
+     * 히스토리 목록 페이지. nextCursor 가 null 이면 마지막 페이지다.
      */
-    private void updateConversationTitle(String conversationId, String loginId, String assistantResponse) {
-        String title = summarizeConversationTitle(assistantResponse);
-        chatConversationRepository.findByIdAndLoginId(conversationId, loginId)
-            .ifPresent(conversation -> {
-                conversation.setTitle(title);
-                chatConversationRepository.save(conversation);
-            });
+    public record ChatHistoryPage(List<ChatHistoryDto> items, String nextCursor) {}
+
+    private static String encodeHistoryCursor(HistoryCursor cursor) {
+        String raw = cursor.lastUpdated() + "|" + cursor.conversationId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
     }
 
     /**
-     * 첫 AI 답변 텍스트를 요약 모델로 압축하고, 실패 시 응답 원문을 30자로 절단해 폴백한다.
+     * 클라이언트가 돌려준 cursor 를 해석한다. 형식이 틀리면 400(IllegalArgumentException).
      */
-    private String summarizeConversationTitle(String assistantResponse) {
-        String normalizedResponse = normalizeSingleLine(assistantResponse);
-        if (normalizedResponse.isBlank()) {
-            return DEFAULT_CONVERSATION_TITLE;
+    private static HistoryCursor decodeHistoryCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
         }
-
         try {
-            String summary = titleChatClient.prompt()
-                .system("""
-                    너는 채팅 제목 생성기다.
-                    항상 한국어 제목 한 줄만 출력한다.
-                    제목은 30자 이내로 작성하고 따옴표/마침표/줄바꿈은 넣지 않는다.
-                    """)
-                .user("""
-                    다음 AI 답변의 핵심을 30자 이내 제목으로 요약해줘.
-                    답변:
-                    %s
-                    """.formatted(limitCodePoints(normalizedResponse, TITLE_SUMMARY_INPUT_MAX_CHARS)))
-                .call()
-                .content();
-
-            String normalizedSummary = normalizeTitle(summary);
-            if (!normalizedSummary.isBlank()) {
-                return limitCodePoints(normalizedSummary, TITLE_SUMMARY_MAX_CHARS);
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.strip()), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new IllegalArgumentException("cursor 형식이 올바르지 않습니다.");
             }
-        } catch (Exception ignored) {
-            // 제목 요약 실패 시 아래 폴백 제목을 사용한다.
+            return new HistoryCursor(Instant.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("cursor 형식이 올바르지 않습니다.", e);
         }
-
-        return limitCodePoints(normalizedResponse, TITLE_SUMMARY_MAX_CHARS);
     }
 
     /**
@@ -210,91 +441,43 @@ public class ChatService {
             return java.util.UUID.randomUUID().toString();
         }
         String normalized = conversationId.strip();
-        if (ChatMemory.DEFAULT_CONVERSATION_ID.equals(normalized)) {
+        if (DEFAULT_CONVERSATION_ID.equals(normalized)) {
             return java.util.UUID.randomUUID().toString();
         }
         return normalized;
     }
 
     /**
-     * 줄바꿈/탭을 포함한 공백을 단일 공백으로 정규화하고 앞뒤 공백을 제거한다.
+     * 특정 대화의 메시지 목록 조회. 소유자 검증, 메시지, 출처를 한 번의 쿼리로 읽는다.
+     * limit 이 있으면 before(ISO-8601) 이전의 최근 limit 개만 반환하고, 그 이전 메시지가 남아 있으면 hasMore 를 true 로 둔다.
+     * 소유하지 않았거나 아직 메시지가 없는 대화는 빈 목록을 반환한다.
      */
-    private static String normalizeSingleLine(String text) {
-        if (text == null || text.isBlank()) {
-            return "";
+    public ChatHistoryDetailDto findHistoryMessages(String conversationId, String before, Integer limit) {
+        if (limit != null && (limit < 1 || limit > HISTORY_MESSAGES_MAX_LIMIT)) {
+            throw new IllegalArgumentException("limit은 1 이상 " + HISTORY_MESSAGES_MAX_LIMIT + " 이하여야 합니다.");
         }
-        return text.replaceAll("\\s+", " ").strip();
-    }
+        Instant beforeTimestamp = parseBefore(before);
+        String loginId = SecurityUtils.getCurrentLoginId();
 
-    /**
-     * 제목에 포함될 수 있는 감싸는 따옴표를 제거하고 공백을 정리한다.
-     */
-    private static String normalizeTitle(String text) {
-        String normalized = normalizeSingleLine(text);
-        if (normalized.isBlank()) {
-            return "";
+        // 이전 메시지 존재 여부를 알기 위해 1건 더 읽고, 가장 오래된 1건을 버린다.
+        List<ChatMessageDto> messages = chatMemoryJdbcQueryRepository.findConversationMessages(
+            conversationId, loginId, beforeTimestamp, limit == null ? null : limit + 1);
+        boolean hasMore = limit != null && messages.size() > limit;
+        if (hasMore) {
+            messages = messages.subList(1, messages.size());
         }
-        return normalized.replaceAll("^[\"'`“”‘’]+|[\"'`“”‘’]+$", "").strip();
+        return new ChatHistoryDetailDto(conversationId, messages, hasMore);
     }
 
-    /**
-     * 문자열을 코드포인트 기준으로 안전하게 절단한다.
-     */
-    private static String limitCodePoints(String text, int maxCodePoints) {
-        if (text == null || text.isBlank()) {
-            return DEFAULT_CONVERSATION_TITLE;
+    private static Instant parseBefore(String before) {
+        if (before == null || before.isBlank()) {
+            return null;
         }
-        int length = text.codePointCount(0, text.length());
-        if (length <= maxCodePoints) {
-            return text;
+        try {
+            return Instant.parse(before.strip());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("before는 ISO-8601 시각이어야 합니다.", e);
         }
-        int end = text.offsetByCodePoints(0, maxCodePoints);
-        return text.substring(0, end);
-    }
-
-    /**
-     * 특정 대화의 메시지 목록 조회. 해당 대화가 현재 로그인 사용자 소유인지 검증 후 반환.
-     * chat_conversation 에 행이 없으면(아직 메시지를 보내지 않은 새 대화) 빈 목록을 반환한다.
-     */
-    public ChatHistoryDetailDto findHistoryMessages(String conversationId) {
-        String loginId = SecurityUtils.getCurrentLoginId();
-
-        boolean isOwnConversation = chatConversationRepository.findByIdAndLoginId(conversationId, loginId).isPresent();
-        if (!isOwnConversation) {
-            return new ChatHistoryDetailDto(conversationId, List.of());
-        }
-
-        List<ChatMemoryJdbcQueryRepository.ChatMemoryMessage> rows = chatMemoryJdbcQueryRepository
-            .findMessagesByConversationIdOrderByTimestampAsc(conversationId);
-        Map<Instant, List<ChatSourceDto>> sourcesByTimestamp = chatAnswerSourceRepository
-            .findByConversationIdOrderByMessageTimestampAscIdAsc(conversationId).stream()
-            .collect(Collectors.groupingBy(
-                ChatAnswerSource::getMessageTimestamp,
-                LinkedHashMap::new,
-                Collectors.mapping(
-                    row -> new ChatSourceDto(row.getSourceType(), row.getLabel(), row.getHref()),
-                    Collectors.toList()
-                )));
-
-        List<ChatMessageDto> messages = rows.stream()
-            .map(row -> {
-                String type = row.type();
-                String role = "USER".equals(type) ? "user"
-                    : "ASSISTANT".equals(type) ? "assistant"
-                        : "system";
-                String content = row.content();
-                Instant timestamp = row.timestamp() != null
-                    ? row.timestamp()
-                    : Instant.now();
-                List<ChatSourceDto> sources = "assistant".equals(role)
-                    ? sourcesByTimestamp.getOrDefault(timestamp, List.of())
-                    : List.of();
-
-                return new ChatMessageDto(role, content, timestamp, sources);
-            })
-            .collect(Collectors.toList());
-
-        return new ChatHistoryDetailDto(conversationId, messages);
     }
 
     /**
@@ -338,34 +521,20 @@ public class ChatService {
     }
 
     /**
-     * assistant 최신 메시지 timestamp를 찾아 출처를 별도 테이블에 저장한다.
+     * 저장 시점에 받은 assistant 메시지 timestamp 로 출처를 별도 테이블에 배치 저장한다.
      */
-    private void persistAssistantSources(String conversationId, String assistantResponse, List<ChatSourceDto> sources) {
+    private void persistAssistantSources(String conversationId, Instant messageTimestamp, List<ChatSourceDto> sources) {
         if (sources == null || sources.isEmpty()) {
             return;
         }
-        Instant resolvedTimestamp = chatMemoryJdbcQueryRepository
-            .findLatestAssistantMessageTimestampByConversationIdAndContent(conversationId, assistantResponse);
-        if (resolvedTimestamp == null) {
-            resolvedTimestamp = chatMemoryJdbcQueryRepository
-                .findLatestAssistantMessageTimestampByConversationId(conversationId);
-        }
-        if (resolvedTimestamp == null) {
-            return;
-        }
-        Instant messageTimestamp = resolvedTimestamp;
-
-        chatAnswerSourceRepository.deleteByConversationIdAndMessageTimestamp(conversationId, messageTimestamp);
-        List<ChatAnswerSource> entities = sources.stream()
-            .map(source -> new ChatAnswerSource(
-                conversationId,
-                messageTimestamp,
+        List<ChatAnswerSourceJdbcRepository.AnswerSourceRow> rows = sources.stream()
+            .map(source -> new ChatAnswerSourceJdbcRepository.AnswerSourceRow(
                 normalizeSourceType(source.sourceType()),
                 source.label(),
                 source.href(),
                 buildStoredSourceKey(source)))
-            .collect(Collectors.toList());
-        chatAnswerSourceRepository.saveAll(entities);
+            .toList();
+        chatAnswerSourceJdbcRepository.insertAll(conversationId, messageTimestamp, rows);
     }
 
     /**
@@ -0,0 +1,133 @@
+package minkyu307.spring_ai.service;
+
+import java.util.concurrent.CompletableFuture;
+import lombok.extern.slf4j.Slf4j;
+import minkyu307.spring_ai.repository.ChatConversationJdbcRepository;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+/**
+ * 대화 제목 생성 서비스. 첫 AI 답변을 요약 모델로 압축해 chat_conversation.title 에 저장한다.
+ * 요약은 별도 LLM 왕복이므로 채팅 응답 경로 밖(chatTitleTaskExecutor)에서 수행한다.
+ */
+@Slf4j
+@Service
+public class ChatTitleService {
+
+    public static final String DEFAULT_CONVERSATION_TITLE = "새 대화";
+    private static final int TITLE_SUMMARY_MAX_CHARS = 30;
+    private static final int TITLE_SUMMARY_INPUT_MAX_CHARS = 1200;
+
+    private final ChatClient titleChatClient;
+    private final ChatConversationJdbcRepository chatConversationJdbcRepository;
+
+    public ChatTitleService(ChatModel chatModel, ChatConversationJdbcRepository chatConversationJdbcRepository) {
+        // 제목 생성은 대화 메모리와 완전히 분리해 conversation_id=default 저장을 방지한다.
+        this.titleChatClient = ChatClient.builder(chatModel).build();
+        this.chatConversationJdbcRepository = chatConversationJdbcRepository;
+    }
+
+    /**
+     * 제목 요약이 끝나기 전까지 노출할 임시 제목. 사용자 첫 질문을 30자로 절단해 사용한다.
+     */
+    public String buildPlaceholderTitle(String userMessage) {
+        return limitCodePoints(normalizeSingleLine(userMessage), TITLE_SUMMARY_MAX_CHARS);
+    }
+
+    /**
+     * 첫 AI 답변을 기반으로 30자 이내 제목을 생성해 대화 메타 정보에 저장하고, 저장한 제목을 반환한다.
+     */
+    @Async("chatTitleTaskExecutor")
+    public CompletableFuture<String> generateTitleAsync(String conversationId, String loginId, String assistantResponse) {
+        String title = summarizeConversationTitle(assistantResponse);
+        saveTitle(conversationId, loginId, title);
+        return CompletableFuture.completedFuture(title);
+    }
+
+    /**
+     * 제목 실행기가 포화된 경우 요약 모델 호출 없이 응답 원문을 절단한 제목을 즉시 저장한다.
+     */
+    public String applyFallbackTitle(String conversationId, String loginId, String assistantResponse) {
+        String title = limitCodePoints(normalizeSingleLine(assistantResponse), TITLE_SUMMARY_MAX_CHARS);
+        saveTitle(conversationId, loginId, title);
+        return title;
+    }
+
+    private void saveTitle(String conversationId, String loginId, String title) {
+        chatConversationJdbcRepository.updateTitle(conversationId, loginId, title);
+    }
+
+    /**
+     * 첫 AI 답변 텍스트를 요약 모델로 압축하고, 실패 시 응답 원문을 30자로 절단해 폴백한다.
+     */
+    private String summarizeConversationTitle(String assistantResponse) {
+        String normalizedResponse = normalizeSingleLine(assistantResponse);
+        if (normalizedResponse.isBlank()) {
+            return DEFAULT_CONVERSATION_TITLE;
+        }
+
+        try {
+            String summary = titleChatClient.prompt()
+                .system("""
+                    너는 채팅 제목 생성기다.
+                    항상 한국어 제목 한 줄만 출력한다.
+                    제목은 30자 이내로 작성하고 따옴표/마침표/줄바꿈은 넣지 않는다.
+                    """)
+                .user("""
+                    다음 AI 답변의 핵심을 30자 이내 제목으로 요약해줘.
+                    답변:
+                    %s
+                    """.formatted(limitCodePoints(normalizedResponse, TITLE_SUMMARY_INPUT_MAX_CHARS)))
+                .call()
+                .content();
+
+            String normalizedSummary = normalizeTitle(summary);
+            if (!normalizedSummary.isBlank()) {
+                return limitCodePoints(normalizedSummary, TITLE_SUMMARY_MAX_CHARS);
+            }
+        } catch (Exception e) {
+            // 제목 요약 실패 시 아래 폴백 제목을 사용한다.
+            log.debug("대화 제목 요약 실패 - 폴백 제목 사용", e);
+        }
+
+        return limitCodePoints(normalizedResponse, TITLE_SUMMARY_MAX_CHARS);
+    }
+
+    /**
+     * 줄바꿈/탭을 포함한 공백을 단일 공백으로 정규화하고 앞뒤 공백을 제거한다.
+     */
+    private static String normalizeSingleLine(String text) {
+        if (text == null || text.isBlank()) {
+            return "";
+        }
+        return text.replaceAll("\\s+", " ").strip();
+    }
+
+    /**
+     * 제목에 포함될 수 있는 감싸는 따옴표를 제거하고 공백을 정리한다.
+     */
+    private static String normalizeTitle(String text) {
+        String normalized = normalizeSingleLine(text);
+        if (normalized.isBlank()) {
+            return "";
+        }
+        return normalized.replaceAll("^[\"'`“”‘’]+|[\"'`“”‘’]+$", "").strip();
+    }
+
+    /**
+     * 문자열을 코드포인트 기준으로 안전하게 절단한다.
+     */
+    private static String limitCodePoints(String text, int maxCodePoints) {
+        if (text == null || text.isBlank()) {
+            return DEFAULT_CONVERSATION_TITLE;
+        }
+        int length = text.codePointCount(0, text.length());
+        if (length <= maxCodePoints) {
+            return text;
+        }
+        int end = text.offsetByCodePoints(0, maxCodePoints);
+        return text.substring(0, end);
+    }
+}
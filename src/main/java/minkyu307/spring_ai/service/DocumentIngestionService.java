@@ -1,13 +1,24 @@
 package minkyu307.spring_ai.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import minkyu307.spring_ai.entity.RagDocument;
+import minkyu307.spring_ai.repository.RagDocumentRepository;
+import minkyu307.spring_ai.repository.RagVectorStoreJdbcRepository;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.transformer.splitter.TokenTextSplitter;
-import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -25,18 +36,31 @@ public class DocumentIngestionService {
 	private static final int TITLE_SUMMARY_SOURCE_DOC_LIMIT = 3;
 	private static final int TITLE_SUMMARY_PER_DOC_MAX_CHARS = 600;
 	private static final String DEFAULT_TITLE = "제목 없음";
+	private static final String CONTENT_HASH_KEY = "contentHash";
 
-	private final VectorStore vectorStore;
+	private final RagChunkEmbeddingWriter chunkEmbeddingWriter;
 	private final TokenTextSplitter splitter;
 	private final ChatClient titleChatClient;
+	private final ChatAnswerCache chatAnswerCache;
+	private final RagVectorStoreJdbcRepository vectorStoreRepository;
+	private final RagDocumentRepository documentRepository;
+	private final ObjectMapper objectMapper;
 
 	public DocumentIngestionService(
-			VectorStore vectorStore,
+			RagChunkEmbeddingWriter chunkEmbeddingWriter,
 			TokenTextSplitter splitter,
-			ChatClient.Builder chatClientBuilder) {
-		this.vectorStore = vectorStore;
+			ChatClient.Builder chatClientBuilder,
+			ChatAnswerCache chatAnswerCache,
+			RagVectorStoreJdbcRepository vectorStoreRepository,
+			RagDocumentRepository documentRepository,
+			ObjectMapper objectMapper) {
+		this.chunkEmbeddingWriter = chunkEmbeddingWriter;
 		this.splitter = splitter;
 		this.titleChatClient = chatClientBuilder.build();
+		this.chatAnswerCache = chatAnswerCache;
+		this.vectorStoreRepository = vectorStoreRepository;
+		this.documentRepository = documentRepository;
+		this.objectMapper = objectMapper;
 	}
 
 	/**
@@ -44,7 +68,7 @@ public class DocumentIngestionService {
 	 */
 	public IngestionResult ingestDocuments(List<Document> documents, Map<String, Object> baseMetadata) {
 		if (documents == null || documents.isEmpty()) {
-			return new IngestionResult(null, null, 0, 0);
+			return new IngestionResult(null, null, 0, 0, 0);
 		}
 
 		Map<String, Object> base = baseMetadata == null ? Map.of() : baseMetadata;
@@ -67,7 +91,7 @@ public class DocumentIngestionService {
 				.toList();
 
 		if (enriched.isEmpty()) {
-			return new IngestionResult(docId, null, 0, 0);
+			return new IngestionResult(docId, null, 0, 0, 0);
 		}
 
 		// 한 번의 적재(한 소스)당 하나의 title만 사용한다.
@@ -80,20 +104,130 @@ public class DocumentIngestionService {
 				})
 				.toList();
 
-		List<Document> chunks = splitter.apply(enriched);
-		vectorStore.add(chunks);
+		String loginId = base.get("loginId") instanceof String s ? s : null;
+		List<Document> chunks = deduplicateByContentHash(splitter.apply(enriched));
+		int chunksReused = writeChunks(chunks, loginId);
+		if (loginId != null) {
+			registerDocument(docId, loginId, enriched.get(0).getMetadata(), chunks);
+			// 사용자 코퍼스가 바뀌었으므로 해당 사용자의 RAG 답변 캐시를 무효화한다.
+			chatAnswerCache.invalidateUser(loginId);
+		}
+
+		return new IngestionResult(docId, title, enriched.size(), chunks.size(), chunksReused);
+	}
+
+	/**
+	 * 청크마다 본문 SHA-256(contentHash)을 메타데이터에 기록하고, 같은 문서 안의 중복 청크는 하나만 남긴다.
+	 */
+	private static List<Document> deduplicateByContentHash(List<Document> chunks) {
+		Map<String, Document> byHash = new LinkedHashMap<>();
+		for (Document chunk : chunks) {
+			String contentHash = sha256Hex(chunk.getText());
+			if (byHash.containsKey(contentHash)) {
+				continue;
+			}
+			Map<String, Object> merged = new HashMap<>(chunk.getMetadata());
+			merged.put(CONTENT_HASH_KEY, contentHash);
+			byHash.put(contentHash, new Document(chunk.getId(), chunk.getText(), merged));
+		}
+		return List.copyOf(byHash.values());
+	}
+
+	/**
+	 * 같은 사용자의 기존 청크와 본문 해시가 같으면 저장된 embedding 을 복사하고, 나머지만 임베딩해 저장한다.
+	 * 재사용한 청크 수를 반환한다.
+	 */
+	private int writeChunks(List<Document> chunks, String loginId) {
+		Map<String, String> reusableIds = loginId == null
+				? Map.of()
+				: vectorStoreRepository.findChunkIdsByContentHashes(
+						loginId,
+						chunks.stream().map(chunk -> (String) chunk.getMetadata().get(CONTENT_HASH_KEY)).toList());
+
+		List<Document> toEmbed = new ArrayList<>();
+		List<RagVectorStoreJdbcRepository.CopiedChunk> toCopy = new ArrayList<>();
+		Map<String, Document> chunksById = new HashMap<>();
+		for (Document chunk : chunks) {
+			chunksById.put(chunk.getId(), chunk);
+			String sourceChunkId = reusableIds.get((String) chunk.getMetadata().get(CONTENT_HASH_KEY));
+			if (sourceChunkId == null) {
+				toEmbed.add(chunk);
+			} else {
+				toCopy.add(new RagVectorStoreJdbcRepository.CopiedChunk(
+						chunk.getId(), chunk.getText(), toJson(chunk.getMetadata()), sourceChunkId));
+			}
+		}
+
+		chunkEmbeddingWriter.write(toEmbed);
+		try {
+			// 조회 이후 원본 청크가 삭제되어 복사하지 못한 청크는 새로 임베딩한다.
+			List<Document> missed = vectorStoreRepository.insertWithCopiedEmbeddings(toCopy).stream()
+					.map(copied -> chunksById.get(copied.id()))
+					.toList();
+			chunkEmbeddingWriter.write(missed);
+			return toCopy.size() - missed.size();
+		} catch (RuntimeException e) {
+			chunkEmbeddingWriter.discard(chunks.stream().map(Document::getId).toList());
+			throw e;
+		}
+	}
+
+	/**
+	 * 적재된 문서를 rag_document 에 등록한다. 등록에 실패하면 목록에서 보이지 않는 청크가 남지 않도록 청크를 삭제한다.
+	 */
+	private void registerDocument(String docId, String loginId, Map<String, Object> metadata, List<Document> chunks) {
+		try {
+			documentRepository.save(new RagDocument(
+					docId,
+					loginId,
+					(String) metadata.get("title"),
+					metadata.get("filename") instanceof String filename ? filename : null,
+					metadata.get("source") instanceof String source ? source : null,
+					parseInstant(metadata.get("ingestedAt")),
+					chunks.size()));
+		} catch (RuntimeException e) {
+			chunkEmbeddingWriter.discard(chunks.stream().map(Document::getId).toList());
+			throw e;
+		}
+	}
+
+	private static Instant parseInstant(Object value) {
+		if (value instanceof String text) {
+			try {
+				return Instant.parse(text);
+			} catch (DateTimeParseException ignored) {
+				// 호출자가 넘긴 형식이 다르면 적재 시각으로 대신한다.
+			}
+		}
+		return Instant.now();
+	}
+
+	private String toJson(Map<String, Object> metadata) {
+		try {
+			return objectMapper.writeValueAsString(metadata);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("청크 메타데이터 직렬화에 실패했습니다.", e);
+		}
+	}
 
-		return new IngestionResult(docId, title, enriched.size(), chunks.size());
+	private static String sha256Hex(String text) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 을 사용할 수 없습니다.", e);
+		}
 	}
 
 	/**
-	 * 적재 결과(문서 그룹 단위) 반환값.
+	 * 적재 결과(문서 그룹 단위) 반환값. chunksReused 는 chunksIngested 중 기존 embedding 을 재사용한 청크 수.
 	 */
 	public record IngestionResult(
 			String docId,
 			String title,
 			int documentsRead,
-			int chunksIngested
+			int chunksIngested,
+			int chunksReused
 	) {
 	}
 
@@ -0,0 +1,56 @@
+package minkyu307.spring_ai.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import minkyu307.spring_ai.entity.UserDoorayApiKey;
+import minkyu307.spring_ai.repository.UserDoorayApiKeyRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 사용자별 두레이 API 키 조회 캐시. // Dooray 호출마다 user_dooray_api_key 를 다시 읽지 않도록
+ * 키 저장 시 UserSettingsApiController 가 evict 하며, 다른 인스턴스에서 바꾼 키는 ttl 이 지나면 반영된다.
+ * 키가 없는 사용자는 캐시하지 않아 설정 직후 바로 조회된다.
+ */
+@Component
+public class DoorayApiKeyCache {
+
+    private final UserDoorayApiKeyRepository doorayApiKeyRepository;
+    private final Cache<String, String> apiKeys;
+
+    public DoorayApiKeyCache(
+        UserDoorayApiKeyRepository doorayApiKeyRepository,
+        @Value("${app.dooray.api-key-cache.ttl:10m}") Duration ttl) {
+        this.doorayApiKeyRepository = doorayApiKeyRepository;
+        this.apiKeys = Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            .maximumSize(10_000)
+            .build();
+    }
+
+    /**
+     * 사용자의 API 키를 반환한다. 미설정(또는 빈 값)이면 null.
+     */
+    public String findApiKey(String loginId) {
+        String cached = apiKeys.getIfPresent(loginId);
+        if (cached != null) {
+            return cached;
+        }
+        String apiKey = doorayApiKeyRepository.findById(loginId)
+            .map(UserDoorayApiKey::getApiKey)
+            .filter(key -> !key.isBlank())
+            .orElse(null);
+        if (apiKey != null) {
+            apiKeys.put(loginId, apiKey);
+        }
+        return apiKey;
+    }
+
+    /**
+     * 사용자의 캐시된 API 키를 버린다. // 키 저장/변경 시
+     */
+    public void evict(String loginId) {
+        apiKeys.invalidate(loginId);
+    }
+}
@@ -0,0 +1,141 @@
+package minkyu307.spring_ai.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Dooray API 키별 토큰 버킷. // Rate Limit 은 키 단위로 적용되므로 사용자(키)마다 버킷을 따로 둔다
+ * 요청은 보내기 전에 토큰을 얻어 속도를 맞추고, 충전 속도는 AIMD 로 조정한다.
+ * 성공할 때마다 조금씩 올려 permits-per-second 까지 회복하고, 429 를 받으면 절반으로 낮추며
+ * Retry-After 가 있으면 그 시각까지 해당 키의 토큰 충전을 멈춘다.
+ * 동시에 보낸 요청들이 한꺼번에 429 를 받아도 한 번만 낮추도록, 감소 후 충전 간격 1회(또는 Retry-After 시각)까지의
+ * 추가 429 는 속도를 더 낮추지 않는다.
+ */
+@Component
+public class DoorayRateLimiter {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    /** 429 수신 시 충전 속도 감소 비율 */
+    private static final double DECREASE_FACTOR = 0.5;
+    /** 성공 1건당 충전 속도 증가량(최대 속도 대비 비율) */
+    private static final double INCREASE_RATIO = 0.02;
+
+    private final double maxRate;
+    private final double minRate;
+    private final double burst;
+    private final Cache<String, Bucket> buckets;
+
+    public DoorayRateLimiter(
+        @Value("${app.dooray.rate-limit.permits-per-second:5}") double permitsPerSecond,
+        @Value("${app.dooray.rate-limit.min-permits-per-second:0.5}") double minPermitsPerSecond,
+        @Value("${app.dooray.rate-limit.burst:5}") int burst) {
+        if (minPermitsPerSecond <= 0 || permitsPerSecond < minPermitsPerSecond || burst < 1) {
+            throw new IllegalArgumentException("app.dooray.rate-limit.* 설정이 올바르지 않습니다.");
+        }
+        this.maxRate = permitsPerSecond;
+        this.minRate = minPermitsPerSecond;
+        this.burst = burst;
+        // 한동안 호출이 없던 키의 버킷은 버린다. 다시 호출하면 최대 속도/가득 찬 버킷으로 시작한다.
+        this.buckets = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofMinutes(30))
+            .build();
+    }
+
+    /**
+     * 키의 토큰 1개를 얻을 때까지 대기한다. 대기 순서는 호출 순서를 따른다(토큰을 미리 예약하고 잔량을 음수로 둠).
+     */
+    public void acquire(String key) {
+        long waitNanos = bucket(key).reserve(System.nanoTime());
+        if (waitNanos <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(Duration.ofNanos(waitNanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Dooray API 호출 대기 중 인터럽트되었습니다.", e);
+        }
+    }
+
+    /**
+     * 성공 응답을 반영해 충전 속도를 조금 올린다(가산 증가).
+     */
+    public void onSuccess(String key) {
+        bucket(key).increase(System.nanoTime());
+    }
+
+    /**
+     * 429 응답을 반영해 충전 속도를 낮추고(승산 감소), retryAfter 가 있으면 그때까지 충전을 멈춘다.
+     */
+    public void onRateLimited(String key, Duration retryAfter) {
+        onRateLimited(key, retryAfter, System.nanoTime());
+    }
+
+    void onRateLimited(String key, Duration retryAfter, long now) {
+        bucket(key).decrease(now, retryAfter);
+    }
+
+    /**
+     * 키의 현재 충전 속도(초당 토큰 수).
+     */
+    double permitsPerSecond(String key) {
+        return bucket(key).rate;
+    }
+
+    private Bucket bucket(String key) {
+        return buckets.get(key == null ? "" : key, k -> new Bucket(System.nanoTime()));
+    }
+
+    private final class Bucket {
+
+        private double rate = maxRate;
+        private double tokens = burst;
+        // 미래 시각이면(Retry-After 대기 중) 그 시각까지 충전하지 않는다.
+        private long lastRefillNanos;
+        // 이 시각 전에 받은 429 는 같은 혼잡으로 보고 속도를 다시 낮추지 않는다.
+        private long decreaseBlockedUntilNanos;
+
+        private Bucket(long now) {
+            this.lastRefillNanos = now;
+            this.decreaseBlockedUntilNanos = now;
+        }
+
+        private synchronized long reserve(long now) {
+            refill(now);
+            tokens -= 1;
+            long availableAt = lastRefillNanos + (tokens >= 0 ? 0 : (long) (-tokens / rate * NANOS_PER_SECOND));
+            return availableAt - now;
+        }
+
+        private synchronized void increase(long now) {
+            refill(now);
+            rate = Math.min(maxRate, rate + maxRate * INCREASE_RATIO);
+        }
+
+        private synchronized void decrease(long now, Duration retryAfter) {
+            refill(now);
+            if (now - decreaseBlockedUntilNanos >= 0) {
+                rate = Math.max(minRate, rate * DECREASE_FACTOR);
+                decreaseBlockedUntilNanos = now + (long) (NANOS_PER_SECOND / rate);
+            }
+            // 모아 둔 버스트를 버려 대기 후에도 한꺼번에 몰리지 않게 한다.
+            tokens = Math.min(tokens, 0);
+            if (retryAfter != null && retryAfter.isPositive()) {
+                lastRefillNanos = Math.max(lastRefillNanos, now + retryAfter.toNanos());
+                decreaseBlockedUntilNanos = Math.max(decreaseBlockedUntilNanos, lastRefillNanos);
+            }
+        }
+
+        private void refill(long now) {
+            if (now <= lastRefillNanos) {
+                return;
+            }
+            tokens = Math.min(burst, tokens + (now - lastRefillNanos) / NANOS_PER_SECOND * rate);
+            lastRefillNanos = now;
+        }
+    }
+}
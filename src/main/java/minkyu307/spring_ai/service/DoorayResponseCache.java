@@ -0,0 +1,72 @@
+package minkyu307.spring_ai.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * Dooray GET 응답 TTL 캐시. // 위키 목록/하위 페이지 목록/페이지 본문을 짧게 재사용해 Dooray 호출과 429 를 줄인다
+ * 키는 API 키(Authorization) SHA-256 + URL 이므로 사용자(키)끼리 응답을 공유하지 않고, 키를 바꾸면 자연히 새로 조회한다.
+ * 캐시된 응답 본문은 호출자끼리 공유하므로 읽기 전용으로 다룬다.
+ */
+@Component
+public class DoorayResponseCache {
+
+    private final Cache<String, ResponseEntity<Map<String, Object>>> cache;
+
+    public DoorayResponseCache(
+        MeterRegistry meterRegistry,
+        @Value("${app.dooray.cache.enabled:true}") boolean enabled,
+        @Value("${app.dooray.cache.ttl:60s}") Duration ttl,
+        @Value("${app.dooray.cache.max-entries:2000}") long maxEntries) {
+        if (!enabled) {
+            this.cache = null;
+            return;
+        }
+        if (!ttl.isPositive() || maxEntries < 1) {
+            throw new IllegalArgumentException("app.dooray.cache.* 설정이 올바르지 않습니다.");
+        }
+        this.cache = Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            .maximumSize(maxEntries)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "dooray-response");
+    }
+
+    /**
+     * 캐시된 응답을 반환한다. 없거나 캐시가 꺼져 있으면 null.
+     */
+    public ResponseEntity<Map<String, Object>> get(String authorization, String url) {
+        return cache == null ? null : cache.getIfPresent(cacheKey(authorization, url));
+    }
+
+    /**
+     * 성공(2xx) 응답만 저장한다.
+     */
+    public void put(String authorization, String url, ResponseEntity<Map<String, Object>> response) {
+        if (cache != null && response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+            cache.put(cacheKey(authorization, url), response);
+        }
+    }
+
+    private static String cacheKey(String authorization, String url) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] keyHash = digest.digest((authorization == null ? "" : authorization).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(keyHash) + " " + url;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 을 사용할 수 없습니다.", e);
+        }
+    }
+}
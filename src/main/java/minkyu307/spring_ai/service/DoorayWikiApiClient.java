@@ -1,10 +1,16 @@
 package minkyu307.spring_ai.service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 import lombok.RequiredArgsConstructor;
 import minkyu307.spring_ai.error.ApiErrorCode;
 import minkyu307.spring_ai.error.ApiException;
-import minkyu307.spring_ai.repository.UserDoorayApiKeyRepository;
 import minkyu307.spring_ai.security.SecurityUtils;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
@@ -20,18 +26,29 @@ import org.springframework.web.client.RestTemplate;
 
 /**
  * Dooray Wiki GET 호출과 429 재시도 정책을 공통으로 처리한다.
+ * 모든 시도(재시도 포함)는 API 키별 DoorayRateLimiter 토큰을 얻은 뒤 보내고, 응답 결과로 키의 호출 속도를 조정한다.
+ * 429 는 Retry-After 가 있으면 그 시각까지(버킷이 대기), 없으면 지터를 준 지수 백오프 후 재시도한다.
+ * 성공 응답은 DoorayResponseCache 에 짧게 보관해 같은 사용자의 같은 URL 재조회에 재사용한다.
  */
 @Component
 @RequiredArgsConstructor
 public class DoorayWikiApiClient {
 
-    /** 429 수신 시 재시도 대기(ms) */
-    private static final long RETRY_DELAY_MS = 1000;
+    private static final String DOORAY_BASE = "https://api.dooray.com";
+
+    /** Retry-After 없는 429 재시도 백오프 기준(ms). 시도마다 2배, 실제 대기는 0~상한 사이 무작위(full jitter) */
+    private static final long BACKOFF_BASE_MS = 250;
+    /** 백오프 상한(ms) */
+    private static final long BACKOFF_MAX_MS = 8000;
+    /** 따르는 Retry-After 최대값. 더 길면 이 시간만 기다린다 */
+    private static final Duration MAX_RETRY_AFTER = Duration.ofSeconds(60);
     /** 최대 재시도 횟수 */
     private static final int MAX_RETRY = 10;
 
-    private final UserDoorayApiKeyRepository doorayApiKeyRepository;
+    private final DoorayApiKeyCache apiKeyCache;
     private final RestTemplate restTemplate;
+    private final DoorayRateLimiter rateLimiter;
+    private final DoorayResponseCache responseCache;
 
     /**
      * 사용자 API 키를 적용한 Dooray GET 요청을 수행한다.
@@ -45,20 +62,48 @@ public class DoorayWikiApiClient {
      * 비동기 작업에서는 이 메서드를 호출하지 말고, 요청 시작 시점에 생성한 엔티티를 재사용한다.
      */
     public HttpEntity<Void> createAuthenticatedEntity() {
-        return new HttpEntity<>(authHeaders());
+        return createAuthenticatedEntity(SecurityUtils.getCurrentLoginId());
+    }
+
+    /**
+     * 지정한 사용자의 API 키로 인증 헤더를 생성한다. // 요청 스레드 밖(적재 작업 워커)에서 사용
+     */
+    public HttpEntity<Void> createAuthenticatedEntity(String loginId) {
+        return new HttpEntity<>(authHeaders(loginId));
     }
 
     /**
-     * 제공된 인증 엔티티로 Dooray GET 요청을 수행한다.
+     * 제공된 인증 엔티티로 Dooray GET 요청을 수행한다. TTL 안의 캐시된 응답이 있으면 그대로 반환한다.
      */
     public ResponseEntity<Map<String, Object>> getWithRetry(String url, HttpEntity<?> entity) {
+        ResponseEntity<Map<String, Object>> cached =
+            responseCache.get(entity.getHeaders().getFirst(HttpHeaders.AUTHORIZATION), url);
+        return cached != null ? cached : getFresh(url, entity);
+    }
+
+    /**
+     * 캐시를 거치지 않고 조회한 뒤 결과로 캐시를 갱신한다. // 증분 동기화의 updatedAt 비교처럼 최신 값이 필요한 경우
+     */
+    public ResponseEntity<Map<String, Object>> getFresh(String url, HttpEntity<?> entity) {
+        ResponseEntity<Map<String, Object>> response = exchangeWithRetry(url, entity);
+        responseCache.put(entity.getHeaders().getFirst(HttpHeaders.AUTHORIZATION), url, response);
+        return response;
+    }
+
+    private ResponseEntity<Map<String, Object>> exchangeWithRetry(String url, HttpEntity<?> entity) {
+        String limiterKey = entity.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
         for (int attempt = 0; attempt <= MAX_RETRY; attempt++) {
+            rateLimiter.acquire(limiterKey);
             try {
-                return restTemplate.exchange(
+                ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
                     url, HttpMethod.GET, entity,
                     new ParameterizedTypeReference<Map<String, Object>>() {}
                 );
+                rateLimiter.onSuccess(limiterKey);
+                return response;
             } catch (HttpClientErrorException.TooManyRequests e) {
+                Duration retryAfter = parseRetryAfter(e.getResponseHeaders());
+                rateLimiter.onRateLimited(limiterKey, retryAfter);
                 if (attempt == MAX_RETRY) {
                     throw new ApiException(
                         HttpStatus.TOO_MANY_REQUESTS,
@@ -66,8 +111,13 @@ public class DoorayWikiApiClient {
                         null
                     );
                 }
+                if (retryAfter != null) {
+                    // 버킷이 Retry-After 까지 충전을 멈췄으므로 다음 acquire 가 그만큼 기다린다.
+                    continue;
+                }
                 try {
-                    Thread.sleep(RETRY_DELAY_MS);
+                    long capMs = Math.min(BACKOFF_MAX_MS, BACKOFF_BASE_MS << Math.min(attempt, 16));
+                    Thread.sleep(ThreadLocalRandom.current().nextLong(capMs + 1));
                 } catch (InterruptedException ie) {
                     Thread.currentThread().interrupt();
                     throw new ApiException(
@@ -118,17 +168,65 @@ public class DoorayWikiApiClient {
     }
 
     /**
-     * 현재 사용자의 두레이 API 키로 Authorization 헤더 생성.
+     * parentPageId 바로 아래(한 depth) 페이지 목록을 조회한다. 결과가 없으면 빈 목록.
+     */
+    public List<Map<String, Object>> getChildPages(String wikiId, String parentPageId, HttpEntity<?> entity) {
+        return getChildPages(wikiId, parentPageId, entity, false);
+    }
+
+    /**
+     * parentPageId 바로 아래 페이지 목록을 조회한다. fresh=true 면 캐시를 거치지 않는다. // 증분 동기화의 updatedAt 비교용
+     */
+    @SuppressWarnings("unchecked")
+    public List<Map<String, Object>> getChildPages(
+        String wikiId,
+        String parentPageId,
+        HttpEntity<?> entity,
+        boolean fresh) {
+        String url = DOORAY_BASE + "/wiki/v1/wikis/" + wikiId + "/pages?parentPageId=" + parentPageId;
+        Map<String, Object> resp = (fresh ? getFresh(url, entity) : getWithRetry(url, entity)).getBody();
+        if (resp == null) return List.of();
+        List<Map<String, Object>> pages = (List<Map<String, Object>>) resp.get("result");
+        return pages != null ? pages : List.of();
+    }
+
+    /**
+     * Retry-After(초 또는 HTTP-date)를 해석한다. 없거나 해석할 수 없으면 null.
      */
-    private HttpHeaders authHeaders() {
-        String loginId = SecurityUtils.getCurrentLoginId();
-        String apiKey = doorayApiKeyRepository.findById(loginId)
-            .map(k -> k.getApiKey())
-            .orElseThrow(() -> new ApiException(
+    static Duration parseRetryAfter(HttpHeaders headers) {
+        String value = headers == null ? null : headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        Duration retryAfter;
+        try {
+            retryAfter = Duration.ofSeconds(Long.parseLong(value.strip()));
+        } catch (NumberFormatException e) {
+            try {
+                Instant at = ZonedDateTime.parse(value.strip(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+                retryAfter = Duration.between(Instant.now(), at);
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+        if (retryAfter.isNegative()) {
+            return Duration.ZERO;
+        }
+        return retryAfter.compareTo(MAX_RETRY_AFTER) > 0 ? MAX_RETRY_AFTER : retryAfter;
+    }
+
+    /**
+     * 사용자의 두레이 API 키로 Authorization 헤더 생성. // 키는 DoorayApiKeyCache 에서 조회
+     */
+    private HttpHeaders authHeaders(String loginId) {
+        String apiKey = apiKeyCache.findApiKey(loginId);
+        if (apiKey == null) {
+            throw new ApiException(
                 HttpStatus.BAD_REQUEST,
                 ApiErrorCode.DOORAY_UNAUTHORIZED,
                 "두레이 API 키가 설정되지 않았습니다."
-            ));
+            );
+        }
         HttpHeaders headers = new HttpHeaders();
         headers.set("Authorization", "dooray-api " + apiKey);
         return headers;
@@ -0,0 +1,175 @@
+package minkyu307.spring_ai.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+/**
+ * 외부 호스트별 동시 요청 수 제한. // 공용 HttpClient 의 호스트별 연결 수 상한 역할
+ * JDK HttpClient 풀은 호스트별 상한과 사용량 지표를 제공하지 않으므로, 요청~응답 본문 종료 구간을 permit 으로 감싸
+ * 호스트당 동시 연결 수를 max-connections-per-host 이하로 유지하고 사용/대기 수를 게이지로 노출한다.
+ * URL 적재는 임의 호스트를 받으므로 호스트 항목은 최대 MAX_HOSTS 개, 유휴 HOST_IDLE_TIMEOUT 후 게이지와 함께 제거한다.
+ * 사용 중에 제거된 항목의 permit 은 원래 세마포어로 반납되며, 그동안만 해당 호스트 상한이 일시적으로 느슨해진다.
+ */
+@Component
+public class OutboundHostLimiter implements ClientHttpRequestInterceptor {
+
+    private static final int MAX_HOSTS = 1000;
+    private static final Duration HOST_IDLE_TIMEOUT = Duration.ofMinutes(10);
+
+    private final int maxConnectionsPerHost;
+    private final Duration acquireTimeout;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, HostPermits> hosts;
+
+    public OutboundHostLimiter(
+        MeterRegistry meterRegistry,
+        @Value("${app.http.client.max-connections-per-host:16}") int maxConnectionsPerHost,
+        @Value("${app.http.client.acquire-timeout:30s}") Duration acquireTimeout) {
+        if (maxConnectionsPerHost < 1) {
+            throw new IllegalArgumentException("app.http.client.max-connections-per-host 값은 1 이상이어야 합니다.");
+        }
+        this.meterRegistry = meterRegistry;
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        this.acquireTimeout = acquireTimeout;
+        this.hosts = Caffeine.newBuilder()
+            .maximumSize(MAX_HOSTS)
+            .expireAfterAccess(HOST_IDLE_TIMEOUT)
+            // evictionListener 는 제거 연산 안에서 동기 호출되므로, 같은 호스트 항목을 다시 만들기 전에 이전 게이지가 지워진다.
+            .evictionListener((String host, HostPermits permits, RemovalCause cause) -> {
+                if (permits != null) {
+                    meterRegistry.remove(permits.activeGauge());
+                    meterRegistry.remove(permits.pendingGauge());
+                }
+            })
+            .build();
+    }
+
+    /**
+     * 호스트 permit 을 얻는다. acquire-timeout 안에 얻지 못하면 IOException. 사용 후 반드시 close 한다.
+     */
+    public Permit acquire(URI uri) throws IOException {
+        HostPermits permits = hosts.get(hostKey(uri), this::register);
+        permits.waiting.incrementAndGet();
+        try {
+            if (!permits.semaphore.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new IOException("외부 호스트 연결 대기 시간 초과: " + uri.getHost());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("외부 호스트 연결 대기 중 인터럽트되었습니다.", e);
+        } finally {
+            permits.waiting.decrementAndGet();
+        }
+        return new Permit(permits.semaphore);
+    }
+
+    /**
+     * RestTemplate 요청마다 permit 을 얻고, 응답을 닫을 때(본문 소비 후) 반납한다.
+     */
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+        throws IOException {
+        Permit permit = acquire(request.getURI());
+        try {
+            return new PermitReleasingResponse(execution.execute(request, body), permit);
+        } catch (IOException | RuntimeException e) {
+            permit.close();
+            throw e;
+        }
+    }
+
+    private HostPermits register(String host) {
+        Semaphore semaphore = new Semaphore(maxConnectionsPerHost, true);
+        AtomicInteger waiting = new AtomicInteger();
+        Gauge active = Gauge.builder("http.client.host.connections.active", semaphore,
+                s -> maxConnectionsPerHost - s.availablePermits())
+            .description("호스트별 사용 중인 외부 연결(진행 중 요청) 수")
+            .tag("host", host)
+            .register(meterRegistry);
+        Gauge pending = Gauge.builder("http.client.host.connections.pending", waiting, AtomicInteger::get)
+            .description("호스트별 연결 상한으로 대기 중인 요청 수")
+            .tag("host", host)
+            .register(meterRegistry);
+        return new HostPermits(semaphore, waiting, active, pending);
+    }
+
+    private static String hostKey(URI uri) {
+        String host = uri.getHost() == null ? "" : uri.getHost().toLowerCase(Locale.ROOT);
+        return uri.getPort() < 0 ? host : host + ":" + uri.getPort();
+    }
+
+    private record HostPermits(Semaphore semaphore, AtomicInteger waiting, Gauge activeGauge, Gauge pendingGauge) {
+    }
+
+    /**
+     * 호스트 permit. close 는 여러 번 호출해도 한 번만 반납한다.
+     */
+    public static final class Permit implements AutoCloseable {
+
+        private final Semaphore semaphore;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Semaphore semaphore) {
+            this.semaphore = semaphore;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                semaphore.release();
+            }
+        }
+    }
+
+    private record PermitReleasingResponse(ClientHttpResponse delegate, Permit permit) implements ClientHttpResponse {
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                permit.close();
+            }
+        }
+    }
+}
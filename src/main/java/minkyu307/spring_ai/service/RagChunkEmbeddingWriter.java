@@ -0,0 +1,169 @@
+package minkyu307.spring_ai.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 청크를 배치로 나눠 임베딩 + vector_store 저장을 수행한다. // 대용량 문서의 단일 거대 임베딩 호출 방지
+ * 배치는 가상 스레드에서 병렬 실행하되 애플리케이션 전체 동시 배치 수는 세마포어로 제한하고,
+ * 실패한 배치만 재시도한다. 최종 실패 시 이미 저장된 배치를 삭제해 부분 적재를 남기지 않는다.
+ */
+@Slf4j
+@Service
+public class RagChunkEmbeddingWriter {
+
+	private static final long RETRY_BASE_DELAY_MS = 500;
+
+	private final VectorStore vectorStore;
+	private final int batchSize;
+	private final int maxAttempts;
+	private final Semaphore batchPermits;
+
+	public RagChunkEmbeddingWriter(
+			VectorStore vectorStore,
+			@Value("${app.rag.ingestion.embed-batch-size:50}") int batchSize,
+			@Value("${app.rag.ingestion.embed-concurrency:4}") int concurrency,
+			@Value("${app.rag.ingestion.embed-max-attempts:3}") int maxAttempts) {
+		if (batchSize < 1 || concurrency < 1 || maxAttempts < 1) {
+			throw new IllegalArgumentException("app.rag.ingestion.embed-* 값은 1 이상이어야 합니다.");
+		}
+		this.vectorStore = vectorStore;
+		this.batchSize = batchSize;
+		this.maxAttempts = maxAttempts;
+		this.batchPermits = new Semaphore(concurrency, true);
+	}
+
+	/**
+	 * 청크 전체를 배치 단위로 임베딩/저장하고 저장된 청크 수를 반환한다.
+	 */
+	public int write(List<Document> chunks) {
+		if (chunks == null || chunks.isEmpty()) {
+			return 0;
+		}
+		List<List<Document>> batches = partition(chunks);
+		if (batches.size() == 1) {
+			writeBatch(batches.get(0));
+			return chunks.size();
+		}
+
+		List<String> writtenIds = Collections.synchronizedList(new ArrayList<>());
+		RuntimeException failure = null;
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			CompletionService<Void> completion = new ExecutorCompletionService<>(executor);
+			List<Future<Void>> futures = new ArrayList<>(batches.size());
+			for (List<Document> batch : batches) {
+				futures.add(completion.submit(() -> {
+					writeBatch(batch);
+					// 취소와 경합해도 저장된 배치는 정리 대상에 남도록 작업 안에서 기록한다.
+					batch.forEach(document -> writtenIds.add(document.getId()));
+					return null;
+				}));
+			}
+
+			for (int i = 0; i < batches.size(); i++) {
+				try {
+					completion.take().get();
+				} catch (ExecutionException e) {
+					failure = e.getCause() instanceof RuntimeException re
+							? re
+							: new IllegalStateException("임베딩 배치 처리에 실패했습니다.", e.getCause());
+					// 첫 실패에서 나머지 배치를 중단한다.
+					futures.forEach(future -> future.cancel(true));
+					break;
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					futures.forEach(future -> future.cancel(true));
+					failure = new IllegalStateException("임베딩 배치 처리 중 인터럽트되었습니다.", e);
+					break;
+				}
+			}
+		}
+
+		// executor.close() 가 취소된 작업 종료까지 기다리므로 여기서 writtenIds 는 확정 상태다.
+		if (failure != null) {
+			discard(writtenIds);
+			throw failure;
+		}
+		return chunks.size();
+	}
+
+	/**
+	 * 배치 1개를 임베딩/저장한다. 일시적 오류는 지수 백오프로 maxAttempts 까지 재시도한다.
+	 */
+	private void writeBatch(List<Document> batch) {
+		acquirePermit();
+		try {
+			for (int attempt = 1; ; attempt++) {
+				try {
+					vectorStore.add(batch);
+					return;
+				} catch (NonTransientAiException e) {
+					throw e;
+				} catch (RuntimeException e) {
+					if (attempt >= maxAttempts) {
+						throw e;
+					}
+					log.warn("임베딩 배치 실패 - 재시도 {}/{} (size={}): {}", attempt, maxAttempts, batch.size(), e.getMessage());
+					sleep(RETRY_BASE_DELAY_MS << (attempt - 1));
+				}
+			}
+		} finally {
+			batchPermits.release();
+		}
+	}
+
+	private void acquirePermit() {
+		try {
+			batchPermits.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("임베딩 배치 대기 중 인터럽트되었습니다.", e);
+		}
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("임베딩 배치 재시도 대기 중 인터럽트되었습니다.", e);
+		}
+	}
+
+	/**
+	 * 이미 저장된 청크를 id 기준으로 삭제한다. // 적재 후속 단계 실패 시 부분 적재 정리용, 실패는 로그만 남긴다.
+	 */
+	public void discard(List<String> chunkIds) {
+		if (chunkIds.isEmpty()) {
+			return;
+		}
+		try {
+			vectorStore.delete(List.copyOf(chunkIds));
+		} catch (RuntimeException e) {
+			log.error("부분 적재된 청크 정리 실패 (count={})", chunkIds.size(), e);
+		}
+	}
+
+	private List<List<Document>> partition(List<Document> chunks) {
+		List<List<Document>> batches = new ArrayList<>((chunks.size() + batchSize - 1) / batchSize);
+		for (int from = 0; from < chunks.size(); from += batchSize) {
+			batches.add(chunks.subList(from, Math.min(from + batchSize, chunks.size())));
+		}
+		return batches;
+	}
+}
@@ -1,11 +1,11 @@
 package minkyu307.spring_ai.service;
 
 import minkyu307.spring_ai.dto.RagDocumentListItemDto;
+import minkyu307.spring_ai.repository.RagDocumentRepository;
 import minkyu307.spring_ai.repository.RagVectorStoreJdbcRepository;
 import minkyu307.spring_ai.security.SecurityUtils;
-import org.springframework.ai.vectorstore.VectorStore;
-import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -15,46 +15,53 @@ import java.util.List;
 @Service
 public class RagDocumentManagementService {
 
+	private final RagDocumentRepository documentRepository;
 	private final RagVectorStoreJdbcRepository repository;
-	private final VectorStore vectorStore;
+	private final ChatAnswerCache chatAnswerCache;
 
-	public RagDocumentManagementService(RagVectorStoreJdbcRepository repository, VectorStore vectorStore) {
+	public RagDocumentManagementService(
+			RagDocumentRepository documentRepository,
+			RagVectorStoreJdbcRepository repository,
+			ChatAnswerCache chatAnswerCache) {
+		this.documentRepository = documentRepository;
 		this.repository = repository;
-		this.vectorStore = vectorStore;
+		this.chatAnswerCache = chatAnswerCache;
 	}
 
 	/**
-	 * docId 단위로 그룹핑된 문서 목록을 조회한다. // UI 목록용
+	 * 문서 목록을 조회한다. // UI 목록용, 청크 수와 무관하게 rag_document 단일 테이블 조회
 	 * 현재 로그인 사용자(loginId) 기준으로만 조회.
 	 */
 	public List<RagDocumentListItemDto> listDocuments() {
 		String loginId = SecurityUtils.getCurrentLoginId();
-		return repository.findAllGroupedDocumentsByLoginId(loginId);
+		return documentRepository.findListItemsByLoginId(loginId);
 	}
 
 	/**
-	 * 문서를 삭제한다. // docId + loginId 메타데이터 기준으로 해당 문서 청크 전체 삭제. 존재하지 않으면 false.
+	 * 문서를 삭제한다. // docId + loginId 기준으로 해당 문서 청크와 등록 정보 삭제. 존재하지 않으면 false.
 	 */
+	@Transactional
 	public boolean deleteDocument(String docId) {
 		if (docId == null || docId.isBlank()) {
 			return false;
 		}
 
-		String loginId = SecurityUtils.getCurrentLoginId();
+		return deleteDocument(docId, SecurityUtils.getCurrentLoginId());
+	}
 
-		if (!repository.existsByDocIdAndLoginId(docId, loginId)) {
+	/**
+	 * 지정한 사용자의 문서를 삭제한다. // 적재 작업 재시도 전 이전 시도의 부분 적재 정리 등 요청 스레드 밖에서 사용
+	 */
+	@Transactional
+	public boolean deleteDocument(String docId, String loginId) {
+		// docId는 업로드 시 UUID로 생성되어 사실상 충돌 가능성이 매우 낮지만,
+		// 방어적으로 loginId까지 함께 조건에 둔다. // (login_id, doc_id) 인덱스를 타는 DELETE 한 번으로 처리
+		int deletedChunks = repository.deleteByDocIdAndLoginId(docId, loginId);
+		long deletedDocuments = documentRepository.deleteByDocIdAndLoginId(docId, loginId);
+		if (deletedChunks == 0 && deletedDocuments == 0) {
 			return false;
 		}
-
-		FilterExpressionBuilder b = new FilterExpressionBuilder();
-		// docId는 업로드 시 UUID로 생성되어 사실상 충돌 가능성이 매우 낮지만,
-		// 방어적으로 loginId까지 함께 필터링한다.
-		vectorStore.delete(
-				b.and(
-						b.eq("docId", docId),
-						b.eq("loginId", loginId)
-				).build()
-		);
+		chatAnswerCache.invalidateUser(loginId);
 		return true;
 	}
 }
@@ -1,7 +1,9 @@
 package minkyu307.spring_ai.service;
 
 import minkyu307.spring_ai.dto.RagDocumentSummaryResponse;
+import minkyu307.spring_ai.entity.RagDocument;
 import minkyu307.spring_ai.exception.ResourceNotFoundException;
+import minkyu307.spring_ai.repository.RagDocumentRepository;
 import minkyu307.spring_ai.repository.RagVectorStoreJdbcRepository;
 import minkyu307.spring_ai.security.SecurityUtils;
 import org.springframework.ai.chat.client.ChatClient;
@@ -11,7 +13,7 @@ import java.time.Instant;
 import java.util.List;
 
 /**
- * RAG 문서 요약 서비스. // docId 단위 요약 생성 후 vector_store metadata에 저장/재사용
+ * RAG 문서 요약 서비스. // docId 단위 요약 생성 후 rag_document 에 저장/재사용
  */
 @Service
 public class RagDocumentSummaryService {
@@ -21,13 +23,16 @@ public class RagDocumentSummaryService {
 	private static final int SUMMARY_INPUT_MAX_CHARS = 7000;
 	private static final int SUMMARY_OUTPUT_MAX_CHARS = 3000;
 
+	private final RagDocumentRepository documentRepository;
 	private final RagVectorStoreJdbcRepository repository;
 	private final ChatClient summaryChatClient;
 
 	public RagDocumentSummaryService(
+			RagDocumentRepository documentRepository,
 			RagVectorStoreJdbcRepository repository,
 			ChatClient.Builder chatClientBuilder
 	) {
+		this.documentRepository = documentRepository;
 		this.repository = repository;
 		this.summaryChatClient = chatClientBuilder.build();
 	}
@@ -43,17 +48,15 @@ public class RagDocumentSummaryService {
 		String normalizedDocId = docId.strip();
 		String loginId = SecurityUtils.getCurrentLoginId();
 
-		if (!repository.existsByDocIdAndLoginId(normalizedDocId, loginId)) {
-			throw new ResourceNotFoundException("문서를 찾을 수 없습니다: " + normalizedDocId);
-		}
+		RagDocument document = documentRepository.findByDocIdAndLoginId(normalizedDocId, loginId)
+				.orElseThrow(() -> new ResourceNotFoundException("문서를 찾을 수 없습니다: " + normalizedDocId));
 
-		var storedSummary = repository.findStoredSummaryByDocIdAndLoginId(normalizedDocId, loginId);
-		if (storedSummary.isPresent()) {
+		if (document.getSummary() != null && !document.getSummary().isBlank()) {
 			return new RagDocumentSummaryResponse(
 					normalizedDocId,
-					storedSummary.get().summary(),
+					document.getSummary(),
 					true,
-					storedSummary.get().summarizedAt()
+					document.getSummarizedAt() == null ? null : document.getSummarizedAt().toString()
 			);
 		}
 
@@ -64,13 +67,13 @@ public class RagDocumentSummaryService {
 		}
 
 		String summary = summarizeWithAi(summaryInput);
-		String summarizedAt = Instant.now().toString();
-		int updatedRows = repository.updateSummaryByDocIdAndLoginId(normalizedDocId, loginId, summary, summarizedAt);
+		Instant summarizedAt = Instant.now();
+		int updatedRows = documentRepository.updateSummary(normalizedDocId, loginId, summary, summarizedAt);
 		if (updatedRows <= 0) {
 			throw new ResourceNotFoundException("문서를 찾을 수 없습니다: " + normalizedDocId);
 		}
 
-		return new RagDocumentSummaryResponse(normalizedDocId, summary, false, summarizedAt);
+		return new RagDocumentSummaryResponse(normalizedDocId, summary, false, summarizedAt.toString());
 	}
 
 	/**
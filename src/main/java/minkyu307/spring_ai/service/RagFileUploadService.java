@@ -3,19 +3,29 @@ package minkyu307.spring_ai.service;
 import minkyu307.spring_ai.dto.RagFileIngestResultDto;
 import minkyu307.spring_ai.dto.RagMultiFileIngestResponse;
 import minkyu307.spring_ai.security.SecurityUtils;
-import org.springframework.core.io.ByteArrayResource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 
 /**
  * 멀티 파일 업로드 → VectorStore 적재 결과를 담당하는 서비스.
+ * 업로드 파트는 바이트 배열로 올리지 않고 임시 파일로 스트리밍한 뒤 파일 기반으로 읽는다. // 대량 업로드 시 힙 급증 방지
+ * 파일들은 병렬로 처리하되, 결과 목록은 요청한 파일 순서를 유지한다.
  */
+@Slf4j
 @Service
 public class RagFileUploadService {
 
@@ -27,81 +37,66 @@ public class RagFileUploadService {
 
 	private final DocumentIngestionService ingestionService;
 	private final RagResourceDocumentReaderService readerService;
+	private final Semaphore filePermits;
 
 	public RagFileUploadService(
 			DocumentIngestionService ingestionService,
-			RagResourceDocumentReaderService readerService) {
+			RagResourceDocumentReaderService readerService,
+			@Value("${app.rag.ingestion.file-concurrency:4}") int fileConcurrency) {
+		if (fileConcurrency < 1) {
+			throw new IllegalArgumentException("app.rag.ingestion.file-concurrency 값은 1 이상이어야 합니다.");
+		}
 		this.ingestionService = ingestionService;
 		this.readerService = readerService;
+		// 파일 단위(읽기 + OCR + 제목 생성 + 임베딩) 동시 진행 상한. 제목 생성 LLM 호출 수도 함께 제한된다.
+		this.filePermits = new Semaphore(fileConcurrency, true);
 	}
 
 	/**
-	 * 업로드된 파일 목록을 읽어 VectorStore에 적재하고, 파일별 결과를 반환한다.
+	 * 업로드된 파일 목록을 읽어 VectorStore에 적재하고, 파일별 결과를 요청 순서대로 반환한다.
+	 * 파일은 가상 스레드에서 병렬 처리하며 동시에 진행되는 파일 파이프라인 수는 filePermits 로 제한한다.
 	 */
 	public RagMultiFileIngestResponse upload(List<MultipartFile> files) {
 		List<MultipartFile> safeFiles = files == null ? List.of() : files;
 		String loginId = SecurityUtils.getCurrentLoginId();
 
-		List<RagFileIngestResultDto> results = new ArrayList<>();
+		RagFileIngestResultDto[] results = new RagFileIngestResultDto[safeFiles.size()];
 		int processed = 0;
-		int succeeded = 0;
-		int failed = 0;
-		int skipped = 0;
-		int totalChunks = 0;
 
-		for (MultipartFile file : safeFiles) {
-			if (file == null || file.isEmpty()) {
-				skipped++;
-				results.add(new RagFileIngestResultDto("(empty)", "SKIPPED", 0, null));
-				continue;
-			}
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < safeFiles.size(); i++) {
+				MultipartFile file = safeFiles.get(i);
+				if (file == null || file.isEmpty()) {
+					results[i] = new RagFileIngestResultDto("(empty)", "SKIPPED", 0, null);
+					continue;
+				}
 
-			processed++;
-			String filename = file.getOriginalFilename() == null ? "unknown" : file.getOriginalFilename();
-			String lower = filename.toLowerCase();
+				processed++;
+				String filename = file.getOriginalFilename() == null ? "unknown" : file.getOriginalFilename();
 
-			if (!isSupportedExtension(lower)) {
-				failed++;
-				results.add(new RagFileIngestResultDto(filename, "FAILED", 0, "지원하지 않는 파일 형식"));
-				continue;
-			}
+				if (!isSupportedFilename(filename)) {
+					results[i] = new RagFileIngestResultDto(filename, "FAILED", 0, "지원하지 않는 파일 형식");
+					continue;
+				}
 
-			byte[] bytes;
-			try {
-				bytes = file.getBytes();
-			} catch (Exception e) {
-				failed++;
-				results.add(new RagFileIngestResultDto(filename, "FAILED", 0, "파일 읽기 실패"));
-				continue;
+				int index = i;
+				executor.submit(() -> results[index] = ingestUploadedFile(file, filename, loginId));
 			}
+		}
 
-			try {
-				Map<String, Object> metadata = new HashMap<>();
-				metadata.put("source", "upload");
-				metadata.put("filename", filename);
-				metadata.put("contentType", file.getContentType());
-				metadata.put("loginId", loginId);
-
-				var resource = new ByteArrayResource(bytes) {
-					@Override
-					public String getFilename() {
-						return filename;
-					}
-				};
-
-				var readResult = readerService.read(resource, filename, null);
-
-				Map<String, Object> baseMetadata = new HashMap<>(metadata);
-				baseMetadata.put("detectedType", readResult.detectedType().name());
-
-				int chunks = ingestionService.ingestDocuments(readResult.documents(), baseMetadata).chunksIngested();
-				totalChunks += chunks;
-				succeeded++;
-				results.add(new RagFileIngestResultDto(filename, "SUCCEEDED", chunks, null));
-			} catch (Exception e) {
-				failed++;
-				String msg = (e.getMessage() == null || e.getMessage().isBlank()) ? "적재 실패" : e.getMessage();
-				results.add(new RagFileIngestResultDto(filename, "FAILED", 0, msg));
+		// executor.close() 가 모든 파일 작업 종료를 기다리므로 results 는 여기서 확정 상태다.
+		int succeeded = 0;
+		int failed = 0;
+		int skipped = 0;
+		int totalChunks = 0;
+		for (RagFileIngestResultDto result : results) {
+			switch (result.status()) {
+				case "SUCCEEDED" -> {
+					succeeded++;
+					totalChunks += result.chunksIngested();
+				}
+				case "SKIPPED" -> skipped++;
+				default -> failed++;
 			}
 		}
 
@@ -112,12 +107,106 @@ public class RagFileUploadService {
 				failed,
 				skipped,
 				totalChunks,
-				results
+				List.of(results)
 		);
 	}
 
-	/** 파일명(소문자)이 허용 확장자로 끝나는지 검사한다. */
-	private static boolean isSupportedExtension(String filenameLower) {
-		return ALLOWED_EXTENSIONS.stream().anyMatch(filenameLower::endsWith);
+	/**
+	 * 업로드 파트 1개를 임시 파일로 옮겨 적재하고 결과를 만든다. 예외는 파일별 FAILED 결과로 변환한다.
+	 */
+	private RagFileIngestResultDto ingestUploadedFile(MultipartFile file, String filename, String loginId) {
+		Path tempFile;
+		try {
+			tempFile = spoolToTempFile(file);
+		} catch (Exception e) {
+			return new RagFileIngestResultDto(filename, "FAILED", 0, "파일 읽기 실패");
+		}
+
+		try {
+			int chunks = ingestStoredFile(tempFile, filename, file.getContentType(), loginId, null).chunksIngested();
+			return new RagFileIngestResultDto(filename, "SUCCEEDED", chunks, null);
+		} catch (Exception e) {
+			String msg = (e.getMessage() == null || e.getMessage().isBlank()) ? "적재 실패" : e.getMessage();
+			return new RagFileIngestResultDto(filename, "FAILED", 0, msg);
+		} finally {
+			deleteQuietly(tempFile);
+		}
+	}
+
+	/**
+	 * 디스크에 저장된 업로드 파일 1개를 읽어 적재한다. // 동기 업로드와 비동기 적재 작업(RagIngestionJobWorker) 공용
+	 * docId 를 주면 그 값으로 적재하고, null 이면 새로 발급한다. 애플리케이션 전체 동시 파일 적재 수는 filePermits 로 제한한다.
+	 */
+	public DocumentIngestionService.IngestionResult ingestStoredFile(
+			Path file,
+			String filename,
+			String contentType,
+			String loginId,
+			String docId) {
+		acquireFilePermit();
+		try {
+			return ingestFile(file, filename, contentType, loginId, docId);
+		} finally {
+			filePermits.release();
+		}
+	}
+
+	private DocumentIngestionService.IngestionResult ingestFile(
+			Path file,
+			String filename,
+			String contentType,
+			String loginId,
+			String docId) {
+		Map<String, Object> metadata = new HashMap<>();
+		metadata.put("source", "upload");
+		metadata.put("filename", filename);
+		metadata.put("contentType", contentType);
+		metadata.put("loginId", loginId);
+		if (docId != null) {
+			metadata.put("docId", docId);
+		}
+
+		var readResult = readerService.read(new FileSystemResource(file), filename, null);
+
+		Map<String, Object> baseMetadata = new HashMap<>(metadata);
+		baseMetadata.put("detectedType", readResult.detectedType().name());
+
+		return ingestionService.ingestDocuments(readResult.documents(), baseMetadata);
+	}
+
+	private void acquireFilePermit() {
+		try {
+			filePermits.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("파일 적재 대기 중 인터럽트되었습니다.", e);
+		}
+	}
+
+	/** 업로드 파트를 임시 파일로 복사한다. // 서블릿 컨테이너가 디스크에 둔 파트를 스트림으로 옮김 */
+	private static Path spoolToTempFile(MultipartFile file) throws IOException {
+		Path tempFile = Files.createTempFile("rag-upload-", ".tmp");
+		try {
+			// 컨테이너가 이미 디스크에 둔 part 는 복사 대신 이동(rename)된다.
+			file.transferTo(tempFile);
+			return tempFile;
+		} catch (IOException | RuntimeException e) {
+			deleteQuietly(tempFile);
+			throw e;
+		}
+	}
+
+	private static void deleteQuietly(Path path) {
+		try {
+			Files.deleteIfExists(path);
+		} catch (IOException e) {
+			log.warn("임시 파일 삭제 실패 ({}): {}", path, e.getMessage());
+		}
+	}
+
+	/** 파일명이 허용 확장자로 끝나는지 검사한다. */
+	public static boolean isSupportedFilename(String filename) {
+		String lower = filename.toLowerCase();
+		return ALLOWED_EXTENSIONS.stream().anyMatch(lower::endsWith);
 	}
 }
@@ -0,0 +1,222 @@
+package minkyu307.spring_ai.service;
+
+import lombok.extern.slf4j.Slf4j;
+import minkyu307.spring_ai.dto.RagIngestionJobDto;
+import minkyu307.spring_ai.dto.RagUrlIngestRequest;
+import minkyu307.spring_ai.dto.RagWikiIngestRequest;
+import minkyu307.spring_ai.exception.ResourceNotFoundException;
+import minkyu307.spring_ai.repository.RagIngestionJobJdbcRepository;
+import minkyu307.spring_ai.repository.RagIngestionJobJdbcRepository.JobRow;
+import minkyu307.spring_ai.repository.RagIngestionJobJdbcRepository.NewItem;
+import minkyu307.spring_ai.security.SecurityUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * 비동기 RAG 적재 작업 등록/조회 서비스. // 요청 스레드는 작업 등록까지만 수행하고 처리는 RagIngestionJobWorker 가 담당
+ * 업로드 파일은 재기동 후에도 이어서 처리할 수 있도록 storage-dir 아래 작업별 디렉터리에 보관한다.
+ */
+@Slf4j
+@Service
+public class RagIngestionJobService {
+
+	public static final String TYPE_UPLOAD = "UPLOAD";
+	public static final String TYPE_URL = "URL";
+	public static final String TYPE_WIKI = "WIKI";
+
+	public static final String KIND_FILE = "FILE";
+	public static final String KIND_URL = "URL";
+	public static final String KIND_WIKI_PAGE = "WIKI_PAGE";
+
+	private static final Duration PROGRESS_POLL_INTERVAL = Duration.ofSeconds(1);
+
+	private final RagIngestionJobJdbcRepository jobRepository;
+	private final RagUrlIngestionService urlIngestionService;
+	private final RagIngestionJobWorker worker;
+	private final Path storageDir;
+
+	public RagIngestionJobService(
+			RagIngestionJobJdbcRepository jobRepository,
+			RagUrlIngestionService urlIngestionService,
+			RagIngestionJobWorker worker,
+			@Value("${app.rag.jobs.storage-dir:${java.io.tmpdir}/rag-ingestion-jobs}") Path storageDir) {
+		this.jobRepository = jobRepository;
+		this.urlIngestionService = urlIngestionService;
+		this.worker = worker;
+		this.storageDir = storageDir;
+	}
+
+	/**
+	 * 업로드 파일을 작업 디렉터리에 저장하고 적재 작업을 등록한다. 빈 파일/미지원 형식은 동기 업로드와 같은 결과로 바로 기록한다.
+	 */
+	public RagIngestionJobDto submitUpload(List<MultipartFile> files) {
+		List<MultipartFile> safeFiles = files == null ? List.of() : files;
+		String loginId = SecurityUtils.getCurrentLoginId();
+		String jobId = UUID.randomUUID().toString();
+		Path jobDir = jobDirectory(jobId);
+
+		List<NewItem> items = new ArrayList<>(safeFiles.size());
+		try {
+			for (int i = 0; i < safeFiles.size(); i++) {
+				MultipartFile file = safeFiles.get(i);
+				if (file == null || file.isEmpty()) {
+					items.add(new NewItem(i, KIND_FILE, "(empty)", null, null, "SKIPPED", null));
+					continue;
+				}
+				String filename = file.getOriginalFilename() == null ? "unknown" : file.getOriginalFilename();
+				if (!RagFileUploadService.isSupportedFilename(filename)) {
+					items.add(new NewItem(i, KIND_FILE, filename, null, null, "FAILED", "지원하지 않는 파일 형식"));
+					continue;
+				}
+				try {
+					Path stored = store(file, jobDir.resolve(Integer.toString(i)));
+					items.add(new NewItem(i, KIND_FILE, filename, stored.toString(), file.getContentType(), "PENDING", null));
+				} catch (IOException e) {
+					items.add(new NewItem(i, KIND_FILE, filename, null, null, "FAILED", "파일 읽기 실패"));
+				}
+			}
+			jobRepository.insertJob(jobId, loginId, TYPE_UPLOAD, items);
+		} catch (RuntimeException e) {
+			deleteJobDirectory(jobId);
+			throw e;
+		}
+		return submitted(jobId, loginId);
+	}
+
+	/**
+	 * URL 적재 작업을 등록한다.
+	 */
+	public RagIngestionJobDto submitUrl(RagUrlIngestRequest request) {
+		URI uri = urlIngestionService.validateUrl(request);
+		String loginId = SecurityUtils.getCurrentLoginId();
+		String jobId = UUID.randomUUID().toString();
+		jobRepository.insertJob(jobId, loginId, TYPE_URL, List.of(
+				new NewItem(0, KIND_URL, uri.toString(), uri.toString(), null, "PENDING", null)));
+		return submitted(jobId, loginId);
+	}
+
+	/**
+	 * Wiki 페이지 적재 작업을 등록한다. 페이지마다 항목 1개.
+	 */
+	public RagIngestionJobDto submitWiki(RagWikiIngestRequest request) {
+		if (request == null || request.pages() == null || request.pages().isEmpty()) {
+			throw new IllegalArgumentException("적재할 페이지가 없습니다.");
+		}
+		String loginId = SecurityUtils.getCurrentLoginId();
+		String jobId = UUID.randomUUID().toString();
+		List<NewItem> items = new ArrayList<>(request.pages().size());
+		for (int i = 0; i < request.pages().size(); i++) {
+			RagWikiIngestRequest.WikiPageRef ref = request.pages().get(i);
+			items.add(new NewItem(i, KIND_WIKI_PAGE, ref.pageId(), ref.wikiId(), null, "PENDING", null));
+		}
+		jobRepository.insertJob(jobId, loginId, TYPE_WIKI, items);
+		return submitted(jobId, loginId);
+	}
+
+	/**
+	 * 현재 사용자의 작업 진행 상태를 조회한다. 없거나 다른 사용자 작업이면 404.
+	 */
+	public RagIngestionJobDto getJob(String jobId) {
+		return loadJob(jobId, SecurityUtils.getCurrentLoginId())
+				.orElseThrow(() -> new ResourceNotFoundException("적재 작업을 찾을 수 없습니다: " + jobId));
+	}
+
+	/**
+	 * 작업 진행 상태를 변경될 때마다 내보내고, 작업이 끝나면 완료 상태를 마지막으로 보내고 종료한다.
+	 * DB 를 주기적으로 조회하므로 재기동/다른 인스턴스의 워커가 처리한 진행도 그대로 반영된다.
+	 */
+	public Flux<RagIngestionJobDto> streamJob(String jobId) {
+		String loginId = SecurityUtils.getCurrentLoginId();
+		// 스트림 시작 전에 존재/소유 여부를 확인해 404 를 일반 응답으로 돌려준다.
+		getJob(jobId);
+		return Flux.interval(Duration.ZERO, PROGRESS_POLL_INTERVAL)
+				.onBackpressureDrop()
+				.concatMap(tick -> Mono.fromCallable(() -> loadJob(jobId, loginId))
+						.subscribeOn(Schedulers.boundedElastic()))
+				.takeWhile(Optional::isPresent)
+				.map(Optional::get)
+				.distinctUntilChanged(RagIngestionJobDto::updatedAt)
+				.takeUntil(job -> "COMPLETED".equals(job.status()));
+	}
+
+	/**
+	 * 작업 등록에 실패했을 때 저장해 둔 업로드 파일을 삭제한다. // 정상 처리된 파일은 워커가 항목 완료 시 삭제
+	 */
+	private void deleteJobDirectory(String jobId) {
+		Path jobDir = jobDirectory(jobId);
+		if (!Files.exists(jobDir)) {
+			return;
+		}
+		try (Stream<Path> paths = Files.walk(jobDir)) {
+			for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+				Files.deleteIfExists(path);
+			}
+		} catch (IOException e) {
+			log.warn("적재 작업 임시 디렉터리 삭제 실패 (jobId={}): {}", jobId, e.getMessage());
+		}
+	}
+
+	private RagIngestionJobDto submitted(String jobId, String loginId) {
+		worker.wakeUp();
+		return loadJob(jobId, loginId).orElseThrow();
+	}
+
+	private Optional<RagIngestionJobDto> loadJob(String jobId, String loginId) {
+		JobRow job = jobRepository.findJob(jobId, loginId);
+		if (job == null) {
+			return Optional.empty();
+		}
+		List<RagIngestionJobDto.Item> items = jobRepository.findItems(jobId).stream()
+				.map(item -> new RagIngestionJobDto.Item(
+						item.itemIndex(),
+						item.kind(),
+						item.name(),
+						item.status(),
+						item.attempts(),
+						item.docId(),
+						item.title(),
+						item.chunksIngested(),
+						item.error()))
+				.toList();
+		return Optional.of(new RagIngestionJobDto(
+				job.id(),
+				job.type(),
+				job.status(),
+				job.totalItems(),
+				job.succeededItems(),
+				job.failedItems(),
+				job.skippedItems(),
+				job.totalChunks(),
+				job.createdAt(),
+				job.startedAt(),
+				job.finishedAt(),
+				job.updatedAt(),
+				items));
+	}
+
+	private Path jobDirectory(String jobId) {
+		return storageDir.resolve(jobId);
+	}
+
+	private static Path store(MultipartFile file, Path target) throws IOException {
+		Files.createDirectories(target.getParent());
+		file.transferTo(target); // 같은 파일시스템이면 컨테이너의 part 파일을 이동(rename)
+		return target;
+	}
+}
@@ -0,0 +1,293 @@
+package minkyu307.spring_ai.service;
+
+import lombok.extern.slf4j.Slf4j;
+import minkyu307.spring_ai.dto.RagUrlIngestResponse;
+import minkyu307.spring_ai.dto.RagWikiIngestRequest;
+import minkyu307.spring_ai.dto.RagWikiIngestResponse;
+import minkyu307.spring_ai.repository.RagIngestionJobJdbcRepository;
+import minkyu307.spring_ai.repository.RagIngestionJobJdbcRepository.ClaimedItem;
+import minkyu307.spring_ai.repository.RagIngestionJobJdbcRepository.ItemResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * rag_ingestion_job_item 큐를 소비하는 적재 워커. workers 개수만큼의 가상 스레드가 항목을 하나씩 임대해 처리하므로
+ * 동시 적재 수는 workers 로 제한된다. 처리 중에는 임대를 주기적으로 연장하고, 워커가 중단되면(재기동 포함)
+ * 임대 만료 후 다른 워커가 같은 항목을 이어서 처리한다. 연장에 실패해 임대를 잃으면(다른 워커가 가져감)
+ * 처리 중인 적재를 인터럽트로 중단하고 결과를 기록하지 않는다.
+ */
+@Slf4j
+@Component
+public class RagIngestionJobWorker implements SmartLifecycle {
+
+	private final RagIngestionJobJdbcRepository jobRepository;
+	private final RagFileUploadService fileUploadService;
+	private final RagUrlIngestionService urlIngestionService;
+	private final RagWikiIngestionService wikiIngestionService;
+	private final DoorayWikiApiClient doorayWikiApiClient;
+	private final RagDocumentManagementService documentManagementService;
+
+	private final int workerCount;
+	private final Duration pollInterval;
+	private final Duration lease;
+	private final int maxAttempts;
+
+	private final Semaphore wakeups = new Semaphore(0);
+	private final List<Thread> workers = new ArrayList<>();
+	private ScheduledExecutorService leaseRenewer;
+	private volatile boolean running;
+
+	public RagIngestionJobWorker(
+			RagIngestionJobJdbcRepository jobRepository,
+			RagFileUploadService fileUploadService,
+			RagUrlIngestionService urlIngestionService,
+			RagWikiIngestionService wikiIngestionService,
+			DoorayWikiApiClient doorayWikiApiClient,
+			RagDocumentManagementService documentManagementService,
+			@Value("${app.rag.jobs.workers:2}") int workerCount,
+			@Value("${app.rag.jobs.poll-interval:5s}") Duration pollInterval,
+			@Value("${app.rag.jobs.lease:2m}") Duration lease,
+			@Value("${app.rag.jobs.max-attempts:3}") int maxAttempts) {
+		if (workerCount < 1 || maxAttempts < 1 || lease.toSeconds() < 3) {
+			throw new IllegalArgumentException("app.rag.jobs.* 설정이 올바르지 않습니다.");
+		}
+		this.jobRepository = jobRepository;
+		this.fileUploadService = fileUploadService;
+		this.urlIngestionService = urlIngestionService;
+		this.wikiIngestionService = wikiIngestionService;
+		this.doorayWikiApiClient = doorayWikiApiClient;
+		this.documentManagementService = documentManagementService;
+		this.workerCount = workerCount;
+		this.pollInterval = pollInterval;
+		this.lease = lease;
+		this.maxAttempts = maxAttempts;
+	}
+
+	@Override
+	public synchronized void start() {
+		if (running) {
+			return;
+		}
+		running = true;
+		leaseRenewer = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("rag-job-lease").factory());
+		for (int i = 0; i < workerCount; i++) {
+			workers.add(Thread.ofVirtual().name("rag-job-worker-" + i).start(this::runLoop));
+		}
+	}
+
+	@Override
+	public synchronized void stop() {
+		running = false;
+		wakeups.release(workerCount);
+		for (Thread worker : workers) {
+			try {
+				// 처리 중인 항목은 끝까지 기다리지 않는다. 남은 항목은 임대 만료 후 재기동된 워커가 이어서 처리한다.
+				worker.join(Duration.ofSeconds(10));
+				worker.interrupt();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		workers.clear();
+		leaseRenewer.shutdownNow();
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * 새 작업이 등록되었음을 알려 대기 중인 워커를 깨운다.
+	 */
+	public void wakeUp() {
+		wakeups.release();
+	}
+
+	private void runLoop() {
+		while (running) {
+			try {
+				ClaimedItem item = jobRepository.claimNextItem(lease);
+				if (item == null) {
+					wakeups.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+					wakeups.drainPermits();
+					continue;
+				}
+				process(item);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (RuntimeException e) {
+				log.error("적재 작업 큐 처리 실패", e);
+				sleepQuietly(pollInterval);
+			}
+		}
+	}
+
+	private void process(ClaimedItem item) {
+		jobRepository.refreshJob(item.jobId());
+		long renewEverySeconds = Math.max(1, lease.toSeconds() / 3);
+		LeaseGuard guard = new LeaseGuard(Thread.currentThread());
+		ScheduledFuture<?> renewal = leaseRenewer.scheduleAtFixedRate(
+				() -> renewLease(item, guard), renewEverySeconds, renewEverySeconds, TimeUnit.SECONDS);
+		ItemResult result;
+		try {
+			result = ingest(item);
+		} catch (RuntimeException e) {
+			if (!running) {
+				// 종료 중 중단된 항목은 실패로 기록하지 않고 재기동 후 다시 처리한다.
+				log.info("종료로 적재 항목 처리 중단 (jobId={}, index={})", item.jobId(), item.itemIndex());
+				return;
+			}
+			String msg = (e.getMessage() == null || e.getMessage().isBlank()) ? "적재 실패" : e.getMessage();
+			result = new ItemResult("FAILED", null, null, 0, msg);
+		} finally {
+			renewal.cancel(false);
+		}
+		if (guard.finish()) {
+			// 다른 워커가 이어서 처리하므로 결과도, 업로드 파일 정리도 그쪽에 맡긴다.
+			log.warn("적재 항목 임대를 잃어 처리 중단 (jobId={}, index={}, attempts={})",
+					item.jobId(), item.itemIndex(), item.attempts());
+			return;
+		}
+		if (!jobRepository.completeItem(item.id(), item.attempts(), item.jobId(), result)) {
+			log.warn("적재 항목이 다른 워커에 회수되어 결과를 기록하지 않음 (jobId={}, index={}, attempts={})",
+					item.jobId(), item.itemIndex(), item.attempts());
+			return;
+		}
+		if (RagIngestionJobService.KIND_FILE.equals(item.kind())) {
+			deleteStoredFile(item.payload());
+		}
+	}
+
+	private ItemResult ingest(ClaimedItem item) {
+		// 항목별로 고정된 docId 를 써서 중단 후 재시도할 때 이전 시도의 부분 적재를 지우고 다시 적재한다.
+		String docId = UUID.nameUUIDFromBytes(
+				(item.jobId() + ":" + item.itemIndex()).getBytes(StandardCharsets.UTF_8)).toString();
+		if (item.attempts() > 1) {
+			documentManagementService.deleteDocument(docId, item.loginId());
+		}
+		if (item.attempts() > maxAttempts) {
+			return new ItemResult("FAILED", null, null, 0, "처리가 반복해서 중단되어 적재를 중단했습니다.");
+		}
+
+		return switch (item.kind()) {
+			case RagIngestionJobService.KIND_FILE -> ingestFile(item, docId);
+			case RagIngestionJobService.KIND_URL -> ingestUrl(item, docId);
+			case RagIngestionJobService.KIND_WIKI_PAGE -> ingestWikiPage(item, docId);
+			default -> new ItemResult("FAILED", null, null, 0, "알 수 없는 항목 유형: " + item.kind());
+		};
+	}
+
+	private ItemResult ingestFile(ClaimedItem item, String docId) {
+		Path file = item.payload() == null ? null : Path.of(item.payload());
+		if (file == null || !Files.exists(file)) {
+			return new ItemResult("FAILED", null, null, 0, "업로드 파일을 찾을 수 없습니다.");
+		}
+		DocumentIngestionService.IngestionResult result = fileUploadService.ingestStoredFile(
+				file, item.name(), item.contentType(), item.loginId(), docId);
+		return new ItemResult("SUCCEEDED", result.docId(), result.title(), result.chunksIngested(), null);
+	}
+
+	private ItemResult ingestUrl(ClaimedItem item, String docId) {
+		RagUrlIngestResponse response = urlIngestionService.ingest(URI.create(item.payload()), item.loginId(), docId);
+		return new ItemResult("SUCCEEDED", response.docId(), response.title(), response.chunksIngested(), null);
+	}
+
+	private ItemResult ingestWikiPage(ClaimedItem item, String docId) {
+		RagWikiIngestResponse.PageResult page = wikiIngestionService.ingestPage(
+				new RagWikiIngestRequest.WikiPageRef(item.payload(), item.name()),
+				item.loginId(),
+				doorayWikiApiClient.createAuthenticatedEntity(item.loginId()),
+				docId);
+		if (!"SUCCESS".equals(page.status())) {
+			return new ItemResult("FAILED", null, page.title(), 0, page.error());
+		}
+		return new ItemResult("SUCCEEDED", docId, page.title(), page.chunksIngested(), null);
+	}
+
+	private void renewLease(ClaimedItem item, LeaseGuard guard) {
+		try {
+			if (!jobRepository.extendLease(item.id(), item.attempts(), lease)) {
+				guard.lose();
+			}
+		} catch (RuntimeException e) {
+			log.warn("적재 항목 임대 연장 실패 (jobId={}, index={}): {}", item.jobId(), item.itemIndex(), e.getMessage());
+		}
+	}
+
+	/**
+	 * 처리 끝난 업로드 파일을 지우고, 작업 디렉터리가 비었으면(마지막 항목) 디렉터리도 지운다.
+	 */
+	private static void deleteStoredFile(String payload) {
+		if (payload == null) {
+			return;
+		}
+		Path file = Path.of(payload);
+		try {
+			Files.deleteIfExists(file);
+			if (file.getParent() != null) {
+				Files.deleteIfExists(file.getParent());
+			}
+		} catch (DirectoryNotEmptyException ignored) {
+			// 같은 작업의 다른 파일이 아직 처리 중이다.
+		} catch (IOException e) {
+			log.warn("적재 작업 임시 파일 삭제 실패 ({}): {}", file, e.getMessage());
+		}
+	}
+
+	/**
+	 * 처리 중인 항목의 임대 상실 여부. lose 는 처리가 끝나기 전일 때만 처리 스레드를 인터럽트하고,
+	 * finish 는 그 이후의 인터럽트를 막은 뒤 남은 인터럽트 상태를 지워 워커 루프가 계속 돌게 한다.
+	 */
+	private static final class LeaseGuard {
+
+		private final Thread worker;
+		private boolean lost;
+		private boolean finished;
+
+		private LeaseGuard(Thread worker) {
+			this.worker = worker;
+		}
+
+		synchronized void lose() {
+			if (!finished && !lost) {
+				lost = true;
+				worker.interrupt();
+			}
+		}
+
+		synchronized boolean finish() {
+			finished = true;
+			if (lost) {
+				Thread.interrupted();
+			}
+			return lost;
+		}
+	}
+
+	private static void sleepQuietly(Duration duration) {
+		try {
+			Thread.sleep(duration);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
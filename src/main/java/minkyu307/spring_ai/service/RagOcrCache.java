@@ -0,0 +1,122 @@
+package minkyu307.spring_ai.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import minkyu307.spring_ai.repository.RagOcrCacheJdbcRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PDF 페이지 OCR 결과 영속 캐시. // 재적재되는 문서의 변경 없는 페이지는 멀티모달 LLM 호출을 생략
+ * 키는 (프롬프트 버전, DPI, 렌더링 PNG 바이트)의 SHA-256 이며, 최근 사용 순으로 max-entries 건까지만 보관한다.
+ * 캐시 조회/저장 실패는 OCR 을 막지 않도록 로그만 남기고 미스로 처리한다.
+ */
+@Slf4j
+@Service
+public class RagOcrCache {
+
+	private static final String METRIC_PREFIX = "rag.ocr.cache";
+	// 정리 쿼리는 테이블 전체 정렬이 필요하므로 저장이 일정 건수 쌓일 때마다만 실행한다.
+	private static final int EVICTION_CHECK_INTERVAL = 100;
+
+	private final RagOcrCacheJdbcRepository ocrCacheJdbcRepository;
+	private final boolean enabled;
+	private final long maxEntries;
+	private final AtomicInteger storesSinceEviction = new AtomicInteger();
+
+	private final Counter hits;
+	private final Counter misses;
+	private final Counter evictions;
+
+	public RagOcrCache(
+			RagOcrCacheJdbcRepository ocrCacheJdbcRepository,
+			MeterRegistry meterRegistry,
+			@Value("${app.rag.ocr.cache.enabled:true}") boolean enabled,
+			@Value("${app.rag.ocr.cache.max-entries:50000}") long maxEntries) {
+		if (maxEntries < 1) {
+			throw new IllegalArgumentException("app.rag.ocr.cache.max-entries 값은 1 이상이어야 합니다.");
+		}
+		this.ocrCacheJdbcRepository = ocrCacheJdbcRepository;
+		this.enabled = enabled;
+		this.maxEntries = maxEntries;
+		this.hits = Counter.builder(METRIC_PREFIX + ".lookups").tag("result", "hit").register(meterRegistry);
+		this.misses = Counter.builder(METRIC_PREFIX + ".lookups").tag("result", "miss").register(meterRegistry);
+		this.evictions = Counter.builder(METRIC_PREFIX + ".evictions")
+				.description("용량 제한으로 삭제된 OCR 캐시 항목 수")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * 렌더링된 페이지 이미지의 캐시 키를 만든다.
+	 */
+	public static String cacheKey(byte[] pngBytes, int dpi, String promptVersion) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(promptVersion.getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+			digest.update(Integer.toString(dpi).getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+			digest.update(pngBytes);
+			return HexFormat.of().formatHex(digest.digest());
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 을 사용할 수 없습니다.", e);
+		}
+	}
+
+	/**
+	 * 캐시된 OCR 텍스트를 조회한다.
+	 */
+	public Optional<String> find(String cacheKey) {
+		if (!enabled) {
+			return Optional.empty();
+		}
+		try {
+			Optional<String> text = ocrCacheJdbcRepository.findTextAndTouch(cacheKey);
+			(text.isPresent() ? hits : misses).increment();
+			return text;
+		} catch (RuntimeException e) {
+			log.warn("OCR 캐시 조회 실패: {}", e.getMessage());
+			misses.increment();
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * OCR 텍스트를 저장한다. 빈 결과(OCR 실패/시간 초과 포함)는 다음 적재 때 다시 시도하도록 저장하지 않는다.
+	 */
+	public void store(String cacheKey, String text) {
+		if (!enabled || text == null || text.isBlank()) {
+			return;
+		}
+		try {
+			ocrCacheJdbcRepository.upsert(cacheKey, text);
+		} catch (RuntimeException e) {
+			log.warn("OCR 캐시 저장 실패: {}", e.getMessage());
+			return;
+		}
+		if (storesSinceEviction.incrementAndGet() >= EVICTION_CHECK_INTERVAL) {
+			storesSinceEviction.set(0);
+			evictOverflow();
+		}
+	}
+
+	private void evictOverflow() {
+		try {
+			int deleted = ocrCacheJdbcRepository.deleteLeastRecentlyUsedBeyond(maxEntries);
+			if (deleted > 0) {
+				evictions.increment(deleted);
+				log.info("OCR 캐시 정리: {}건 삭제", deleted);
+			}
+		} catch (RuntimeException e) {
+			log.warn("OCR 캐시 정리 실패: {}", e.getMessage());
+		}
+	}
+}
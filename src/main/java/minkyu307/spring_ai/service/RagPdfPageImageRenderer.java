@@ -0,0 +1,129 @@
+package minkyu307.spring_ai.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * OCR 전송용 PDF 페이지 이미지를 만든다. // 페이지 크기에 맞춘 DPI + 흑백 렌더링 + 빠른 PNG 압축
+ * 긴 변 픽셀 수가 max-long-edge-pixels 를 넘지 않도록 DPI 를 고르고, 인코딩 결과가 max-image-bytes 를 넘으면
+ * 크기 비율만큼 DPI 를 낮춰 다시 렌더링한다. PDFRenderer 는 스레드 안전하지 않으므로 호출자가 문서별로 직렬 호출한다.
+ */
+@Slf4j
+@Component
+public class RagPdfPageImageRenderer {
+
+	private static final float POINTS_PER_INCH = 72f;
+	private static final int MAX_RENDER_ATTEMPTS = 3;
+	// 0.85 → deflate 레벨 1. 흑백 텍스트 페이지는 압축률 차이가 작고 인코딩 시간은 크게 줄어든다.
+	private static final float PNG_COMPRESSION_QUALITY = 0.85f;
+
+	private final ImageType imageType;
+	private final int maxDpi;
+	private final int minDpi;
+	private final int maxLongEdgePixels;
+	private final long maxImageBytes;
+
+	private final DistributionSummary imageBytes;
+	private final Counter downscales;
+
+	public RagPdfPageImageRenderer(
+			MeterRegistry meterRegistry,
+			@Value("${app.rag.ocr.render.image-type:GRAY}") ImageType imageType,
+			@Value("${app.rag.ocr.render.max-dpi:160}") int maxDpi,
+			@Value("${app.rag.ocr.render.min-dpi:72}") int minDpi,
+			@Value("${app.rag.ocr.render.max-long-edge-pixels:2000}") int maxLongEdgePixels,
+			@Value("${app.rag.ocr.render.max-image-size:1MB}") DataSize maxImageSize) {
+		if (minDpi < 1 || maxDpi < minDpi || maxLongEdgePixels < 1 || maxImageSize.toBytes() < 1) {
+			throw new IllegalArgumentException("app.rag.ocr.render.* 설정이 올바르지 않습니다.");
+		}
+		this.imageType = imageType;
+		this.maxDpi = maxDpi;
+		this.minDpi = minDpi;
+		this.maxLongEdgePixels = maxLongEdgePixels;
+		this.maxImageBytes = maxImageSize.toBytes();
+		this.imageBytes = DistributionSummary.builder("rag.ocr.page.image.bytes")
+				.description("OCR 요청에 담긴 페이지 이미지 크기")
+				.baseUnit("bytes")
+				.register(meterRegistry);
+		this.downscales = Counter.builder("rag.ocr.page.image.downscales")
+				.description("크기 상한 초과로 DPI 를 낮춰 다시 렌더링한 횟수")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * 페이지를 PNG 로 렌더링한다.
+	 */
+	public RenderedPage render(PDDocument pdf, PDFRenderer renderer, int pageIndex) throws IOException {
+		int dpi = initialDpi(pdf.getPage(pageIndex).getCropBox());
+		byte[] png = null;
+		for (int attempt = 1; attempt <= MAX_RENDER_ATTEMPTS; attempt++) {
+			BufferedImage image = renderer.renderImageWithDPI(pageIndex, dpi, imageType);
+			png = encodePng(image);
+			if (png.length <= maxImageBytes || dpi <= minDpi || attempt == MAX_RENDER_ATTEMPTS) {
+				break;
+			}
+			// 인코딩 크기는 대략 픽셀 수(DPI 제곱)에 비례하므로 초과 비율의 제곱근만큼 낮추고 여유를 둔다.
+			int reduced = (int) (dpi * Math.sqrt((double) maxImageBytes / png.length) * 0.9);
+			dpi = Math.max(minDpi, Math.min(reduced, dpi - 1));
+			downscales.increment();
+		}
+		if (png.length > maxImageBytes) {
+			log.warn("OCR 페이지 이미지가 크기 상한을 넘습니다 (page={}, dpi={}, bytes={})", pageIndex + 1, dpi, png.length);
+		}
+		imageBytes.record(png.length);
+		return new RenderedPage(png, dpi);
+	}
+
+	/**
+	 * 긴 변 픽셀 수 상한에 맞춰 시작 DPI 를 정한다. // 대형 도면/포스터 페이지의 초대형 이미지 방지
+	 */
+	int initialDpi(PDRectangle box) {
+		float longEdgeInches = Math.max(box.getWidth(), box.getHeight()) / POINTS_PER_INCH;
+		if (longEdgeInches <= 0) {
+			return maxDpi;
+		}
+		int fitted = (int) (maxLongEdgePixels / longEdgeInches);
+		return Math.max(minDpi, Math.min(maxDpi, fitted));
+	}
+
+	private static byte[] encodePng(BufferedImage image) throws IOException {
+		ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (ImageOutputStream out = ImageIO.createImageOutputStream(baos)) {
+			writer.setOutput(out);
+			ImageWriteParam param = writer.getDefaultWriteParam();
+			if (param.canWriteCompressed()) {
+				param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+				param.setCompressionQuality(PNG_COMPRESSION_QUALITY);
+			}
+			writer.write(null, new IIOImage(image, null, null), param);
+		} finally {
+			writer.dispose();
+		}
+		return baos.toByteArray();
+	}
+
+	/**
+	 * 렌더링된 페이지 PNG 와 실제 사용한 DPI.
+	 */
+	public record RenderedPage(byte[] png, int dpi) {
+	}
+}
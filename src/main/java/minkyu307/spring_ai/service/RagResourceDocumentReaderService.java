@@ -1,6 +1,9 @@
 package minkyu307.spring_ai.service;
 
+import lombok.extern.slf4j.Slf4j;
+import minkyu307.spring_ai.service.RagPdfPageImageRenderer.RenderedPage;
 import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.rendering.PDFRenderer;
 import org.apache.pdfbox.text.PDFTextStripper;
@@ -13,30 +16,46 @@ import org.springframework.ai.reader.jsoup.JsoupDocumentReader;
 import org.springframework.ai.reader.jsoup.config.JsoupDocumentReaderConfig;
 import org.springframework.ai.reader.markdown.MarkdownDocumentReader;
 import org.springframework.ai.reader.markdown.config.MarkdownDocumentReaderConfig;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import org.springframework.util.MimeTypeUtils;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * 다양한 소스(Resource)에서 Document를 생성하는 공통 Reader 서비스.
  * - HTML: JsoupDocumentReader (본문 selector 우선, 실패 시 body 전체)
  * - Markdown: MarkdownDocumentReader
  * - Text: TextReader
- * - PDF: 페이지 단위 텍스트 추출 + (텍스트 부족 시) 이미지 기반 OCR(멀티모달 LLM) fallback
+ * - PDF: 페이지 단위 텍스트 추출 + (텍스트 부족 시) 이미지 기반 OCR(멀티모달 LLM) fallback, OCR 은 페이지 병렬 수행
  * - DOCX/PPTX: Apache POI(poi-ooxml)로 텍스트 추출
  */
+@Slf4j
 @Service
 public class RagResourceDocumentReaderService {
 
@@ -44,12 +63,32 @@ public class RagResourceDocumentReaderService {
 			"article, main, [role=main], #content, .content, .markdown-body, .wiki-content, .doc-content, .document-content";
 
 	private static final int PDF_OCR_MIN_TEXT_LENGTH = 20;
-	private static final int PDF_OCR_RENDER_DPI = 160;
+	// OCR 캐시 키 구성 요소. 프롬프트(출력 형식)를 바꾸면 올려서 이전 결과를 재사용하지 않게 한다.
+	private static final String PDF_OCR_PROMPT_VERSION = "v1";
+	// PDFBox 스트림 캐시의 힙 사용 상한. 초과분은 임시 파일로 내린다.
+	private static final long PDF_MAX_MAIN_MEMORY_BYTES = 8L * 1024 * 1024;
 
 	private final ChatClient ocrChatClient;
-
-	public RagResourceDocumentReaderService(ChatClient.Builder chatClientBuilder) {
+	private final RagOcrCache ocrCache;
+	private final RagPdfPageImageRenderer pageImageRenderer;
+	private final Semaphore ocrPermits;
+	private final Duration ocrPageTimeout;
+
+	public RagResourceDocumentReaderService(
+			ChatClient.Builder chatClientBuilder,
+			RagOcrCache ocrCache,
+			RagPdfPageImageRenderer pageImageRenderer,
+			@Value("${app.rag.ocr.concurrency:4}") int ocrConcurrency,
+			@Value("${app.rag.ocr.page-timeout:60s}") Duration ocrPageTimeout) {
+		if (ocrConcurrency < 1) {
+			throw new IllegalArgumentException("app.rag.ocr.concurrency 값은 1 이상이어야 합니다.");
+		}
 		this.ocrChatClient = chatClientBuilder.build();
+		this.ocrCache = ocrCache;
+		this.pageImageRenderer = pageImageRenderer;
+		// 애플리케이션 전체 동시 OCR 호출 수 상한. 렌더링된 페이지 이미지가 메모리에 쌓이는 양도 함께 제한한다.
+		this.ocrPermits = new Semaphore(ocrConcurrency, true);
+		this.ocrPageTimeout = ocrPageTimeout;
 	}
 
 	public enum DetectedType {
@@ -183,43 +222,66 @@ public class RagResourceDocumentReaderService {
 
 	/**
 	 * PDF를 페이지 단위 Document로 생성한다.
-	 * - 텍스트가 충분하면 PDFBox 텍스트 추출 결과 사용
-	 * - 텍스트가 부족하면 해당 페이지를 이미지로 렌더링 후 멀티모달 LLM로 OCR 수행
+	 * - 1단계: 전 페이지 PDFBox 텍스트 추출 (텍스트가 충분한 페이지는 그대로 사용)
+	 * - 2단계: 텍스트가 부족한 페이지를 이미지로 렌더링하고 멀티모달 LLM OCR 을 가상 스레드에서 병렬 수행
+	 * - 결과는 페이지 순서대로 재조립한다. OCR 실패/시간 초과 페이지는 추출 텍스트(없으면 제외)로 대체한다.
+	 * 파일 기반 Resource 는 그대로, 그 외는 임시 파일로 복사한 뒤 파일에서 필요한 부분만 읽어 파싱한다. // 전체 바이트 힙 적재 방지
 	 */
 	private List<Document> readPdfPagesWithOcr(Resource resource, String filename) {
-		byte[] pdfBytes;
-		try (InputStream in = resource.getInputStream()) {
-			pdfBytes = in.readAllBytes();
+		Path spooled = null;
+		try {
+			File pdfFile;
+			try {
+				if (resource.isFile()) {
+					pdfFile = resource.getFile();
+				}
+				else {
+					spooled = spoolToTempFile(resource);
+					pdfFile = spooled.toFile();
+				}
+			}
+			catch (Exception e) {
+				throw new IllegalArgumentException("PDF 읽기 실패");
+			}
+			return readPdfPagesWithOcr(pdfFile, filename);
 		}
-		catch (Exception e) {
-			throw new IllegalArgumentException("PDF 읽기 실패");
+		finally {
+			deleteQuietly(spooled);
 		}
+	}
 
-		try (PDDocument pdf = Loader.loadPDF(pdfBytes)) {
-			PDFRenderer renderer = new PDFRenderer(pdf);
+	private List<Document> readPdfPagesWithOcr(File pdfFile, String filename) {
+		try (PDDocument pdf = Loader.loadPDF(pdfFile, MemoryUsageSetting.setupMixed(PDF_MAX_MAIN_MEMORY_BYTES).streamCache)) {
 			PDFTextStripper stripper = new PDFTextStripper();
-
-			List<Document> documents = new ArrayList<>();
 			int pages = pdf.getNumberOfPages();
 
+			String[] pageTexts = new String[pages];
+			List<Integer> ocrPageIndexes = new ArrayList<>();
 			for (int i = 0; i < pages; i++) {
-				int pageNumber = i + 1;
-				String text = extractPdfTextForPage(stripper, pdf, pageNumber);
+				pageTexts[i] = extractPdfTextForPage(stripper, pdf, i + 1);
+				if (needsOcr(pageTexts[i])) {
+					ocrPageIndexes.add(i);
+				}
+			}
 
-				if (text == null || text.isBlank() || text.strip().length() < PDF_OCR_MIN_TEXT_LENGTH) {
-					String ocr = ocrPdfPage(renderer, pdf, i, filename, pageNumber);
+			if (!ocrPageIndexes.isEmpty()) {
+				ocrPagesConcurrently(pdf, ocrPageIndexes, filename).forEach((pageIndex, ocr) -> {
 					if (ocr != null && !ocr.isBlank()) {
-						text = ocr;
+						pageTexts[pageIndex] = ocr;
 					}
-				}
+				});
+			}
 
+			List<Document> documents = new ArrayList<>();
+			for (int i = 0; i < pages; i++) {
+				String text = pageTexts[i];
 				if (text == null || text.isBlank()) {
 					continue;
 				}
 
 				Map<String, Object> meta = new HashMap<>();
 				meta.put("filename", filename == null ? "unknown" : filename);
-				meta.put("pageNumber", pageNumber);
+				meta.put("pageNumber", i + 1);
 				meta.put("source", "pdf");
 				meta.put("extractedAt", Instant.now().toString());
 
@@ -233,62 +295,212 @@ public class RagResourceDocumentReaderService {
 		}
 	}
 
-	private static String extractPdfTextForPage(PDFTextStripper stripper, PDDocument pdf, int pageNumber) {
+	private static Path spoolToTempFile(Resource resource) throws IOException {
+		Path tempFile = Files.createTempFile("rag-pdf-", ".pdf");
+		try (InputStream in = resource.getInputStream(); OutputStream out = Files.newOutputStream(tempFile)) {
+			in.transferTo(out);
+			return tempFile;
+		}
+		catch (IOException | RuntimeException e) {
+			deleteQuietly(tempFile);
+			throw e;
+		}
+	}
+
+	private static void deleteQuietly(Path path) {
+		if (path == null) {
+			return;
+		}
 		try {
-			stripper.setStartPage(pageNumber);
-			stripper.setEndPage(pageNumber);
-			return stripper.getText(pdf);
+			Files.deleteIfExists(path);
 		}
-		catch (Exception e) {
-			return "";
+		catch (IOException e) {
+			log.warn("임시 파일 삭제 실패 ({}): {}", path, e.getMessage());
 		}
 	}
 
+	private static boolean needsOcr(String text) {
+		return text == null || text.isBlank() || text.strip().length() < PDF_OCR_MIN_TEXT_LENGTH;
+	}
+
 	/**
-	 * PDF 페이지 이미지를 멀티모달 LLM로 OCR한다. // 출력은 "추출 텍스트만" 엄격 강제
+	 * OCR 대상 페이지를 순서대로 렌더링(PDFBox 는 스레드 안전하지 않아 호출 스레드에서 수행)하고,
+	 * OCR 캐시에 없는 이미지만 OCR 호출을 가상 스레드로 넘긴다. 동시 OCR 수는 ocrPermits 로 제한하고
+	 * 페이지별로 제출 시점부터 ocrPageTimeout 이 지나면 해당 페이지를 포기한다. 반환 맵은 pageIndex → OCR 텍스트.
+	 * 허가는 제출 전에 ocrPageTimeout 까지만 기다려 얻고(못 얻으면 해당 페이지는 OCR 생략) 작업에 넘기며, 시작 전에 취소된 작업의 허가는 취소한 쪽이 반납한다(started 로 소유권 결정).
+	 * 포기한 페이지는 기다리지 않고 인터럽트만 보내므로(shutdownNow) 인터럽트를 무시하는 OCR 호출도 적재를 붙잡지 않으며,
+	 * 그 호출의 허가는 실제로 끝날 때 반납된다.
 	 */
-	private String ocrPdfPage(PDFRenderer renderer, PDDocument pdf, int pageIndex, String filename, int pageNumber) {
+	private Map<Integer, String> ocrPagesConcurrently(PDDocument pdf, List<Integer> pageIndexes, String filename) {
+		PDFRenderer renderer = new PDFRenderer(pdf);
+		Map<Integer, PendingOcr> pending = new LinkedHashMap<>();
+		Map<Integer, String> results = new HashMap<>();
+
+		ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
 		try {
-			BufferedImage image = renderer.renderImageWithDPI(pageIndex, PDF_OCR_RENDER_DPI);
-			ByteArrayOutputStream baos = new ByteArrayOutputStream();
-			ImageIO.write(image, "png", baos);
-			byte[] pngBytes = baos.toByteArray();
-
-			ByteArrayResource imageResource = new ByteArrayResource(pngBytes) {
-				@Override
-				public String getFilename() {
-					String base = filename == null ? "document" : filename;
-					return base + "-page-" + pageNumber + ".png";
+			for (int pageIndex : pageIndexes) {
+				int pageNumber = pageIndex + 1;
+				// 허가를 먼저 얻어 렌더링된 이미지가 동시 OCR 수 이상 대기하지 않게 한다.
+				if (!tryAcquireOcrPermit()) {
+					log.warn("PDF 페이지 OCR 허가 대기 시간 초과 (file={}, page={}, timeout={})", filename, pageNumber, ocrPageTimeout);
+					continue;
+				}
+				RenderedPage page;
+				try {
+					page = pageImageRenderer.render(pdf, renderer, pageIndex);
+				} catch (Exception e) {
+					ocrPermits.release();
+					log.warn("PDF 페이지 렌더링 실패 (file={}, page={}): {}", filename, pageNumber, e.getMessage());
+					continue;
+				}
+				String cacheKey = RagOcrCache.cacheKey(page.png(), page.dpi(), PDF_OCR_PROMPT_VERSION);
+				Optional<String> cached = ocrCache.find(cacheKey);
+				if (cached.isPresent()) {
+					ocrPermits.release();
+					results.put(pageIndex, cached.get());
+					continue;
+				}
+				AtomicBoolean started = new AtomicBoolean();
+				Future<String> future;
+				try {
+					future = executor.submit(() -> {
+						if (!started.compareAndSet(false, true)) {
+							// 시작 전에 취소되어 허가는 이미 취소한 쪽이 반납했다.
+							return "";
+						}
+						try {
+							String text = ocrPageImage(page.png(), filename, pageNumber);
+							ocrCache.store(cacheKey, text);
+							return text;
+						} finally {
+							ocrPermits.release();
+						}
+					});
+				} catch (RuntimeException e) {
+					ocrPermits.release();
+					throw e;
 				}
-			};
+				pending.put(pageIndex, new PendingOcr(future, started, System.nanoTime() + ocrPageTimeout.toNanos()));
+			}
 
-			String prompt = """
-					Role: You are an OCR engine.
+			for (Map.Entry<Integer, PendingOcr> entry : pending.entrySet()) {
+				results.put(entry.getKey(), awaitOcr(entry.getValue(), filename, entry.getKey() + 1));
+			}
+		} finally {
+			// 완료되지 않은 페이지(인터럽트/예외/시간 초과)는 취소하고, 실행 중인 호출은 기다리지 않는다.
+			pending.values().forEach(this::abandon);
+			executor.shutdownNow();
+		}
+		return results;
+	}
 
-					Goal: Extract ONLY the characters that are actually visible in the attached image (a PDF page) as plain text, as faithfully as possible.
+	private String awaitOcr(PendingOcr ocr, String filename, int pageNumber) {
+		try {
+			long remainingNanos = Math.max(0, ocr.deadlineNanos() - System.nanoTime());
+			return ocr.future().get(remainingNanos, TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e) {
+			abandon(ocr);
+			log.warn("PDF 페이지 OCR 시간 초과 (file={}, page={}, timeout={})", filename, pageNumber, ocrPageTimeout);
+			return "";
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause() == null ? e : e.getCause();
+			log.warn("PDF 페이지 OCR 실패 (file={}, page={}): {}", filename, pageNumber, cause.getMessage());
+			return "";
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("PDF OCR 대기 중 인터럽트되었습니다.", e);
+		}
+	}
 
-					Output rules (MUST follow):
-					1) Output the OCR result text ONLY. Do not add any preface, explanation, summary, apology, or meta commentary.
-					2) Do NOT guess or infer missing content. If something is not visible, omit it.
-					3) Preserve layout as much as possible: line breaks, paragraphs, bullets, numbering, and indentation.
-					4) If a region looks like a table, reproduce it as a Markdown table when confident; otherwise keep the original line-break layout.
-					5) For code/commands/logs, output the content exactly as seen. Do not add explanations.
-					6) Repeated decorative elements (headers/footers/page numbers) may be omitted ONLY if clearly repetitive and non-content.
-					7) If there is almost no readable text, output an empty string.
+	/**
+	 * OCR 허가를 ocrPageTimeout 안에 얻지 못하면 false. // OCR 호출이 모두 멈춰도 제출 루프가 무한 대기하지 않게
+	 */
+	private boolean tryAcquireOcrPermit() {
+		try {
+			return ocrPermits.tryAcquire(ocrPageTimeout.toNanos(), TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("PDF OCR 대기 중 인터럽트되었습니다.", e);
+		}
+	}
 
-					Now output ONLY the OCR text.
-					""";
+	/**
+	 * 완료되지 않은 OCR 작업을 취소한다. 아직 시작하지 않았으면 작업 대신 허가를 반납한다.
+	 */
+	private void abandon(PendingOcr ocr) {
+		if (ocr.future().isDone()) {
+			return;
+		}
+		ocr.future().cancel(true);
+		if (ocr.started().compareAndSet(false, true)) {
+			ocrPermits.release();
+		}
+	}
 
-			String out = ocrChatClient.prompt()
-					.user(u -> u.text(prompt).media(MimeTypeUtils.IMAGE_PNG, imageResource))
-					.call()
-					.content();
+	private record PendingOcr(Future<String> future, AtomicBoolean started, long deadlineNanos) {
+	}
 
-			return out == null ? "" : out.strip();
+	private static String extractPdfTextForPage(PDFTextStripper stripper, PDDocument pdf, int pageNumber) {
+		try {
+			stripper.setStartPage(pageNumber);
+			stripper.setEndPage(pageNumber);
+			return stripper.getText(pdf);
 		}
 		catch (Exception e) {
 			return "";
 		}
 	}
+
+	/**
+	 * 렌더링된 PDF 페이지 이미지를 멀티모달 LLM로 OCR한다. // 출력은 "추출 텍스트만" 엄격 강제
+	 * 호출은 별도 가상 스레드에서 ocrPageTimeout 까지만 기다려, 응답 없는 호출이 OCR 허가를 계속 붙잡지 않게 한다.
+	 * 실패/시간 초과는 예외로 던져 awaitOcr 가 페이지별로 기록한다.
+	 */
+	private String ocrPageImage(byte[] pngBytes, String filename, int pageNumber) throws Exception {
+		ByteArrayResource imageResource = new ByteArrayResource(pngBytes) {
+			@Override
+			public String getFilename() {
+				String base = filename == null ? "document" : filename;
+				return base + "-page-" + pageNumber + ".png";
+			}
+		};
+
+		String prompt = """
+				Role: You are an OCR engine.
+
+				Goal: Extract ONLY the characters that are actually visible in the attached image (a PDF page) as plain text, as faithfully as possible.
+
+				Output rules (MUST follow):
+				1) Output the OCR result text ONLY. Do not add any preface, explanation, summary, apology, or meta commentary.
+				2) Do NOT guess or infer missing content. If something is not visible, omit it.
+				3) Preserve layout as much as possible: line breaks, paragraphs, bullets, numbering, and indentation.
+				4) If a region looks like a table, reproduce it as a Markdown table when confident; otherwise keep the original line-break layout.
+				5) For code/commands/logs, output the content exactly as seen. Do not add explanations.
+				6) Repeated decorative elements (headers/footers/page numbers) may be omitted ONLY if clearly repetitive and non-content.
+				7) If there is almost no readable text, output an empty string.
+
+				Now output ONLY the OCR text.
+				""";
+
+		FutureTask<String> call = new FutureTask<>(() -> ocrChatClient.prompt()
+				.user(u -> u.text(prompt).media(MimeTypeUtils.IMAGE_PNG, imageResource))
+				.call()
+				.content());
+		Thread.ofVirtual().name("rag-ocr-call").start(call);
+		String out;
+		try {
+			out = call.get(ocrPageTimeout.toNanos(), TimeUnit.NANOSECONDS);
+		}
+		catch (ExecutionException e) {
+			throw e.getCause() instanceof Exception cause ? cause : e;
+		}
+		catch (TimeoutException e) {
+			throw new TimeoutException("OCR 호출 시간 초과 (timeout=" + ocrPageTimeout + ")");
+		}
+		finally {
+			call.cancel(true);
+		}
+		return out == null ? "" : out.strip();
+	}
 }
 
@@ -4,21 +4,27 @@ import minkyu307.spring_ai.dto.RagUrlIngestRequest;
 import minkyu307.spring_ai.dto.RagUrlIngestResponse;
 import minkyu307.spring_ai.security.SecurityUtils;
 import org.springframework.ai.document.Document;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 
-import java.io.InputStream;
-import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Locale;
 import java.util.List;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * 단일 URL 문서 적재 전용 서비스. // 파일 업로드 ingest와 분리
@@ -28,25 +34,51 @@ public class RagUrlIngestionService {
 
 	private final DocumentIngestionService ingestionService;
 	private final RagResourceDocumentReaderService readerService;
+	private final HttpClient httpClient;
+	private final OutboundHostLimiter hostLimiter;
+	private final Duration readTimeout;
+	private final Duration downloadTimeout;
 
-	public RagUrlIngestionService(DocumentIngestionService ingestionService, RagResourceDocumentReaderService readerService) {
+	public RagUrlIngestionService(
+			DocumentIngestionService ingestionService,
+			RagResourceDocumentReaderService readerService,
+			HttpClient outboundHttpClient,
+			OutboundHostLimiter hostLimiter,
+			@Value("${app.http.client.read-timeout:30s}") Duration readTimeout,
+			@Value("${app.rag.url.download-timeout:2m}") Duration downloadTimeout) {
 		this.ingestionService = ingestionService;
 		this.readerService = readerService;
+		this.httpClient = outboundHttpClient;
+		this.hostLimiter = hostLimiter;
+		this.readTimeout = readTimeout;
+		this.downloadTimeout = downloadTimeout;
 	}
 
 	public RagUrlIngestResponse ingest(RagUrlIngestRequest request) {
+		URI uri = validateUrl(request);
+		return ingest(uri, SecurityUtils.getCurrentLoginId(), UUID.randomUUID().toString());
+	}
+
+	/**
+	 * 요청 URL 을 검증하고 URI 로 변환한다. // 비동기 적재 작업 등록 시에도 같은 검증을 먼저 수행
+	 */
+	public URI validateUrl(RagUrlIngestRequest request) {
 		if (request == null || request.url() == null || request.url().isBlank()) {
 			throw new IllegalArgumentException("url is required");
 		}
 
 		URI uri = URI.create(request.url().trim());
-		String loginId = SecurityUtils.getCurrentLoginId();
 		String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase();
 		if (!scheme.equals("http") && !scheme.equals("https")) {
 			throw new IllegalArgumentException("Only http/https URL is supported");
 		}
+		return uri;
+	}
 
-		String docId = UUID.randomUUID().toString();
+	/**
+	 * URL 문서 1건을 지정한 사용자/docId 로 적재한다. // 동기 API 와 비동기 적재 작업 워커 공용
+	 */
+	public RagUrlIngestResponse ingest(URI uri, String loginId, String docId) {
 		DownloadedResource downloaded = downloadResource(uri);
 		String filename = resolveFilename(uri, downloaded.contentDisposition(), downloaded.contentType());
 		Resource resource = toByteArrayResource(downloaded.content(), filename);
@@ -84,37 +116,48 @@ public class RagUrlIngestionService {
 	) {
 	}
 
-	private static DownloadedResource downloadResource(URI uri) {
-		try {
-			HttpURLConnection connection = (HttpURLConnection) uri.toURL().openConnection();
-			connection.setInstanceFollowRedirects(true);
-			connection.setConnectTimeout(10_000);
-			connection.setReadTimeout(30_000);
-			connection.setRequestMethod("GET");
-			connection.setRequestProperty("User-Agent", "spring-ai-rag-ingestion/1.0");
-			connection.setRequestProperty("Accept", "*/*");
-
-			int status = connection.getResponseCode();
-			InputStream body = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
-			if (body == null) {
-				throw new IllegalArgumentException("URL 응답 본문이 없습니다.");
+	/**
+	 * 공용 HttpClient(연결 재사용, 호스트별 동시 연결 제한)로 URL 본문을 내려받는다.
+	 * 요청 timeout 은 응답 헤더까지만 제한하므로, 본문 수신까지 포함한 전체 다운로드를 download-timeout 으로 끊는다. // 본문 전송 중 멈춘 서버가 호스트 permit 을 붙잡지 않도록
+	 */
+	private DownloadedResource downloadResource(URI uri) {
+		HttpRequest request = HttpRequest.newBuilder(uri)
+				.timeout(readTimeout)
+				.header("User-Agent", "spring-ai-rag-ingestion/1.0")
+				.header("Accept", "*/*")
+				.GET()
+				.build();
+		try (OutboundHostLimiter.Permit ignored = hostLimiter.acquire(uri)) {
+			CompletableFuture<HttpResponse<byte[]>> download =
+					httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+			HttpResponse<byte[]> response;
+			try {
+				response = download.get(downloadTimeout.toNanos(), TimeUnit.NANOSECONDS);
 			}
-
-			try (InputStream in = body) {
-				byte[] bytes = in.readAllBytes();
-				if (bytes.length == 0) {
-					throw new IllegalArgumentException("URL 응답 본문이 비어 있습니다.");
-				}
-				return new DownloadedResource(
-						bytes,
-						connection.getContentType(),
-						connection.getHeaderField("Content-Disposition")
-				);
+			catch (TimeoutException e) {
+				throw new IllegalArgumentException("URL 다운로드 시간 초과 (" + downloadTimeout + ")");
+			}
+			finally {
+				// 완료되지 않았으면 진행 중인 교환을 중단한다.
+				download.cancel(true);
+			}
+			byte[] bytes = response.body();
+			if (bytes == null || bytes.length == 0) {
+				throw new IllegalArgumentException("URL 응답 본문이 비어 있습니다.");
 			}
+			return new DownloadedResource(
+					bytes,
+					response.headers().firstValue("Content-Type").orElse(null),
+					response.headers().firstValue("Content-Disposition").orElse(null)
+			);
 		}
 		catch (IllegalArgumentException e) {
 			throw e;
 		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalArgumentException("URL 다운로드 실패");
+		}
 		catch (Exception e) {
 			throw new IllegalArgumentException("URL 다운로드 실패");
 		}
@@ -1,36 +1,54 @@
 package minkyu307.spring_ai.service;
 
-import lombok.RequiredArgsConstructor;
 import minkyu307.spring_ai.dto.RagWikiIngestRequest;
 import minkyu307.spring_ai.dto.RagWikiIngestResponse;
 import minkyu307.spring_ai.error.ApiErrorCode;
 import minkyu307.spring_ai.error.ApiException;
 import minkyu307.spring_ai.security.SecurityUtils;
 import org.springframework.ai.document.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
 
 /**
  * Dooray Wiki 페이지를 조회하여 VectorStore에 적재하는 서비스.
+ * 페이지는 가상 스레드에서 병렬 처리하며, Dooray 호출 속도는 DoorayRateLimiter 가,
+ * 동시에 진행되는 페이지 파이프라인(조회 + 제목 생성 + 임베딩) 수는 pagePermits 가 제한한다.
  */
 @Service
-@RequiredArgsConstructor
 public class RagWikiIngestionService {
 
     private static final String DOORAY_BASE = "https://api.dooray.com";
 
     private final DoorayWikiApiClient doorayWikiApiClient;
     private final DocumentIngestionService ingestionService;
+    private final Semaphore pagePermits;
+
+    public RagWikiIngestionService(
+        DoorayWikiApiClient doorayWikiApiClient,
+        DocumentIngestionService ingestionService,
+        @Value("${app.rag.ingestion.wiki-page-concurrency:8}") int pageConcurrency) {
+        if (pageConcurrency < 1) {
+            throw new IllegalArgumentException("app.rag.ingestion.wiki-page-concurrency 값은 1 이상이어야 합니다.");
+        }
+        this.doorayWikiApiClient = doorayWikiApiClient;
+        this.ingestionService = ingestionService;
+        this.pagePermits = new Semaphore(pageConcurrency, true);
+    }
 
     /**
-     * 요청된 Wiki 페이지 목록을 순차 적재하고 결과를 반환한다.
+     * 요청된 Wiki 페이지 목록을 병렬 적재하고 결과를 요청 순서대로 반환한다.
      */
     public RagWikiIngestResponse ingest(RagWikiIngestRequest request) {
         if (request == null || request.pages() == null || request.pages().isEmpty()) {
@@ -39,42 +57,110 @@ public class RagWikiIngestionService {
 
         String loginId = SecurityUtils.getCurrentLoginId();
 
-        List<RagWikiIngestResponse.PageResult> results = new ArrayList<>();
+        List<RagWikiIngestRequest.WikiPageRef> pages = request.pages();
+        RagWikiIngestResponse.PageResult[] results = new RagWikiIngestResponse.PageResult[pages.size()];
+        HttpEntity<?> authEntity;
+        try {
+            // 인증 헤더는 요청당 한 번만 만들어 모든 페이지가 공유한다.
+            authEntity = doorayWikiApiClient.createAuthenticatedEntity(loginId);
+        } catch (Exception e) {
+            // 키가 없으면 페이지별 FAILED 로 응답하던 기존 동작을 유지한다.
+            for (int i = 0; i < pages.size(); i++) {
+                results[i] = new RagWikiIngestResponse.PageResult(pages.get(i).pageId(), null, "FAILED", 0, e.getMessage());
+            }
+            return new RagWikiIngestResponse(0, pages.size(), 0, List.of(results));
+        }
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < pages.size(); i++) {
+                int index = i;
+                executor.submit(() -> results[index] = ingestPageSafely(pages.get(index), loginId, authEntity));
+            }
+        }
+
+        // executor.close() 가 모든 페이지 작업 종료를 기다리므로 results 는 여기서 확정 상태다.
         int totalChunks = 0;
         int succeeded = 0;
         int failed = 0;
-
-        for (RagWikiIngestRequest.WikiPageRef ref : request.pages()) {
-            try {
-                RagWikiIngestResponse.PageResult result = ingestPage(ref, loginId);
-                results.add(result);
-                if ("SUCCESS".equals(result.status())) {
-                    succeeded++;
-                    totalChunks += result.chunksIngested();
-                } else {
-                    failed++;
-                }
-            } catch (Exception e) {
-                results.add(new RagWikiIngestResponse.PageResult(
-                        ref.pageId(), null, "FAILED", 0, e.getMessage()
-                ));
+        for (RagWikiIngestResponse.PageResult result : results) {
+            if ("SUCCESS".equals(result.status())) {
+                succeeded++;
+                totalChunks += result.chunksIngested();
+            } else {
                 failed++;
             }
         }
 
-        return new RagWikiIngestResponse(succeeded, failed, totalChunks, results);
+        return new RagWikiIngestResponse(succeeded, failed, totalChunks, List.of(results));
     }
 
     /**
-     * 단일 Wiki 페이지를 조회하여 VectorStore에 적재한다.
+     * 페이지 1건을 적재하고 예외는 FAILED 결과로 변환한다.
      */
-    @SuppressWarnings("unchecked")
-    private RagWikiIngestResponse.PageResult ingestPage(
+    private RagWikiIngestResponse.PageResult ingestPageSafely(
+            RagWikiIngestRequest.WikiPageRef ref,
+            String loginId,
+            HttpEntity<?> authEntity) {
+        try {
+            return ingestPage(ref, loginId, authEntity, UUID.randomUUID().toString());
+        } catch (Exception e) {
+            return new RagWikiIngestResponse.PageResult(ref.pageId(), null, "FAILED", 0, e.getMessage());
+        }
+    }
+
+    /**
+     * 단일 Wiki 페이지를 조회하여 지정한 사용자/docId 로 VectorStore에 적재한다. // 동기 API 와 비동기 적재 작업 워커 공용
+     */
+    public RagWikiIngestResponse.PageResult ingestPage(
+            RagWikiIngestRequest.WikiPageRef ref,
+            String loginId,
+            HttpEntity<?> authEntity,
+            String docId) {
+        return withPagePermit(() -> ingestFetchedPage(ref, fetchPage(ref, authEntity, false), loginId, docId));
+    }
+
+    /**
+     * 페이지를 조회해 updatedAt 이 syncedUpdatedAt 과 같으면 적재를 건너뛰고, 다르면 새 docId 로 적재한다. // 증분 동기화용
+     * 이전 문서 교체는 호출자(RagWikiSyncService)가 담당한다.
+     */
+    public PageSync syncPage(
             RagWikiIngestRequest.WikiPageRef ref,
-            String loginId) {
+            String loginId,
+            HttpEntity<?> authEntity,
+            String syncedUpdatedAt) {
+        return withPagePermit(() -> {
+            WikiPage page = fetchPage(ref, authEntity, true);
+            if (page.updatedAt().equals(syncedUpdatedAt)) {
+                return new PageSync(page.subject(), page.updatedAt(), null, null);
+            }
+            String docId = UUID.randomUUID().toString();
+            return new PageSync(page.subject(), page.updatedAt(), docId, ingestFetchedPage(ref, page, loginId, docId));
+        });
+    }
+
+    private <T> T withPagePermit(Supplier<T> task) {
+        try {
+            pagePermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Wiki 페이지 적재 대기 중 인터럽트되었습니다.", e);
+        }
+        try {
+            return task.get();
+        } finally {
+            pagePermits.release();
+        }
+    }
 
+    /**
+     * Dooray 에서 페이지 제목/본문/updatedAt 을 조회한다. updatedAt 이 없으면 조회 시각으로 대신한다(항상 변경으로 취급).
+     * fresh=false 면 미리보기 등으로 캐시된 본문을 재사용하고, 증분 동기화는 fresh=true 로 최신 updatedAt 을 본다.
+     */
+    @SuppressWarnings("unchecked")
+    private WikiPage fetchPage(RagWikiIngestRequest.WikiPageRef ref, HttpEntity<?> authEntity, boolean fresh) {
         String url = DOORAY_BASE + "/wiki/v1/wikis/" + ref.wikiId() + "/pages/" + ref.pageId();
-        Map<String, Object> resp = doorayWikiApiClient.getWithRetry(url).getBody();
+        Map<String, Object> resp = (fresh
+                ? doorayWikiApiClient.getFresh(url, authEntity)
+                : doorayWikiApiClient.getWithRetry(url, authEntity)).getBody();
 
         if (resp == null) {
             throw new ApiException(
@@ -96,35 +182,51 @@ public class RagWikiIngestionService {
         String subject = (String) result.getOrDefault("subject", ref.pageId());
         Map<String, Object> body = (Map<String, Object>) result.getOrDefault("body", Map.of());
         String content = (String) body.getOrDefault("content", "");
+        String updatedAt = result.get("updatedAt") instanceof String value && !value.isBlank()
+                ? value
+                : Instant.now().toString();
+        return new WikiPage(subject, content, updatedAt);
+    }
 
-        if (content == null || content.isBlank()) {
-            return new RagWikiIngestResponse.PageResult(ref.pageId(), subject, "FAILED", 0, "본문 내용이 없습니다.");
-        }
+    private RagWikiIngestResponse.PageResult ingestFetchedPage(
+            RagWikiIngestRequest.WikiPageRef ref,
+            WikiPage page,
+            String loginId,
+            String docId) {
 
-        String docId = UUID.randomUUID().toString();
-        String updatedAt = (String) result.getOrDefault("updatedAt", Instant.now().toString());
+        if (page.content() == null || page.content().isBlank()) {
+            return new RagWikiIngestResponse.PageResult(ref.pageId(), page.subject(), "FAILED", 0, "본문 내용이 없습니다.");
+        }
 
         Map<String, Object> metadata = new HashMap<>();
         metadata.put("source", "dooray-wiki");
         metadata.put("wikiId", ref.wikiId());
         metadata.put("pageId", ref.pageId());
-        metadata.put("filename", subject);
+        metadata.put("filename", page.subject());
         metadata.put("docId", docId);
         metadata.put("ingestedAt", Instant.now().toString());
-        metadata.put("updatedAt", updatedAt);
+        metadata.put("updatedAt", page.updatedAt());
         metadata.put("loginId", loginId);
 
-        List<Document> documents = List.of(new Document(content, metadata));
+        List<Document> documents = List.of(new Document(page.content(), metadata));
         DocumentIngestionService.IngestionResult ingestionResult =
                 ingestionService.ingestDocuments(documents, metadata);
 
         return new RagWikiIngestResponse.PageResult(
                 ref.pageId(),
-                ingestionResult.title() != null ? ingestionResult.title() : subject,
+                ingestionResult.title() != null ? ingestionResult.title() : page.subject(),
                 "SUCCESS",
                 ingestionResult.chunksIngested(),
                 null
         );
     }
 
+    private record WikiPage(String subject, String content, String updatedAt) {
+    }
+
+    /**
+     * 증분 동기화 결과. result 가 null 이면 변경이 없어 적재를 건너뛴 것이다.
+     */
+    public record PageSync(String subject, String updatedAt, String docId, RagWikiIngestResponse.PageResult result) {
+    }
 }
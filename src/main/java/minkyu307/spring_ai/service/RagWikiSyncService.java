@@ -0,0 +1,261 @@
+package minkyu307.spring_ai.service;
+
+import lombok.extern.slf4j.Slf4j;
+import minkyu307.spring_ai.dto.RagWikiIngestRequest;
+import minkyu307.spring_ai.dto.RagWikiSyncRequest;
+import minkyu307.spring_ai.dto.RagWikiSyncResponse;
+import minkyu307.spring_ai.exception.ResourceNotFoundException;
+import minkyu307.spring_ai.repository.RagVectorStoreJdbcRepository;
+import minkyu307.spring_ai.repository.RagWikiSyncJdbcRepository;
+import minkyu307.spring_ai.repository.RagWikiSyncJdbcRepository.DueTarget;
+import minkyu307.spring_ai.repository.RagWikiSyncJdbcRepository.SyncedPage;
+import minkyu307.spring_ai.security.SecurityUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Dooray Wiki 하위 트리 증분 동기화 서비스.
+ * 페이지별 마지막 적재 updatedAt/docId 를 rag_wiki_sync_page 에 두고, 바뀌지 않은 페이지는 건너뛰며
+ * 바뀐 페이지는 새 docId 로 적재한 뒤 한 트랜잭션에서 이전 문서 삭제와 동기화 상태 갱신을 함께 처리한다.
+ * 교체 중에는 이전/새 문서가 잠시 함께 보일 수는 있어도 페이지가 검색에서 빠지는 구간은 없다.
+ * 동기화 기록이 없는 페이지도 /wiki 로 먼저 적재한 문서가 있으면 같은 방식으로 교체해 중복을 남기지 않는다.
+ */
+@Slf4j
+@Service
+public class RagWikiSyncService {
+
+    private final DoorayWikiApiClient doorayWikiApiClient;
+    private final RagWikiIngestionService wikiIngestionService;
+    private final RagDocumentManagementService documentManagementService;
+    private final RagWikiSyncJdbcRepository syncRepository;
+    private final RagVectorStoreJdbcRepository vectorStoreRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration interval;
+
+    public RagWikiSyncService(
+        DoorayWikiApiClient doorayWikiApiClient,
+        RagWikiIngestionService wikiIngestionService,
+        RagDocumentManagementService documentManagementService,
+        RagWikiSyncJdbcRepository syncRepository,
+        RagVectorStoreJdbcRepository vectorStoreRepository,
+        PlatformTransactionManager transactionManager,
+        @Value("${app.rag.wiki-sync.interval:6h}") Duration interval) {
+        if (interval.toMinutes() < 1) {
+            throw new IllegalArgumentException("app.rag.wiki-sync.interval 값은 1분 이상이어야 합니다.");
+        }
+        this.doorayWikiApiClient = doorayWikiApiClient;
+        this.wikiIngestionService = wikiIngestionService;
+        this.documentManagementService = documentManagementService;
+        this.syncRepository = syncRepository;
+        this.vectorStoreRepository = vectorStoreRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.interval = interval;
+    }
+
+    /**
+     * 현재 사용자 기준으로 루트 페이지와 모든 하위 페이지를 동기화한다. schedule=true 면 주기 동기화 대상으로 등록한다.
+     */
+    public RagWikiSyncResponse sync(RagWikiSyncRequest request) {
+        if (request == null || isBlank(request.wikiId()) || isBlank(request.rootPageId())) {
+            throw new IllegalArgumentException("wikiId 와 rootPageId 는 필수입니다.");
+        }
+        String loginId = SecurityUtils.getCurrentLoginId();
+        RagWikiSyncResponse response = syncSubtree(
+            loginId,
+            request.wikiId(),
+            request.rootPageId(),
+            doorayWikiApiClient.createAuthenticatedEntity(loginId));
+        if (request.schedule()) {
+            syncRepository.upsertTarget(loginId, request.wikiId(), request.rootPageId(), interval);
+        }
+        return response;
+    }
+
+    /**
+     * 현재 사용자의 주기 동기화 대상을 해제한다. 없으면 404.
+     */
+    public void unschedule(String wikiId, String rootPageId) {
+        if (!syncRepository.deleteTarget(SecurityUtils.getCurrentLoginId(), wikiId, rootPageId)) {
+            throw new ResourceNotFoundException("동기화 대상을 찾을 수 없습니다: " + wikiId + "/" + rootPageId);
+        }
+    }
+
+    /**
+     * 동기화 시각이 지난 대상을 하나씩 가져와 동기화한다. // 대상별 실패는 로그만 남기고 다음 주기에 다시 시도
+     */
+    @Scheduled(
+        initialDelayString = "${app.rag.wiki-sync.check-interval:1m}",
+        fixedDelayString = "${app.rag.wiki-sync.check-interval:1m}")
+    public void syncDueTargets() {
+        DueTarget target;
+        while ((target = syncRepository.claimDueTarget(interval)) != null) {
+            try {
+                RagWikiSyncResponse response = syncSubtree(
+                    target.loginId(),
+                    target.wikiId(),
+                    target.rootPageId(),
+                    doorayWikiApiClient.createAuthenticatedEntity(target.loginId()));
+                syncRepository.markTargetSynced(target.id());
+                log.info("Wiki 주기 동기화 완료 (loginId={}, wikiId={}, rootPageId={}, created={}, updated={}, unchanged={}, failed={})",
+                    target.loginId(), target.wikiId(), target.rootPageId(),
+                    response.createdPages(), response.updatedPages(), response.unchangedPages(), response.failedPages());
+            } catch (RuntimeException e) {
+                log.warn("Wiki 주기 동기화 실패 (loginId={}, wikiId={}, rootPageId={}): {}",
+                    target.loginId(), target.wikiId(), target.rootPageId(), e.getMessage());
+            }
+        }
+    }
+
+    private RagWikiSyncResponse syncSubtree(String loginId, String wikiId, String rootPageId, HttpEntity<?> authEntity) {
+        List<ListedPage> pages = listSubtree(wikiId, rootPageId, authEntity);
+        RagWikiSyncResponse.PageResult[] results = new RagWikiSyncResponse.PageResult[pages.size()];
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < pages.size(); i++) {
+                int index = i;
+                executor.submit(() -> results[index] = syncPageSafely(loginId, wikiId, pages.get(index), authEntity));
+            }
+        }
+
+        int created = 0;
+        int updated = 0;
+        int unchanged = 0;
+        int failed = 0;
+        int totalChunks = 0;
+        for (RagWikiSyncResponse.PageResult result : results) {
+            switch (result.status()) {
+                case "CREATED" -> created++;
+                case "UPDATED" -> updated++;
+                case "UNCHANGED" -> unchanged++;
+                default -> failed++;
+            }
+            totalChunks += result.chunksIngested();
+        }
+        return new RagWikiSyncResponse(created, updated, unchanged, failed, totalChunks, List.of(results));
+    }
+
+    /**
+     * 루트 페이지와 모든 하위 페이지를 BFS 로 조회한다. 목록 응답에 updatedAt 이 있으면 함께 보관해 본문 조회 전 비교에 쓴다.
+     * 목록 updatedAt 만으로 UNCHANGED 를 판단하므로 응답 캐시를 거치지 않고 항상 새로 조회한다.
+     * 트리 일부라도 조회하지 못하면 동기화 전체를 실패로 본다.
+     */
+    private List<ListedPage> listSubtree(String wikiId, String rootPageId, HttpEntity<?> authEntity) {
+        List<ListedPage> pages = new ArrayList<>();
+        pages.add(new ListedPage(rootPageId, null));
+        List<String> currentLevel = List.of(rootPageId);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            while (!currentLevel.isEmpty()) {
+                List<CompletableFuture<List<Map<String, Object>>>> futures = currentLevel.stream()
+                    .map(parentId -> CompletableFuture.supplyAsync(
+                        () -> doorayWikiApiClient.getChildPages(wikiId, parentId, authEntity, true), executor))
+                    .toList();
+                List<String> nextLevel = new ArrayList<>();
+                for (CompletableFuture<List<Map<String, Object>>> future : futures) {
+                    for (Map<String, Object> child : join(future)) {
+                        String pageId = String.valueOf(child.get("id"));
+                        pages.add(new ListedPage(pageId, child.get("updatedAt") instanceof String s ? s : null));
+                        nextLevel.add(pageId);
+                    }
+                }
+                currentLevel = nextLevel;
+            }
+        }
+        return pages;
+    }
+
+    private RagWikiSyncResponse.PageResult syncPageSafely(
+            String loginId,
+            String wikiId,
+            ListedPage page,
+            HttpEntity<?> authEntity) {
+        try {
+            SyncedPage synced = syncRepository.findSyncedPage(loginId, wikiId, page.pageId());
+            String syncedUpdatedAt = synced == null ? null : synced.pageUpdatedAt();
+            if (syncedUpdatedAt != null && syncedUpdatedAt.equals(page.listedUpdatedAt())) {
+                // 목록 응답만으로 변경 없음이 확인되면 본문 조회도 생략한다.
+                return new RagWikiSyncResponse.PageResult(page.pageId(), null, "UNCHANGED", synced.docId(), 0, null);
+            }
+
+            RagWikiIngestionService.PageSync sync = wikiIngestionService.syncPage(
+                new RagWikiIngestRequest.WikiPageRef(wikiId, page.pageId()), loginId, authEntity, syncedUpdatedAt);
+            if (sync.result() == null) {
+                return new RagWikiSyncResponse.PageResult(page.pageId(), sync.subject(), "UNCHANGED", synced.docId(), 0, null);
+            }
+            if (!"SUCCESS".equals(sync.result().status())) {
+                return new RagWikiSyncResponse.PageResult(
+                    page.pageId(), sync.result().title(), "FAILED", null, 0, sync.result().error());
+            }
+
+            boolean replaced = replaceDocument(loginId, wikiId, page.pageId(), sync.updatedAt(), sync.docId());
+            return new RagWikiSyncResponse.PageResult(
+                page.pageId(),
+                sync.result().title(),
+                replaced ? "UPDATED" : "CREATED",
+                sync.docId(),
+                sync.result().chunksIngested(),
+                null);
+        } catch (Exception e) {
+            return new RagWikiSyncResponse.PageResult(page.pageId(), null, "FAILED", null, 0, e.getMessage());
+        }
+    }
+
+    /**
+     * 동기화 행을 잠근 상태에서 이전 문서를 삭제하고 새 docId 를 기록한다. 실패하면 새로 적재한 문서를 지워 중복을 남기지 않는다.
+     * 동기화 행이 없으면 vector_store 메타데이터(wikiId/pageId)로 /wiki 에서 적재한 문서를 찾아 이전 문서로 본다.
+     * 이전 문서를 실제로 삭제했으면 true(UPDATED), 없었거나 이미 삭제되었으면 false(CREATED).
+     */
+    private boolean replaceDocument(String loginId, String wikiId, String pageId, String updatedAt, String docId) {
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                String syncedDocId = syncRepository.lockSyncedDocId(loginId, wikiId, pageId);
+                List<String> previousDocIds = syncedDocId != null
+                    ? List.of(syncedDocId)
+                    : vectorStoreRepository.findWikiPageDocIds(loginId, wikiId, pageId);
+                boolean replaced = false;
+                for (String previousDocId : previousDocIds) {
+                    if (!previousDocId.equals(docId)) {
+                        replaced |= documentManagementService.deleteDocument(previousDocId, loginId);
+                    }
+                }
+                syncRepository.upsertSyncedPage(loginId, wikiId, pageId, updatedAt, docId);
+                return replaced;
+            }));
+        } catch (RuntimeException e) {
+            documentManagementService.deleteDocument(docId, loginId);
+            throw e;
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /**
+     * 동기화할 페이지와 목록 응답의 updatedAt(없으면 null).
+     */
+    private record ListedPage(String pageId, String listedUpdatedAt) {
+    }
+}
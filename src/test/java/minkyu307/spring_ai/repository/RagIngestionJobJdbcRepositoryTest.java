@@ -0,0 +1,205 @@
+package minkyu307.spring_ai.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import minkyu307.spring_ai.repository.RagIngestionJobJdbcRepository.ClaimedItem;
+import minkyu307.spring_ai.repository.RagIngestionJobJdbcRepository.ItemResult;
+import minkyu307.spring_ai.repository.RagIngestionJobJdbcRepository.JobRow;
+import minkyu307.spring_ai.repository.RagIngestionJobJdbcRepository.NewItem;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+/**
+ * 적재 작업 큐 쿼리(임대 만료 회수, 작업 집계/상태 전이)를 실제 PostgreSQL 에서 검증한다.
+ * RagVectorStoreQueryPlanTest 와 같은 RAG_EXPLAIN_TEST_JDBC_URL(및 _USER/_PASSWORD)이 있을 때만 실행한다.
+ */
+@EnabledIfEnvironmentVariable(named = "RAG_EXPLAIN_TEST_JDBC_URL", matches = ".+")
+class RagIngestionJobJdbcRepositoryTest {
+
+    private static final String LOGIN_ID = "tester";
+    private static final Duration LEASE = Duration.ofMinutes(2);
+
+    private static SingleConnectionDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+    private static String schema;
+    private static RagIngestionJobJdbcRepository repository;
+
+    @BeforeAll
+    static void setUp() {
+        dataSource = new SingleConnectionDataSource(
+            System.getenv("RAG_EXPLAIN_TEST_JDBC_URL"),
+            System.getenv("RAG_EXPLAIN_TEST_JDBC_USER"),
+            System.getenv("RAG_EXPLAIN_TEST_JDBC_PASSWORD"),
+            true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        schema = "rag_job_" + UUID.randomUUID().toString().replace("-", "");
+        jdbcTemplate.execute("CREATE SCHEMA " + schema);
+        jdbcTemplate.execute("SET search_path TO " + schema);
+
+        // 엔티티(RagIngestionJob/RagIngestionJobItem)가 ddl-auto 로 만드는 테이블과 같은 컬럼. app_user FK 는 생략한다.
+        jdbcTemplate.execute("""
+            CREATE TABLE rag_ingestion_job (
+                id varchar(36) PRIMARY KEY,
+                login_id text NOT NULL,
+                type varchar(16) NOT NULL,
+                status varchar(16) NOT NULL,
+                total_items int NOT NULL,
+                succeeded_items int NOT NULL,
+                failed_items int NOT NULL,
+                skipped_items int NOT NULL,
+                total_chunks int NOT NULL,
+                created_at timestamptz NOT NULL,
+                started_at timestamptz,
+                finished_at timestamptz,
+                updated_at timestamptz NOT NULL)
+            """);
+        jdbcTemplate.execute("""
+            CREATE TABLE rag_ingestion_job_item (
+                id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                job_id varchar(36) NOT NULL REFERENCES rag_ingestion_job(id) ON DELETE CASCADE,
+                item_index int NOT NULL,
+                kind varchar(16) NOT NULL,
+                name text NOT NULL,
+                payload text,
+                content_type text,
+                status varchar(16) NOT NULL,
+                attempts int NOT NULL,
+                locked_until timestamptz,
+                doc_id text,
+                title text,
+                chunks_ingested int NOT NULL,
+                error text,
+                queued_at timestamptz NOT NULL,
+                updated_at timestamptz NOT NULL,
+                UNIQUE (job_id, item_index))
+            """);
+        repository = new RagIngestionJobJdbcRepository(jdbcTemplate);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (jdbcTemplate != null) {
+            jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+            dataSource.destroy();
+        }
+    }
+
+    @BeforeEach
+    void clearQueue() {
+        jdbcTemplate.execute("TRUNCATE rag_ingestion_job_item, rag_ingestion_job");
+    }
+
+    @Test
+    void expiredLeaseIsReclaimedWithIncrementedAttempts() {
+        String jobId = UUID.randomUUID().toString();
+        repository.insertJob(jobId, LOGIN_ID, "URL", List.of(pending(0)));
+
+        ClaimedItem first = repository.claimNextItem(LEASE);
+        assertThat(first.attempts()).isEqualTo(1);
+        assertThat(first.loginId()).isEqualTo(LOGIN_ID);
+        // 임대 중인 항목은 다른 워커가 가져가지 않는다.
+        assertThat(repository.claimNextItem(LEASE)).isNull();
+
+        // 워커가 중단되어 임대가 만료된 상황
+        jdbcTemplate.update("UPDATE rag_ingestion_job_item SET locked_until = now() - interval '1 second' WHERE id = ?",
+            first.id());
+        ClaimedItem reclaimed = repository.claimNextItem(LEASE);
+
+        assertThat(reclaimed.id()).isEqualTo(first.id());
+        assertThat(reclaimed.attempts()).isEqualTo(2);
+    }
+
+    @Test
+    void staleWorkerCannotExtendOrCompleteReclaimedItem() {
+        String jobId = UUID.randomUUID().toString();
+        repository.insertJob(jobId, LOGIN_ID, "URL", List.of(pending(0)));
+        ClaimedItem stale = repository.claimNextItem(LEASE);
+        jdbcTemplate.update("UPDATE rag_ingestion_job_item SET locked_until = now() - interval '1 second' WHERE id = ?",
+            stale.id());
+        ClaimedItem current = repository.claimNextItem(LEASE);
+
+        assertThat(repository.extendLease(stale.id(), stale.attempts(), LEASE)).isFalse();
+        assertThat(repository.completeItem(stale.id(), stale.attempts(), jobId,
+            new ItemResult("SUCCEEDED", "doc-stale", "A", 3, null))).isFalse();
+        assertThat(repository.findItems(jobId).get(0).status()).isEqualTo("RUNNING");
+
+        assertThat(repository.completeItem(current.id(), current.attempts(), jobId,
+            new ItemResult("SUCCEEDED", "doc-0", "A", 3, null))).isTrue();
+        assertThat(repository.findItems(jobId).get(0).docId()).isEqualTo("doc-0");
+    }
+
+    @Test
+    void extendedLeaseIsNotReclaimed() {
+        String jobId = UUID.randomUUID().toString();
+        repository.insertJob(jobId, LOGIN_ID, "URL", List.of(pending(0)));
+        ClaimedItem item = repository.claimNextItem(Duration.ofSeconds(1));
+
+        assertThat(repository.extendLease(item.id(), item.attempts(), LEASE)).isTrue();
+        jdbcTemplate.execute("SELECT pg_sleep(1.2)");
+
+        assertThat(repository.claimNextItem(LEASE)).isNull();
+    }
+
+    @Test
+    void refreshJobAggregatesItemsAndCompletesWhenNoneOpen() {
+        String jobId = UUID.randomUUID().toString();
+        repository.insertJob(jobId, LOGIN_ID, "URL", List.of(
+            pending(0),
+            pending(1),
+            new NewItem(2, "URL", "dup", "dup", null, "SKIPPED", "중복 URL")));
+
+        JobRow queued = repository.findJob(jobId, LOGIN_ID);
+        assertThat(queued.status()).isEqualTo("QUEUED");
+        assertThat(queued.totalItems()).isEqualTo(3);
+        assertThat(queued.skippedItems()).isEqualTo(1);
+        assertThat(queued.startedAt()).isNull();
+
+        ClaimedItem first = repository.claimNextItem(LEASE);
+        repository.refreshJob(jobId);
+        JobRow running = repository.findJob(jobId, LOGIN_ID);
+        assertThat(running.status()).isEqualTo("RUNNING");
+        assertThat(running.startedAt()).isNotNull();
+
+        repository.completeItem(first.id(), first.attempts(), jobId, new ItemResult("SUCCEEDED", "doc-0", "A", 5, null));
+        assertThat(repository.findJob(jobId, LOGIN_ID).status()).isEqualTo("RUNNING");
+
+        ClaimedItem second = repository.claimNextItem(LEASE);
+        repository.completeItem(second.id(), second.attempts(), jobId, new ItemResult("FAILED", null, null, 0, "적재 실패"));
+
+        JobRow completed = repository.findJob(jobId, LOGIN_ID);
+        assertThat(completed.status()).isEqualTo("COMPLETED");
+        assertThat(completed.succeededItems()).isEqualTo(1);
+        assertThat(completed.failedItems()).isEqualTo(1);
+        assertThat(completed.skippedItems()).isEqualTo(1);
+        assertThat(completed.totalChunks()).isEqualTo(5);
+        assertThat(completed.finishedAt()).isNotNull();
+        assertThat(repository.findItems(jobId))
+            .extracting(RagIngestionJobJdbcRepository.ItemRow::status)
+            .containsExactly("SUCCEEDED", "FAILED", "SKIPPED");
+    }
+
+    @Test
+    void jobWithOnlyPreResolvedItemsIsCompletedOnInsert() {
+        String jobId = UUID.randomUUID().toString();
+        repository.insertJob(jobId, LOGIN_ID, "UPLOAD", List.of(
+            new NewItem(0, "FILE", "(empty)", null, null, "SKIPPED", null)));
+
+        JobRow job = repository.findJob(jobId, LOGIN_ID);
+        assertThat(job.status()).isEqualTo("COMPLETED");
+        assertThat(job.finishedAt()).isNotNull();
+        assertThat(repository.claimNextItem(LEASE)).isNull();
+    }
+
+    private static NewItem pending(int itemIndex) {
+        String url = "https://example.com/" + itemIndex;
+        return new NewItem(itemIndex, "URL", url, url, null, "PENDING", null);
+    }
+}
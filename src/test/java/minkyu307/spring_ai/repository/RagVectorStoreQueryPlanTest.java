@@ -0,0 +1,97 @@
+package minkyu307.spring_ai.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.UUID;
+import minkyu307.spring_ai.config.RagSchemaInitializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+/**
+ * vector_store 조회 쿼리가 생성 컬럼 인덱스를 사용하는지 EXPLAIN 으로 검증한다.
+ * 실제 PostgreSQL 이 필요하므로 RAG_EXPLAIN_TEST_JDBC_URL(및 _USER/_PASSWORD)이 있을 때만 실행한다.
+ */
+@EnabledIfEnvironmentVariable(named = "RAG_EXPLAIN_TEST_JDBC_URL", matches = ".+")
+class RagVectorStoreQueryPlanTest {
+
+    private static final String LOGIN_ID = "user-7";
+    private static final String DOC_ID = "doc-7-3";
+
+    private static SingleConnectionDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+    private static String schema;
+
+    @BeforeAll
+    static void setUp() {
+        dataSource = new SingleConnectionDataSource(
+            System.getenv("RAG_EXPLAIN_TEST_JDBC_URL"),
+            System.getenv("RAG_EXPLAIN_TEST_JDBC_USER"),
+            System.getenv("RAG_EXPLAIN_TEST_JDBC_PASSWORD"),
+            true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        schema = "rag_explain_" + UUID.randomUUID().toString().replace("-", "");
+        jdbcTemplate.execute("CREATE SCHEMA " + schema);
+        jdbcTemplate.execute("SET search_path TO " + schema);
+
+        // 쿼리 계획과 무관한 embedding 컬럼은 생략해 pgvector 확장 없이도 실행한다.
+        jdbcTemplate.execute("CREATE TABLE vector_store (id uuid PRIMARY KEY, content text, metadata json)");
+        // 사용자 100명 x 문서 20개 x 청크 25개
+        jdbcTemplate.execute("""
+            INSERT INTO vector_store (id, content, metadata)
+            SELECT gen_random_uuid(),
+                   'chunk ' || g,
+                   json_build_object(
+                       'loginId', 'user-' || (g % 100),
+                       'docId', 'doc-' || (g % 100) || '-' || ((g / 100) % 20),
+                       'ingestedAt', '2026-10-18T00:00:00Z',
+                       'source', 'upload',
+                       'contentHash', md5(g::text))
+            FROM generate_series(0, 49999) AS g
+            """);
+        new RagSchemaInitializer(jdbcTemplate).run();
+        jdbcTemplate.execute("ANALYZE vector_store");
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (jdbcTemplate != null) {
+            jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+            dataSource.destroy();
+        }
+    }
+
+    @Test
+    void documentQueriesUseLoginDocIndex() {
+        assertUsesIndex(explain(RagVectorStoreJdbcRepository.FIND_CHUNK_CONTENTS_SQL, LOGIN_ID, DOC_ID));
+        assertUsesIndex(explain(RagVectorStoreJdbcRepository.DELETE_BY_DOC_ID_SQL, LOGIN_ID, DOC_ID));
+    }
+
+    @Test
+    void contentHashLookupUsesLoginHashIndex() {
+        List<String> plan = jdbcTemplate.query(
+            "EXPLAIN " + RagVectorStoreJdbcRepository.FIND_CHUNK_IDS_BY_CONTENT_HASHES_SQL,
+            ps -> {
+                ps.setString(1, LOGIN_ID);
+                ps.setArray(2, ps.getConnection().createArrayOf("text", new Object[] {"a", "b"}));
+            },
+            (rs, rowNum) -> rs.getString(1));
+
+        assertUsesIndex(plan);
+        assertThat(String.join("\n", plan)).contains("idx_vector_store_login_hash");
+    }
+
+    private static List<String> explain(String sql, Object... args) {
+        return jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args);
+    }
+
+    private static void assertUsesIndex(List<String> plan) {
+        String text = String.join("\n", plan);
+        assertThat(text).doesNotContain("Seq Scan on vector_store");
+        assertThat(text).containsPattern("Index (Only )?Scan|Bitmap Index Scan");
+    }
+}
@@ -0,0 +1,80 @@
+package minkyu307.spring_ai.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+@ExtendWith(MockitoExtension.class)
+class CachingEmbeddingModelTest {
+
+    @Mock
+    private EmbeddingModel delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CachingEmbeddingModel model;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        model = new CachingEmbeddingModel(delegate, 1024 * 1024, meterRegistry);
+        // 텍스트 길이를 값으로 갖는 1차원 벡터를 반환한다.
+        when(delegate.call(any(EmbeddingRequest.class))).thenAnswer(invocation -> {
+            EmbeddingRequest request = invocation.getArgument(0);
+            List<String> texts = request.getInstructions();
+            return new EmbeddingResponse(texts.stream()
+                .map(text -> new Embedding(new float[] {text.length()}, 0))
+                .toList());
+        });
+    }
+
+    @Test
+    void onlyMissingTextsAreForwardedAndOrderIsPreserved() {
+        model.embed("a");
+
+        EmbeddingResponse response = model.call(new EmbeddingRequest(List.of("bbb", "a", "bbb", "cc"), null));
+
+        assertThat(response.getResults()).extracting(embedding -> embedding.getOutput()[0])
+            .containsExactly(3f, 1f, 3f, 2f);
+        ArgumentCaptor<EmbeddingRequest> captor = ArgumentCaptor.forClass(EmbeddingRequest.class);
+        verify(delegate, times(2)).call(captor.capture());
+        assertThat(captor.getAllValues().get(1).getInstructions()).containsExactly("bbb", "cc");
+    }
+
+    @Test
+    void repeatedQueryIsServedFromCacheAndReported() {
+        model.embed("휴가 신청 방법");
+        float[] cached = model.embed("휴가 신청 방법");
+        cached[0] = -1f;
+
+        assertThat(model.embed("휴가 신청 방법")[0]).isEqualTo(8f);
+        verify(delegate, times(1)).call(any(EmbeddingRequest.class));
+        assertThat(meterRegistry.get("rag.embedding.cache.hit.ratio").gauge().value()).isEqualTo(2.0 / 3.0);
+        assertThat(meterRegistry.get("rag.embedding.cache.bytes").gauge().value()).isPositive();
+    }
+
+    @Test
+    void differentEmbeddingOptionsDoNotShareEntries() {
+        EmbeddingOptions otherDimensions = EmbeddingOptions.builder().dimensions(256).build();
+
+        model.embed("같은 텍스트");
+        model.call(new EmbeddingRequest(List.of("같은 텍스트"), otherDimensions));
+
+        verify(delegate, times(2)).call(any(EmbeddingRequest.class));
+    }
+}
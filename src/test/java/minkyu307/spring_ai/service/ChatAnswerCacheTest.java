@@ -0,0 +1,126 @@
+package minkyu307.spring_ai.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import minkyu307.spring_ai.dto.ChatSourceDto;
+import minkyu307.spring_ai.dto.RagCorpusVersionDto;
+import minkyu307.spring_ai.repository.RagDocumentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.embedding.EmbeddingModel;
+
+@ExtendWith(MockitoExtension.class)
+class ChatAnswerCacheTest {
+
+    private static final String LOGIN_ID = "alice";
+    private static final List<ChatSourceDto> SOURCES = List.of(new ChatSourceDto("upload", "guide.pdf", null));
+
+    @Mock
+    private EmbeddingModel embeddingModel;
+
+    @Mock
+    private RagDocumentRepository documentRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private final Map<String, RagCorpusVersionDto> corpusVersions = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // 다른 인스턴스의 적재/삭제도 rag_document 를 거치므로 버전 변경으로 흉내 낸다.
+        lenient().when(documentRepository.findCorpusVersion(anyString())).thenAnswer(invocation ->
+            corpusVersions.getOrDefault(invocation.<String>getArgument(0), new RagCorpusVersionDto(0, null)));
+    }
+
+    @Test
+    void exactHitIgnoresWhitespaceCaseAndTrailingPunctuation() {
+        ChatAnswerCache cache = newCache(0);
+
+        ChatAnswerCache.Lookup miss = cache.lookup(LOGIN_ID, "휴가 신청 방법은?");
+        assertThat(miss.hit()).isNull();
+        cache.store(miss, "그룹웨어에서 신청합니다.", SOURCES, Duration.ofSeconds(3));
+
+        ChatAnswerCache.Lookup hit = cache.lookup(LOGIN_ID, "  휴가   신청 방법은 ");
+
+        assertThat(hit.hit()).isNotNull();
+        assertThat(hit.hit().answer()).isEqualTo("그룹웨어에서 신청합니다.");
+        assertThat(hit.hit().sources()).isEqualTo(SOURCES);
+        assertThat(lookupCount("exact_hit")).isEqualTo(1.0);
+        assertThat(lookupCount("miss")).isEqualTo(1.0);
+        assertThat(meterRegistry.get("chat.answer.cache.latency.saved").timer().totalTime(TimeUnit.SECONDS))
+            .isEqualTo(3.0);
+        verify(embeddingModel, never()).embed(anyString());
+    }
+
+    @Test
+    void semanticHitReusesAnswerWithinDistance() {
+        ChatAnswerCache cache = newCache(0.05);
+        when(embeddingModel.embed("휴가 신청 방법은?")).thenReturn(new float[] {1f, 0f, 0f});
+        when(embeddingModel.embed("휴가는 어떻게 신청해?")).thenReturn(new float[] {0.99f, 0.05f, 0f});
+        when(embeddingModel.embed("점심 메뉴 추천")).thenReturn(new float[] {0f, 1f, 0f});
+
+        cache.store(cache.lookup(LOGIN_ID, "휴가 신청 방법은?"), "그룹웨어에서 신청합니다.", SOURCES, Duration.ofSeconds(2));
+
+        assertThat(cache.lookup(LOGIN_ID, "휴가는 어떻게 신청해?").hit()).isNotNull();
+        assertThat(cache.lookup(LOGIN_ID, "점심 메뉴 추천").hit()).isNull();
+        assertThat(lookupCount("semantic_hit")).isEqualTo(1.0);
+    }
+
+    @Test
+    void corpusChangeMissesUserEntriesOnly() {
+        ChatAnswerCache cache = newCache(0);
+        cache.store(cache.lookup(LOGIN_ID, "질문"), "답변", SOURCES, Duration.ofSeconds(1));
+        cache.store(cache.lookup("bob", "질문"), "다른 답변", SOURCES, Duration.ofSeconds(1));
+
+        // invalidateUser 호출 없이(다른 인스턴스에서 적재) 코퍼스만 바뀐 경우
+        corpusVersions.put(LOGIN_ID, new RagCorpusVersionDto(1, Instant.parse("2026-10-18T00:00:00Z")));
+
+        assertThat(cache.lookup(LOGIN_ID, "질문").hit()).isNull();
+        assertThat(cache.lookup("bob", "질문").hit()).isNotNull();
+    }
+
+    @Test
+    void answerGeneratedAcrossCorpusChangeIsNotStored() {
+        ChatAnswerCache cache = newCache(0);
+        ChatAnswerCache.Lookup lookup = cache.lookup(LOGIN_ID, "질문");
+
+        corpusVersions.put(LOGIN_ID, new RagCorpusVersionDto(1, Instant.parse("2026-10-18T00:00:00Z")));
+        cache.store(lookup, "오래된 코퍼스 기반 답변", SOURCES, Duration.ofSeconds(1));
+
+        assertThat(meterRegistry.get("chat.answer.cache.size").gauge().value()).isZero();
+    }
+
+    @Test
+    void firstTurnOnlyRestrictsCacheToNewConversations() {
+        ChatAnswerCache cache = newCache(0);
+
+        assertThat(cache.appliesTo(true)).isTrue();
+        assertThat(cache.appliesTo(false)).isFalse();
+    }
+
+    private ChatAnswerCache newCache(double semanticMaxDistance) {
+        return new ChatAnswerCache(
+            embeddingModel, documentRepository, meterRegistry, true, 100, Duration.ofHours(1), semanticMaxDistance, true,
+            Clock.systemUTC());
+    }
+
+    private double lookupCount(String result) {
+        return meterRegistry.get("chat.answer.cache.lookups").tag("result", result).counter().count();
+    }
+}
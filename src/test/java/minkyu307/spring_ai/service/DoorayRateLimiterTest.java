@@ -0,0 +1,81 @@
+package minkyu307.spring_ai.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+class DoorayRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void rateIsHalvedOn429AndRecoversAdditivelyPerKey() {
+        DoorayRateLimiter limiter = new DoorayRateLimiter(5, 0.5, 5);
+        // 버킷을 먼저 만들어 이후 시각이 버킷 생성 시각보다 뒤가 되게 한다.
+        limiter.permitsPerSecond("key-a");
+        long now = System.nanoTime();
+
+        limiter.onRateLimited("key-a", null, now);
+        limiter.onRateLimited("key-a", null, now + SECOND);
+        assertThat(limiter.permitsPerSecond("key-a")).isEqualTo(1.25);
+        assertThat(limiter.permitsPerSecond("key-b")).isEqualTo(5);
+
+        limiter.onRateLimited("key-a", null, now + 2 * SECOND);
+        limiter.onRateLimited("key-a", null, now + 4 * SECOND);
+        assertThat(limiter.permitsPerSecond("key-a")).isEqualTo(0.5);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.onSuccess("key-a");
+        }
+        assertThat(limiter.permitsPerSecond("key-a")).isEqualTo(5);
+    }
+
+    @Test
+    void concurrent429sWithinOneWindowHalveOnce() {
+        DoorayRateLimiter limiter = new DoorayRateLimiter(5, 0.5, 5);
+        limiter.permitsPerSecond("key");
+        long now = System.nanoTime();
+
+        for (int i = 0; i < 4; i++) {
+            limiter.onRateLimited("key", null, now + i);
+        }
+        assertThat(limiter.permitsPerSecond("key")).isEqualTo(2.5);
+
+        // 감소 후 충전 간격(1 / 2.5초 = 400ms)이 지나면 다시 낮춘다.
+        limiter.onRateLimited("key", null, now + SECOND / 2);
+        assertThat(limiter.permitsPerSecond("key")).isEqualTo(1.25);
+
+        // Retry-After 시각까지는 충전 간격이 지나도 더 낮추지 않는다.
+        limiter.onRateLimited("key", Duration.ofSeconds(5), now + 2 * SECOND);
+        limiter.onRateLimited("key", null, now + 4 * SECOND);
+        assertThat(limiter.permitsPerSecond("key")).isEqualTo(0.625);
+    }
+
+    @Test
+    void acquireWaitsForRetryAfter() {
+        DoorayRateLimiter limiter = new DoorayRateLimiter(100, 1, 5);
+        limiter.onRateLimited("key", Duration.ofMillis(200));
+
+        long start = System.nanoTime();
+        limiter.acquire("key");
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(190));
+    }
+
+    @Test
+    void retryAfterAcceptsSecondsAndIsCapped() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "3");
+        assertThat(DoorayWikiApiClient.parseRetryAfter(headers)).isEqualTo(Duration.ofSeconds(3));
+
+        headers.set(HttpHeaders.RETRY_AFTER, "3600");
+        assertThat(DoorayWikiApiClient.parseRetryAfter(headers)).isEqualTo(Duration.ofSeconds(60));
+
+        headers.set(HttpHeaders.RETRY_AFTER, "soon");
+        assertThat(DoorayWikiApiClient.parseRetryAfter(headers)).isNull();
+        assertThat(DoorayWikiApiClient.parseRetryAfter(new HttpHeaders())).isNull();
+    }
+}
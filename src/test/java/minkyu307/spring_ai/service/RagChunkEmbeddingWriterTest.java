@@ -0,0 +1,90 @@
+package minkyu307.spring_ai.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.ai.vectorstore.VectorStore;
+
+@ExtendWith(MockitoExtension.class)
+class RagChunkEmbeddingWriterTest {
+
+    @Mock
+    private VectorStore vectorStore;
+
+    @Test
+    void splitsIntoBatchesAndRetriesOnlyTheFailedBatch() {
+        List<Document> chunks = chunks(7);
+        Map<String, AtomicInteger> attemptsByFirstId = new ConcurrentHashMap<>();
+        List<Integer> addedSizes = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+            List<Document> batch = invocation.getArgument(0);
+            int attempt = attemptsByFirstId
+                .computeIfAbsent(batch.get(0).getId(), id -> new AtomicInteger())
+                .incrementAndGet();
+            if (batch.get(0) == chunks.get(3) && attempt == 1) {
+                throw new TransientAiException("429");
+            }
+            addedSizes.add(batch.size());
+            return null;
+        }).when(vectorStore).add(anyList());
+
+        int written = new RagChunkEmbeddingWriter(vectorStore, 3, 2, 3).write(chunks);
+
+        assertThat(written).isEqualTo(7);
+        assertThat(addedSizes).containsExactlyInAnyOrder(3, 3, 1);
+        assertThat(attemptsByFirstId.get(chunks.get(0).getId())).hasValue(1);
+        assertThat(attemptsByFirstId.get(chunks.get(3).getId())).hasValue(2);
+        assertThat(attemptsByFirstId.get(chunks.get(6).getId())).hasValue(1);
+        verify(vectorStore, never()).delete(anyList());
+    }
+
+    @Test
+    void permanentFailureRemovesBatchesAlreadyWritten() {
+        List<Document> chunks = chunks(4);
+        CountDownLatch firstBatchWritten = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            List<Document> batch = invocation.getArgument(0);
+            if (batch.get(0) == chunks.get(2)) {
+                firstBatchWritten.await(5, TimeUnit.SECONDS);
+                throw new NonTransientAiException("invalid request");
+            }
+            firstBatchWritten.countDown();
+            return null;
+        }).when(vectorStore).add(anyList());
+
+        RagChunkEmbeddingWriter writer = new RagChunkEmbeddingWriter(vectorStore, 2, 2, 3);
+
+        assertThatThrownBy(() -> writer.write(chunks)).isInstanceOf(NonTransientAiException.class);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<String>> deleted = ArgumentCaptor.forClass(List.class);
+        verify(vectorStore).delete(deleted.capture());
+        assertThat(deleted.getValue()).containsExactlyInAnyOrder(chunks.get(0).getId(), chunks.get(1).getId());
+    }
+
+    private static List<Document> chunks(int count) {
+        return IntStream.range(0, count)
+            .mapToObj(i -> new Document("chunk-" + i))
+            .toList();
+    }
+}
@@ -0,0 +1,100 @@
+package minkyu307.spring_ai.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import minkyu307.spring_ai.dto.RagFileIngestResultDto;
+import minkyu307.spring_ai.dto.RagMultiFileIngestResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.document.Document;
+import org.springframework.core.io.Resource;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.web.multipart.MultipartFile;
+
+@ExtendWith(MockitoExtension.class)
+class RagFileUploadServiceTest {
+
+    @Mock
+    private DocumentIngestionService ingestionService;
+
+    @Mock
+    private RagResourceDocumentReaderService readerService;
+
+    @BeforeEach
+    void authenticate() {
+        User principal = new User("tester", "", List.of());
+        SecurityContextHolder.getContext()
+            .setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void filesAreIngestedConcurrentlyAndResultsKeepRequestOrder() {
+        // 두 파일이 동시에 읽기 단계에 들어와야만 통과하는 래치: 순차 처리라면 첫 파일이 시간 초과로 실패한다.
+        CountDownLatch bothReading = new CountDownLatch(2);
+        when(readerService.read(any(Resource.class), eq("a.txt"), isNull())).thenAnswer(invocation -> {
+            bothReading.countDown();
+            bothReading.await(5, TimeUnit.SECONDS);
+            return readResult("a");
+        });
+        when(readerService.read(any(Resource.class), eq("b.txt"), isNull())).thenAnswer(invocation -> {
+            bothReading.countDown();
+            if (!bothReading.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("not concurrent");
+            }
+            throw new IllegalArgumentException("읽기 실패");
+        });
+        when(ingestionService.ingestDocuments(anyList(), anyMap()))
+            .thenReturn(new DocumentIngestionService.IngestionResult("doc", "a", 1, 3, 0));
+
+        List<MultipartFile> files = List.of(
+            file("a.txt", "alpha"),
+            file("empty.txt", ""),
+            file("b.txt", "beta"),
+            file("c.exe", "binary"));
+
+        RagMultiFileIngestResponse response = new RagFileUploadService(ingestionService, readerService, 4).upload(files);
+
+        assertThat(response.results()).extracting(RagFileIngestResultDto::filename)
+            .containsExactly("a.txt", "(empty)", "b.txt", "c.exe");
+        assertThat(response.results()).extracting(RagFileIngestResultDto::status)
+            .containsExactly("SUCCEEDED", "SKIPPED", "FAILED", "FAILED");
+        assertThat(response.results().get(2).error()).isEqualTo("읽기 실패");
+        assertThat(response.receivedFiles()).isEqualTo(4);
+        assertThat(response.processedFiles()).isEqualTo(3);
+        assertThat(response.succeededFiles()).isEqualTo(1);
+        assertThat(response.failedFiles()).isEqualTo(2);
+        assertThat(response.skippedFiles()).isEqualTo(1);
+        assertThat(response.totalChunksIngested()).isEqualTo(3);
+    }
+
+    private static RagResourceDocumentReaderService.ReadResult readResult(String text) {
+        return new RagResourceDocumentReaderService.ReadResult(
+            RagResourceDocumentReaderService.DetectedType.TEXT, List.of(new Document(text)));
+    }
+
+    private static MockMultipartFile file(String filename, String content) {
+        return new MockMultipartFile("file", filename, "text/plain", content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,194 @@
+package minkyu307.spring_ai.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import minkyu307.spring_ai.dto.RagUrlIngestResponse;
+import minkyu307.spring_ai.repository.RagIngestionJobJdbcRepository;
+import minkyu307.spring_ai.repository.RagIngestionJobJdbcRepository.ClaimedItem;
+import minkyu307.spring_ai.repository.RagIngestionJobJdbcRepository.ItemResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class RagIngestionJobWorkerTest {
+
+    private static final String JOB_ID = "job-1";
+    private static final String LOGIN_ID = "tester";
+    private static final String URL = "https://example.com/a";
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Mock
+    private RagIngestionJobJdbcRepository jobRepository;
+
+    @Mock
+    private RagFileUploadService fileUploadService;
+
+    @Mock
+    private RagUrlIngestionService urlIngestionService;
+
+    @Mock
+    private RagWikiIngestionService wikiIngestionService;
+
+    @Mock
+    private DoorayWikiApiClient doorayWikiApiClient;
+
+    @Mock
+    private RagDocumentManagementService documentManagementService;
+
+    private RagIngestionJobWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        worker = new RagIngestionJobWorker(
+            jobRepository,
+            fileUploadService,
+            urlIngestionService,
+            wikiIngestionService,
+            doorayWikiApiClient,
+            documentManagementService,
+            1,
+            Duration.ofMillis(50),
+            Duration.ofSeconds(30),
+            MAX_ATTEMPTS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (worker.isRunning()) {
+            worker.stop();
+        }
+    }
+
+    @Test
+    void retriedItemClearsPartialIngestBeforeIngestingAgain() {
+        String docId = expectedDocId(0);
+        when(urlIngestionService.ingest(URI.create(URL), LOGIN_ID, docId))
+            .thenReturn(new RagUrlIngestResponse(docId, URL, "text/html", 1, 4, "A"));
+
+        ItemResult result = runOnce(urlItem(0, 2));
+
+        verify(documentManagementService).deleteDocument(docId, LOGIN_ID);
+        assertThat(result).isEqualTo(new ItemResult("SUCCEEDED", docId, "A", 4, null));
+    }
+
+    @Test
+    void firstAttemptDoesNotDeleteAnything() {
+        String docId = expectedDocId(1);
+        when(urlIngestionService.ingest(URI.create(URL), LOGIN_ID, docId))
+            .thenReturn(new RagUrlIngestResponse(docId, URL, "text/html", 1, 2, "B"));
+
+        ItemResult result = runOnce(urlItem(1, 1));
+
+        verify(documentManagementService, never()).deleteDocument(anyString(), anyString());
+        assertThat(result.status()).isEqualTo("SUCCEEDED");
+    }
+
+    @Test
+    void itemOverMaxAttemptsIsFailedWithoutIngesting() {
+        ItemResult result = runOnce(urlItem(2, MAX_ATTEMPTS + 1));
+
+        // 포기하더라도 이전 시도의 부분 적재는 지운다.
+        verify(documentManagementService).deleteDocument(expectedDocId(2), LOGIN_ID);
+        verifyNoInteractions(urlIngestionService);
+        assertThat(result).isEqualTo(new ItemResult("FAILED", null, null, 0, "처리가 반복해서 중단되어 적재를 중단했습니다."));
+    }
+
+    @Test
+    void ingestionExceptionIsRecordedAsFailed() {
+        when(urlIngestionService.ingest(any(URI.class), eq(LOGIN_ID), anyString()))
+            .thenThrow(new IllegalStateException("URL 응답이 비어 있습니다."));
+
+        ItemResult result = runOnce(urlItem(3, 1));
+
+        assertThat(result).isEqualTo(new ItemResult("FAILED", null, null, 0, "URL 응답이 비어 있습니다."));
+    }
+
+    @Test
+    void lostLeaseInterruptsIngestionAndSkipsCompletion() throws InterruptedException {
+        // 임대 3초 → 1초마다 연장 시도
+        worker = new RagIngestionJobWorker(
+            jobRepository,
+            fileUploadService,
+            urlIngestionService,
+            wikiIngestionService,
+            doorayWikiApiClient,
+            documentManagementService,
+            1,
+            Duration.ofMillis(50),
+            Duration.ofSeconds(3),
+            MAX_ATTEMPTS);
+        ClaimedItem item = urlItem(5, 1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(jobRepository.claimNextItem(any(Duration.class))).thenReturn(item, (ClaimedItem) null);
+        when(jobRepository.extendLease(item.id(), item.attempts(), Duration.ofSeconds(3))).thenReturn(false);
+        when(urlIngestionService.ingest(any(URI.class), eq(LOGIN_ID), anyString())).thenAnswer(invocation -> {
+            try {
+                new CountDownLatch(1).await();
+                return null;
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw new IllegalStateException("적재 중 인터럽트되었습니다.", e);
+            }
+        });
+
+        worker.start();
+
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        // 워커는 결과를 기록하지 않고 다음 항목을 계속 가져간다.
+        verify(jobRepository, timeout(5000).atLeast(2)).claimNextItem(any(Duration.class));
+        verify(jobRepository, never()).completeItem(anyLong(), anyInt(), anyString(), any());
+    }
+
+    @Test
+    void unknownKindIsRecordedAsFailed() {
+        ClaimedItem item = new ClaimedItem(5, JOB_ID, 4, "FTP", "x", "x", null, 1, LOGIN_ID);
+
+        ItemResult result = runOnce(item);
+
+        assertThat(result.status()).isEqualTo("FAILED");
+        assertThat(result.error()).isEqualTo("알 수 없는 항목 유형: FTP");
+    }
+
+    /**
+     * 워커를 띄워 항목 1건을 처리하게 하고 기록된 결과를 반환한다.
+     */
+    private ItemResult runOnce(ClaimedItem item) {
+        when(jobRepository.claimNextItem(any(Duration.class))).thenReturn(item, (ClaimedItem) null);
+        worker.start();
+
+        ArgumentCaptor<ItemResult> result = ArgumentCaptor.forClass(ItemResult.class);
+        verify(jobRepository, timeout(5000)).completeItem(eq(item.id()), eq(item.attempts()), eq(JOB_ID), result.capture());
+        verify(jobRepository).refreshJob(JOB_ID);
+        return result.getValue();
+    }
+
+    private static ClaimedItem urlItem(int itemIndex, int attempts) {
+        return new ClaimedItem(itemIndex + 1, JOB_ID, itemIndex, RagIngestionJobService.KIND_URL, URL, URL, null,
+            attempts, LOGIN_ID);
+    }
+
+    private static String expectedDocId(int itemIndex) {
+        return UUID.nameUUIDFromBytes((JOB_ID + ":" + itemIndex).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+}
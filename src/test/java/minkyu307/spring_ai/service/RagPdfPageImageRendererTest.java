@@ -0,0 +1,58 @@
+package minkyu307.spring_ai.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import javax.imageio.ImageIO;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+class RagPdfPageImageRendererTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void largePagesAreRenderedAtReducedDpiWithinLongEdgeLimit() throws Exception {
+        RagPdfPageImageRenderer renderer = renderer(DataSize.ofMegabytes(1));
+
+        try (PDDocument pdf = new PDDocument()) {
+            pdf.addPage(new PDPage(PDRectangle.A4));
+            pdf.addPage(new PDPage(PDRectangle.A0));
+
+            RagPdfPageImageRenderer.RenderedPage a4 = renderer.render(pdf, new PDFRenderer(pdf), 0);
+            RagPdfPageImageRenderer.RenderedPage a0 = renderer.render(pdf, new PDFRenderer(pdf), 1);
+
+            assertThat(a4.dpi()).isEqualTo(160);
+            assertThat(a0.dpi()).isEqualTo(72);
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(a4.png()));
+            assertThat(Math.max(image.getWidth(), image.getHeight())).isLessThanOrEqualTo(2000);
+            assertThat(image.getColorModel().getNumComponents()).isEqualTo(1);
+        }
+        assertThat(meterRegistry.get("rag.ocr.page.image.bytes").summary().count()).isEqualTo(2);
+    }
+
+    @Test
+    void oversizedImagesAreReRenderedAtLowerDpi() throws Exception {
+        RagPdfPageImageRenderer renderer = renderer(DataSize.ofBytes(100));
+
+        try (PDDocument pdf = new PDDocument()) {
+            pdf.addPage(new PDPage(PDRectangle.A4));
+
+            RagPdfPageImageRenderer.RenderedPage page = renderer.render(pdf, new PDFRenderer(pdf), 0);
+
+            assertThat(page.dpi()).isLessThan(160).isGreaterThanOrEqualTo(72);
+        }
+        assertThat(meterRegistry.get("rag.ocr.page.image.downscales").counter().count()).isPositive();
+    }
+
+    private RagPdfPageImageRenderer renderer(DataSize maxImageSize) {
+        return new RagPdfPageImageRenderer(meterRegistry, ImageType.GRAY, 160, 72, 2000, maxImageSize);
+    }
+}